@@ -4,6 +4,7 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -21,6 +22,16 @@ public class AppProperties {
 
     private Cors cors = new Cors();
     private Security security = new Security();
+    private Statistics statistics = new Statistics();
+    private ReasonCounts reasonCounts = new ReasonCounts();
+    private Ledger ledger = new Ledger();
+    private Reconciliation reconciliation = new Reconciliation();
+    private Idempotency idempotency = new Idempotency();
+    private WriteBehind writeBehind = new WriteBehind();
+    private Sharding sharding = new Sharding();
+    private SummaryRefresh summaryRefresh = new SummaryRefresh();
+    private BalanceVerification balanceVerification = new BalanceVerification();
+    private Audit audit = new Audit();
 
     @Data
     public static class Cors {
@@ -41,4 +52,106 @@ public class AppProperties {
     public static class Security {
         private int jwtSecretMinLength = 32;
     }
+
+    @Data
+    public static class Statistics {
+        // How often dashboard statistics are fully recomputed to correct drift
+        private Duration driftCheckInterval = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class ReasonCounts {
+        // How long an instance serves cached stock-out reason counts; bounds how stale they can
+        // be when another instance recorded the stock-out
+        private Duration ttl = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Ledger {
+        // Serve stock reads from the in-memory stock ledger
+        private boolean enabled = false;
+        private String checkpointPath = "data/stock-ledger.ckpt";
+        private Duration checkpointInterval = Duration.ofMinutes(10);
+        private int replayFetchSize = 10000;
+    }
+
+    @Data
+    public static class Reconciliation {
+        // Run the scheduled stock reconciliation job
+        private boolean enabled = false;
+        private String cron = "0 0 3 * * *";
+        // Item IDs per chunk and number of chunks checked concurrently
+        private int chunkSize = 5000;
+        private int parallelism = 4;
+        // Rewrite items.current_stock from the ledger instead of only reporting
+        private boolean repair = false;
+    }
+
+    @Data
+    public static class Idempotency {
+        // How long a stored response is replayed for the same Idempotency-Key
+        private Duration ttl = Duration.ofHours(24);
+        private Duration cleanupInterval = Duration.ofHours(1);
+        // POST paths (without the servlet context path) that honor Idempotency-Key
+        private List<String> paths = new ArrayList<>(Arrays.asList("/stock/in", "/stock/in/batch", "/stock/out", "/stock-outs/batch"));
+    }
+
+    @Data
+    public static class WriteBehind {
+        // Commit single-line stock writes in shared group transactions
+        private boolean enabled = false;
+        // A group is committed when it reaches maxBatchSize or flushInterval after its first entry
+        private int maxBatchSize = 100;
+        private Duration flushInterval = Duration.ofMillis(5);
+        // Requests beyond this run in the caller's own transaction
+        private int queueCapacity = 10000;
+        // false commits groups with synchronous_commit off: faster, but the last groups
+        // acknowledged before a database crash can be lost
+        private boolean synchronousCommit = true;
+    }
+
+    @Data
+    public static class Sharding {
+        // Split the balance of hot items over several sub-counter rows
+        private boolean enabled = false;
+        private int shards = 8;
+        // Stock writes per item and evaluation interval to start and stop sharding
+        private long hotThreshold = 1000;
+        private long coolThreshold = 100;
+        private Duration evaluationInterval = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class SummaryRefresh {
+        // Refresh the stock_summary view in the background after ledger changes
+        private boolean enabled = true;
+        // Changes within this window of the first pending one share a single refresh
+        private Duration coalesceWindow = Duration.ofSeconds(5);
+        private Duration pollInterval = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class BalanceVerification {
+        // Run the scheduled inventory_balances check against the inventory_transactions ledger
+        private boolean enabled = false;
+        private String cron = "0 30 3 * * *";
+        // Item IDs compared per statement
+        private int chunkSize = 5000;
+        // Rewrite mismatched balances from the ledger instead of only reporting
+        private boolean repair = false;
+    }
+
+    @Data
+    public static class Audit {
+        // Write audit_logs rows for committed entity changes
+        private boolean enabled = true;
+        // Store only the columns an update changed instead of whole rows
+        private boolean changedColumnsOnly = true;
+        // Rows are inserted in batches of up to maxBatchSize, at least every flushInterval
+        private int maxBatchSize = 500;
+        private Duration flushInterval = Duration.ofSeconds(1);
+        // When the queue is full, committing threads wait up to offerTimeout before the entry is dropped
+        private int queueCapacity = 10000;
+        private Duration offerTimeout = Duration.ofMillis(500);
+    }
 }
@@ -0,0 +1,203 @@
+package management.backend.inventory.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.Table;
+import management.backend.inventory.entity.AuditAction;
+import management.backend.inventory.entity.Batch;
+import management.backend.inventory.entity.Category;
+import management.backend.inventory.entity.InventoryTransaction;
+import management.backend.inventory.entity.Item;
+import management.backend.inventory.entity.PurchaseOrder;
+import management.backend.inventory.entity.SalesOrder;
+import management.backend.inventory.entity.StockTransfer;
+import management.backend.inventory.entity.Supplier;
+import management.backend.inventory.entity.User;
+import management.backend.inventory.entity.Warehouse;
+import management.backend.inventory.service.AuditTrailService;
+import org.hibernate.bytecode.enhance.spi.LazyPropertyInitializer;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Captures committed changes to audited entities for {@link AuditTrailService}.
+ * Registered as a Hibernate post-commit listener, so only changes that actually commit
+ * are audited and the capture runs after the writing transaction has released its locks.
+ * Values are keyed by column name, as the former to_jsonb triggers stored them;
+ * associations are stored as their ID and collections are left out.
+ * <p>
+ * With app.audit.changed-columns-only, updates record only the columns that changed and
+ * updates that changed nothing are skipped. Changes made with JDBC or bulk statements
+ * bypass Hibernate and are not audited; stock balances are recorded in the stock_movements
+ * ledger instead.
+ */
+@Component
+public class AuditEventListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private static final Set<Class<?>> AUDITED = Set.of(User.class, Category.class, Item.class, Supplier.class,
+        Warehouse.class, Batch.class, InventoryTransaction.class, PurchaseOrder.class, SalesOrder.class,
+        StockTransfer.class);
+
+    // Inventory transactions are audited as stock movements with only these columns
+    private static final Set<String> STOCK_MOVEMENT_COLUMNS = Set.of("item_id", "warehouse_id", "quantity", "transaction_type");
+
+    private static final Set<String> MASKED_COLUMNS = Set.of("password");
+    private static final String MASK = "********";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final AuditTrailService auditTrailService;
+    private final PersistenceUnitUtil persistenceUnitUtil;
+
+    public AuditEventListener(EntityManagerFactory entityManagerFactory, AuditTrailService auditTrailService) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.auditTrailService = auditTrailService;
+        this.persistenceUnitUtil = entityManagerFactory.getPersistenceUnitUtil();
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return auditTrailService.isEnabled() && AUDITED.contains(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        EntityPersister persister = event.getPersister();
+        if (persister.getMappedClass() == InventoryTransaction.class) {
+            Map<String, Object> values = columns(persister, event.getState(), null);
+            values.keySet().retainAll(STOCK_MOVEMENT_COLUMNS);
+            Long performedBy = (Long) identifierOf(((InventoryTransaction) event.getEntity()).getPerformedBy());
+            submit(performedBy, AuditAction.STOCK_MOVEMENT, persister, event.getId(), null, values);
+            return;
+        }
+        submit(currentUserId(), AuditAction.CREATE, persister, event.getId(), null,
+            columns(persister, event.getState(), null));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        EntityPersister persister = event.getPersister();
+        Object[] oldState = event.getOldState();
+        if (!auditTrailService.isChangedColumnsOnly() || oldState == null) {
+            submit(currentUserId(), AuditAction.UPDATE, persister, event.getId(),
+                oldState == null ? null : columns(persister, oldState, null), columns(persister, event.getState(), null));
+            return;
+        }
+        boolean[] changed = changedProperties(persister, event.getDirtyProperties(), oldState, event.getState());
+        Map<String, Object> newValues = columns(persister, event.getState(), changed);
+        if (newValues.isEmpty()) return;
+        submit(currentUserId(), AuditAction.UPDATE, persister, event.getId(), columns(persister, oldState, changed), newValues);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        submit(currentUserId(), AuditAction.DELETE, event.getPersister(), event.getId(),
+            columns(event.getPersister(), event.getDeletedState(), null), null);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Rolled back: nothing to audit
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Rolled back: nothing to audit
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Rolled back: nothing to audit
+    }
+
+    private void submit(Long userId, AuditAction action, EntityPersister persister, Object id,
+                        Map<String, Object> oldValues, Map<String, Object> newValues) {
+        if (!(id instanceof Number number)) return;
+        Table table = persister.getMappedClass().getAnnotation(Table.class);
+        String entityType = table != null ? table.name() : persister.getMappedClass().getSimpleName();
+        auditTrailService.submit(new AuditTrailService.Change(userId, action, entityType, number.longValue(),
+            oldValues, newValues, LocalDateTime.now()));
+    }
+
+    /**
+     * Properties that changed, from Hibernate's dirty check or by comparing the states.
+     */
+    private static boolean[] changedProperties(EntityPersister persister, int[] dirty, Object[] oldState, Object[] newState) {
+        boolean[] changed = new boolean[persister.getPropertyNames().length];
+        if (dirty != null) {
+            for (int i : dirty) changed[i] = true;
+        } else {
+            for (int i = 0; i < changed.length; i++) {
+                changed[i] = !Objects.equals(oldState[i], newState[i]);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Column name to value for the given properties, or all properties when include is null.
+     */
+    private Map<String, Object> columns(EntityPersister persister, Object[] state, boolean[] include) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (state == null) return values;
+        Type[] types = persister.getPropertyTypes();
+        for (int i = 0; i < state.length; i++) {
+            if (include != null && !include[i]) continue;
+            Object value = state[i];
+            if (types[i].isCollectionType() || value == LazyPropertyInitializer.UNFETCHED_PROPERTY) continue;
+            String column = columnName(persister, i);
+            if (MASKED_COLUMNS.contains(column)) {
+                values.put(column, MASK);
+            } else {
+                values.put(column, types[i].isEntityType() ? identifierOf(value) : value);
+            }
+        }
+        return values;
+    }
+
+    private static String columnName(EntityPersister persister, int property) {
+        if (persister instanceof AbstractEntityPersister entityPersister) {
+            String[] columns = entityPersister.getPropertyColumnNames(property);
+            if (columns != null && columns.length == 1) return columns[0];
+        }
+        return persister.getPropertyNames()[property];
+    }
+
+    private Object identifierOf(Object entity) {
+        return entity == null ? null : persistenceUnitUtil.getIdentifier(entity);
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof Number userId ? userId.longValue() : null;
+    }
+}
@@ -161,6 +161,8 @@ public class DataSourceConfig {
         config.setAutoCommit(true);
         config.setConnectionTestQuery("SELECT 1");
         config.setLeakDetectionThreshold(60000);
+        // Let the driver rewrite Hibernate JDBC batches into multi-row INSERTs
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
         
         log.info("=== DataSource Created ===");
         return new HikariDataSource(config);
@@ -0,0 +1,191 @@
+package management.backend.inventory.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import management.backend.inventory.repository.IdempotencyKeyRepository.StoredKey;
+import management.backend.inventory.service.IdempotencyKeyService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Replays the original response for stock write requests retried with the same Idempotency-Key.
+ * Runs after Spring Security, so keys are scoped to the authenticated caller and endpoint.
+ * A retry that arrives while the original is still running gets 409; reusing a key with a
+ * different body gets 422. Responses with a 5xx status are not stored, so those can be retried.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyService idempotencyKeyService;
+    private final AppProperties appProperties;
+
+    public IdempotencyFilter(IdempotencyKeyService idempotencyKeyService, AppProperties appProperties) {
+        this.idempotencyKeyService = idempotencyKeyService;
+        this.appProperties = appProperties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+            || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+            || !appProperties.getIdempotency().getPaths().contains(pathOf(request));
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String scope = scopeOf(request);
+        String requestHash = sha256(cachedRequest.body);
+
+        if (!idempotencyKeyService.reserve(scope, key, requestHash)) {
+            replay(response, scope, key, requestHash);
+            return;
+        }
+
+        ContentCachingResponseWrapper cachedResponse = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(cachedRequest, cachedResponse);
+        } catch (IOException | ServletException | RuntimeException e) {
+            idempotencyKeyService.release(scope, key);
+            throw e;
+        }
+        int status = cachedResponse.getStatus();
+        if (status >= 500) {
+            idempotencyKeyService.release(scope, key);
+        } else {
+            idempotencyKeyService.complete(scope, key, status, cachedResponse.getContentType(), cachedResponse.getContentAsByteArray());
+        }
+        cachedResponse.copyBodyToResponse();
+    }
+
+    private void replay(HttpServletResponse response, String scope, String key, String requestHash) throws IOException {
+        Optional<StoredKey> stored = idempotencyKeyService.find(scope, key);
+        if (stored.isEmpty() || !stored.get().isCompleted()) {
+            // Released or still running
+            writeError(response, HttpStatus.CONFLICT, "A request with this Idempotency-Key is still being processed");
+            return;
+        }
+        StoredKey original = stored.get();
+        if (!original.requestHash().equals(requestHash)) {
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key was already used with a different request");
+            return;
+        }
+        log.debug("Replaying stored response for Idempotency-Key {}", key);
+        response.setStatus(original.statusCode());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (original.contentType() != null) {
+            response.setContentType(original.contentType());
+        }
+        if (original.responseBody() != null) {
+            response.setContentLength(original.responseBody().length);
+            response.getOutputStream().write(original.responseBody());
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\": \"" + message + "\"}");
+    }
+
+    private String scopeOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String principal = authentication != null ? authentication.getName() : "anonymous";
+        return principal + " POST " + pathOf(request);
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Request wrapper that reads the body once so it can be hashed and then read again.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package management.backend.inventory.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (statistics drift checks).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
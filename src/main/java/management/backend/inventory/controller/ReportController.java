@@ -1,21 +1,26 @@
 package management.backend.inventory.controller;
 
+import management.backend.inventory.dto.CursorPageResponse;
+import management.backend.inventory.dto.StockMovementHistoryFilter;
 import management.backend.inventory.dto.StockMovementHistoryResponse;
 import management.backend.inventory.dto.StockOutReasonResponse;
 import management.backend.inventory.entity.AuditLog;
-import management.backend.inventory.entity.StockMovement;
 import management.backend.inventory.repository.AuditLogRepository;
-import management.backend.inventory.repository.StockMovementRepository;
+import management.backend.inventory.service.StockMovementExportService;
 import management.backend.inventory.service.StockOutReasonService;
+import management.backend.inventory.service.StockService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -35,15 +40,18 @@ import java.util.stream.Collectors;
 public class ReportController {
     
     private final StockOutReasonService stockOutReasonService;
-    private final StockMovementRepository stockMovementRepository;
+    private final StockService stockService;
+    private final StockMovementExportService stockMovementExportService;
     private final AuditLogRepository auditLogRepository;
     
     public ReportController(
             StockOutReasonService stockOutReasonService,
-            StockMovementRepository stockMovementRepository,
+            StockService stockService,
+            StockMovementExportService stockMovementExportService,
             AuditLogRepository auditLogRepository) {
         this.stockOutReasonService = stockOutReasonService;
-        this.stockMovementRepository = stockMovementRepository;
+        this.stockService = stockService;
+        this.stockMovementExportService = stockMovementExportService;
         this.auditLogRepository = auditLogRepository;
     }
     
@@ -85,38 +93,66 @@ public class ReportController {
      */
     @GetMapping("/stock-movements")
     @PreAuthorize("isAuthenticated()")
-    @Operation(summary = "Get stock movements report", description = "Retrieve stock movement history with reasons and recipients")
+    @Operation(summary = "Get stock movements report", description = "Retrieve stock movement history with reasons and recipients, newest first; pass nextCursor as cursor for the next page")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Report generated successfully"),
         @ApiResponse(responseCode = "401", description = "Unauthorized - authentication required")
     })
     @SecurityRequirement(name = "Bearer Authentication")
-    public ResponseEntity<List<StockMovementHistoryResponse>> getStockMovementsReport(
+    public ResponseEntity<CursorPageResponse<StockMovementHistoryResponse>> getStockMovementsReport(
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
             @RequestParam(required = false) String movementType,
-            @RequestParam(required = false) Long itemId) {
-        
-        LocalDate start = startDate != null ? LocalDate.parse(startDate) : LocalDate.now().minusMonths(1);
-        LocalDate end = endDate != null ? LocalDate.parse(endDate) : LocalDate.now();
+            @RequestParam(required = false) Long itemId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
         
-        // Get all stock movements
-        List<StockMovement> movements = stockMovementRepository.findAll();
+        LocalDate start = startDate != null ? StockMovementHistoryFilter.parseDate(startDate, "startDate") : LocalDate.now().minusMonths(1);
+        LocalDate end = endDate != null ? StockMovementHistoryFilter.parseDate(endDate, "endDate") : LocalDate.now();
         
-        // Filter by date range
-        LocalDateTime startDateTime = start.atStartOfDay();
-        LocalDateTime endDateTime = end.atTime(LocalTime.MAX);
+        // Filtering, joins and paging all happen in the database
+        StockMovementHistoryFilter filter = StockMovementHistoryFilter.of(start, end, movementType, itemId, null);
+        return ResponseEntity.ok(stockService.getMovementHistory(filter, cursor, limit));
+    }
+    
+    /**
+     * GET /api/reports/stock-movements/export - Stream the stock ledger as CSV or NDJSON.
+     * Rows are written oldest first straight from a database cursor, optionally gzipped.
+     * Accessible to authenticated users
+     */
+    @GetMapping("/stock-movements/export")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Export stock movements", description = "Stream the full stock movement ledger as CSV or NDJSON, optionally gzip-compressed")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid format or filter"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - authentication required")
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    public ResponseEntity<StreamingResponseBody> exportStockMovements(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String movementType,
+            @RequestParam(required = false) Long itemId,
+            @RequestParam(required = false) Long warehouseId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
         
-        List<StockMovementHistoryResponse> report = movements.stream()
-            .filter(m -> m.getCreatedAt() != null && 
-                    m.getCreatedAt().isAfter(startDateTime) && 
-                    m.getCreatedAt().isBefore(endDateTime))
-            .filter(m -> movementType == null || m.getMovementType().toString().equals(movementType))
-            .filter(m -> itemId == null || m.getItem().getItemId().equals(itemId))
-            .map(this::convertToHistoryResponse)
-            .collect(Collectors.toList());
+        StockMovementExportService.Format exportFormat = StockMovementExportService.Format.parse(format);
+        StockMovementHistoryFilter filter = StockMovementHistoryFilter.of(
+            StockMovementHistoryFilter.parseDate(startDate, "startDate"),
+            StockMovementHistoryFilter.parseDate(endDate, "endDate"),
+            movementType,
+            itemId,
+            warehouseId
+        );
         
-        return ResponseEntity.ok(report);
+        String filename = "stock-movements-" + LocalDate.now() + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> stockMovementExportService.export(filter, exportFormat, gzip, out);
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+            .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+            .body(body);
     }
     
     /**
@@ -164,37 +200,4 @@ public class ReportController {
         
         return ResponseEntity.ok(logs);
     }
-    
-    /**
-     * Helper method to convert StockMovement to StockMovementHistoryResponse.
-     */
-    private StockMovementHistoryResponse convertToHistoryResponse(StockMovement movement) {
-        String userName = "Unknown";
-        if (movement.getUser() != null) {
-            String name = movement.getUser().getName() != null ? movement.getUser().getName() : "";
-            userName = name.trim();
-            if (userName.isEmpty()) {
-                userName = movement.getUser().getUsername();
-            }
-        }
-        
-        return new StockMovementHistoryResponse(
-            movement.getStockMovementId(),
-            movement.getItem().getItemId(),
-            movement.getItem().getName(),
-            movement.getItem().getSku(),
-            movement.getMovementType().toString(),
-            movement.getQuantity(),
-            movement.getPreviousStock(),
-            movement.getNewStock(),
-            movement.getReason(),
-            movement.getRecipient(),
-            movement.getNotes(),
-            movement.getReferenceNumber(),
-            userName,
-            movement.getUser() != null ? movement.getUser().getEmail() : "Unknown",
-            movement.getCreatedAt(),
-            movement.getItem().getUnitPrice()
-        );
-    }
 }
@@ -1,13 +1,21 @@
 package management.backend.inventory.controller;
 
+import management.backend.inventory.dto.CursorPageResponse;
 import management.backend.inventory.dto.ItemStockResponse;
 import management.backend.inventory.dto.ReasonBreakdownResponse;
 import management.backend.inventory.dto.StockMovementRequest;
 import management.backend.inventory.dto.StockInBatchRequest;
+import management.backend.inventory.dto.StockInDocumentResponse;
+import management.backend.inventory.dto.StockMovementHistoryFilter;
+import management.backend.inventory.dto.StockMovementHistoryResponse;
 import management.backend.inventory.dto.StockOutReasonResponse;
+import management.backend.inventory.dto.StockStatusResponse;
+import management.backend.inventory.dto.WarehouseStockResponse;
 import management.backend.inventory.entity.StockMovement;
+import management.backend.inventory.entity.StockStatus;
 import management.backend.inventory.service.StockOutReasonService;
 import management.backend.inventory.service.StockService;
+import management.backend.inventory.service.StockWriteBehindService;
 import io.swagger.v3.oas.annotations.Operation;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -33,10 +41,13 @@ public class StockController {
     
     private final StockService stockService;
     private final StockOutReasonService stockOutReasonService;
+    private final StockWriteBehindService stockWriteBehindService;
     
-    public StockController(StockService stockService, StockOutReasonService stockOutReasonService) {
+    public StockController(StockService stockService, StockOutReasonService stockOutReasonService,
+                           StockWriteBehindService stockWriteBehindService) {
         this.stockService = stockService;
         this.stockOutReasonService = stockOutReasonService;
+        this.stockWriteBehindService = stockWriteBehindService;
     }
     
     /**
@@ -48,7 +59,7 @@ public class StockController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<java.util.Map<String, Object>> recordStockIn(@Valid @RequestBody StockMovementRequest request, Authentication authentication) {
         try {
-            StockMovement movement = stockService.recordStockIn(request, authentication);
+            StockMovement movement = stockWriteBehindService.execute(() -> stockService.recordStockIn(request, authentication));
             java.util.Map<String, Object> body = new java.util.HashMap<>();
             body.put("id", movement.getStockMovementId());
             body.put("referenceNumber", movement.getReferenceNumber());
@@ -68,7 +79,7 @@ public class StockController {
     @PostMapping("/out")
     @PreAuthorize("hasRole('USER') and !hasRole('ADMIN')")
     public ResponseEntity<StockMovement> recordStockOut(@Valid @RequestBody StockMovementRequest request, Authentication authentication) {
-        StockMovement movement = stockService.recordStockOut(request, authentication);
+        StockMovement movement = stockWriteBehindService.execute(() -> stockService.recordStockOut(request, authentication));
         return ResponseEntity.status(HttpStatus.CREATED).body(movement);
     }
     
@@ -85,11 +96,34 @@ public class StockController {
         }
     }
     
+    @GetMapping("/in")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "List stock-in transactions", description = "List stock-in movements newest first; pass nextCursor as cursor for the next page")
+    public ResponseEntity<CursorPageResponse<StockMovementHistoryResponse>> getStockInTransactions(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "50") int limit
+    ) {
+        return ResponseEntity.ok(stockService.getStockInTransactions(cursor, limit));
+    }
+    
+    @GetMapping("/out")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "List stock-out transactions", description = "List stock-out movements newest first; pass nextCursor as cursor for the next page")
+    public ResponseEntity<CursorPageResponse<StockMovementHistoryResponse>> getStockOutTransactions(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "50") int limit
+    ) {
+        return ResponseEntity.ok(stockService.getStockOutTransactions(cursor, limit));
+    }
+    
     @GetMapping("/in/grouped")
     @PreAuthorize("isAuthenticated()")
-    @Operation(summary = "List stock-in groups", description = "List stock-in transactions grouped by reference number with creator and date")
-    public ResponseEntity<List<java.util.Map<String, Object>>> getStockInGroups() {
-        return ResponseEntity.ok(stockService.getStockInSummaries());
+    @Operation(summary = "List stock-in groups", description = "List stock-in documents with creator and date, most recently updated first; pass nextCursor as cursor for the next page")
+    public ResponseEntity<CursorPageResponse<StockInDocumentResponse>> getStockInGroups(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "50") int limit
+    ) {
+        return ResponseEntity.ok(stockService.getStockInSummaries(cursor, limit));
     }
     
     @GetMapping("/in/{referenceNumber}")
@@ -153,6 +187,44 @@ public class StockController {
             .orElse(ResponseEntity.notFound().build());
     }
     
+    /**
+     * GET /api/stock/warehouses/{warehouseId} - Stock held in a warehouse, per item.
+     * Accessible to authenticated users (both Admin and User roles)
+     */
+    @GetMapping("/warehouses/{warehouseId}")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get warehouse stock", description = "List the items held in a warehouse with their quantity there")
+    public ResponseEntity<List<WarehouseStockResponse>> getWarehouseStock(@PathVariable Long warehouseId) {
+        return ResponseEntity.ok(stockService.getWarehouseStock(warehouseId));
+    }
+    
+    /**
+     * GET /api/stock/status/alerts - Item and warehouse pairs with LOW or EXCESS stock, for replenishment.
+     * Accessible to authenticated users (both Admin and User roles)
+     */
+    @GetMapping("/status/alerts")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "List stock status alerts", description = "List item and warehouse pairs whose stock is LOW or EXCESS by warehouse and item; pass nextCursor as cursor for the next page")
+    public ResponseEntity<CursorPageResponse<StockStatusResponse>> getStockStatusAlerts(
+        @RequestParam(required = false) Long warehouseId,
+        @RequestParam(required = false) StockStatus status,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "50") int limit
+    ) {
+        return ResponseEntity.ok(stockService.getStockStatusAlerts(warehouseId, status, cursor, limit));
+    }
+    
+    /**
+     * GET /api/stock/items/{itemId}/warehouses - An item's stock in each warehouse.
+     * Accessible to authenticated users (both Admin and User roles)
+     */
+    @GetMapping("/items/{itemId}/warehouses")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get item stock by warehouse", description = "List the warehouses holding an item with its quantity in each")
+    public ResponseEntity<List<WarehouseStockResponse>> getItemWarehouseStock(@PathVariable Long itemId) {
+        return ResponseEntity.ok(stockService.getItemWarehouseStock(itemId));
+    }
+    
     /**
      * GET /api/stock/reasons - Get predefined stock-out reasons.
      * SaaS Features: Stock-out reasons list
@@ -196,15 +268,27 @@ public class StockController {
     
     /**
      * GET /api/stock/movements/history - Get stock movement history with reasons.
+     * Keyset-paginated, newest first; pass nextCursor as cursor to get the next page.
      * SaaS Features: Stock movement history
      * Accessible to authenticated users
      */
     @GetMapping("/movements/history")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<StockMovement>> getMovementHistory(
+    public ResponseEntity<CursorPageResponse<StockMovementHistoryResponse>> getMovementHistory(
             @RequestParam(required = false) String startDate,
-            @RequestParam(required = false) String endDate) {
-        List<StockMovement> movements = stockService.getRecentStockMovements();
-        return ResponseEntity.ok(movements);
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String movementType,
+            @RequestParam(required = false) Long itemId,
+            @RequestParam(required = false) Long warehouseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        StockMovementHistoryFilter filter = StockMovementHistoryFilter.of(
+            StockMovementHistoryFilter.parseDate(startDate, "startDate"),
+            StockMovementHistoryFilter.parseDate(endDate, "endDate"),
+            movementType,
+            itemId,
+            warehouseId
+        );
+        return ResponseEntity.ok(stockService.getMovementHistory(filter, cursor, limit));
     }
 }
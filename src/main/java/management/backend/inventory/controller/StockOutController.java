@@ -5,6 +5,7 @@ import management.backend.inventory.dto.CreateStockOutBatchRequest;
 import management.backend.inventory.dto.CreateStockOutRequest;
 import management.backend.inventory.dto.StockOutResponse;
 import management.backend.inventory.service.StockOutService;
+import management.backend.inventory.service.StockWriteBehindService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,9 +17,11 @@ import java.util.List;
 public class StockOutController {
 
     private final StockOutService stockOutService;
+    private final StockWriteBehindService stockWriteBehindService;
 
-    public StockOutController(StockOutService stockOutService) {
+    public StockOutController(StockOutService stockOutService, StockWriteBehindService stockWriteBehindService) {
         this.stockOutService = stockOutService;
+        this.stockWriteBehindService = stockWriteBehindService;
     }
 
     @PostMapping("/batch")
@@ -30,7 +33,7 @@ public class StockOutController {
     @PostMapping
     @org.springframework.security.access.prepost.PreAuthorize("isAuthenticated()")
     public ResponseEntity<StockOutResponse> createStockOut(@Valid @RequestBody CreateStockOutRequest request) {
-        return ResponseEntity.ok(stockOutService.createStockOut(request));
+        return ResponseEntity.ok(stockWriteBehindService.execute(() -> stockOutService.createStockOut(request)));
     }
 
     @PutMapping("/{id}")
@@ -0,0 +1,57 @@
+package management.backend.inventory.dto;
+
+import java.time.LocalDate;
+
+/**
+ * DTO for the available stock of one batch of an item in a warehouse.
+ * batchId is null for stock recorded without a batch.
+ */
+public class BatchStockResponse {
+    
+    private Long batchId;
+    private String batchNumber;
+    private LocalDate expiryDate;
+    private Long quantity;
+    
+    // Default constructor
+    public BatchStockResponse() {}
+    
+    public BatchStockResponse(Long batchId, String batchNumber, LocalDate expiryDate, Long quantity) {
+        this.batchId = batchId;
+        this.batchNumber = batchNumber;
+        this.expiryDate = expiryDate;
+        this.quantity = quantity;
+    }
+    
+    public Long getBatchId() {
+        return batchId;
+    }
+    
+    public void setBatchId(Long batchId) {
+        this.batchId = batchId;
+    }
+    
+    public String getBatchNumber() {
+        return batchNumber;
+    }
+    
+    public void setBatchNumber(String batchNumber) {
+        this.batchNumber = batchNumber;
+    }
+    
+    public LocalDate getExpiryDate() {
+        return expiryDate;
+    }
+    
+    public void setExpiryDate(LocalDate expiryDate) {
+        this.expiryDate = expiryDate;
+    }
+    
+    public Long getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Long quantity) {
+        this.quantity = quantity;
+    }
+}
@@ -11,9 +11,9 @@ public class ItemStockResponse {
     private String description;
     private BigDecimal unitPrice;
     private LocalDateTime createdAt;
-    private Integer currentStock;
-    private Integer totalStockIn;
-    private Integer totalStockOut;
+    private Long currentStock;
+    private Long totalStockIn;
+    private Long totalStockOut;
     private Long categoryId;
     private String categoryName;
     private Long minimumStock;
@@ -25,8 +25,8 @@ public class ItemStockResponse {
     
     // Constructor
     public ItemStockResponse(Long itemId, String name, String sku, String description, BigDecimal unitPrice,
-                             LocalDateTime createdAt, Integer currentStock,
-                             Integer totalStockIn, Integer totalStockOut,
+                             LocalDateTime createdAt, Long currentStock,
+                             Long totalStockIn, Long totalStockOut,
                              Long categoryId, String categoryName,
                              Long minimumStock, Long maximumStock, Long reorderLevel) {
         this.itemId = itemId;
@@ -94,27 +94,27 @@ public class ItemStockResponse {
         this.createdAt = createdAt;
     }
     
-    public Integer getCurrentStock() {
+    public Long getCurrentStock() {
         return currentStock;
     }
     
-    public void setCurrentStock(Integer currentStock) {
+    public void setCurrentStock(Long currentStock) {
         this.currentStock = currentStock;
     }
     
-    public Integer getTotalStockIn() {
+    public Long getTotalStockIn() {
         return totalStockIn;
     }
     
-    public void setTotalStockIn(Integer totalStockIn) {
+    public void setTotalStockIn(Long totalStockIn) {
         this.totalStockIn = totalStockIn;
     }
     
-    public Integer getTotalStockOut() {
+    public Long getTotalStockOut() {
         return totalStockOut;
     }
     
-    public void setTotalStockOut(Integer totalStockOut) {
+    public void setTotalStockOut(Long totalStockOut) {
         this.totalStockOut = totalStockOut;
     }
     
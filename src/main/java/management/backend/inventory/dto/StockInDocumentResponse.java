@@ -0,0 +1,119 @@
+package management.backend.inventory.dto;
+
+import management.backend.inventory.entity.StockSourceMode;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one stock-in document in the grouped stock-in listing.
+ */
+public class StockInDocumentResponse {
+    
+    private Long stockInDocumentId;
+    private String referenceNumber;
+    private Integer count;
+    private String createdBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String supplierName;
+    private String warehouseName;
+    private String sourceMode;
+    
+    // Default constructor
+    public StockInDocumentResponse() {}
+    
+    // Constructor used by JPQL constructor expressions
+    public StockInDocumentResponse(
+        Long stockInDocumentId,
+        String referenceNumber,
+        Integer count,
+        String createdBy,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        String supplierName,
+        String warehouseName,
+        StockSourceMode sourceMode
+    ) {
+        this.stockInDocumentId = stockInDocumentId;
+        this.referenceNumber = referenceNumber;
+        this.count = count;
+        this.createdBy = createdBy;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.supplierName = supplierName;
+        this.warehouseName = warehouseName;
+        this.sourceMode = sourceMode != null ? sourceMode.name() : null;
+    }
+    
+    public Long getStockInDocumentId() {
+        return stockInDocumentId;
+    }
+    
+    public void setStockInDocumentId(Long stockInDocumentId) {
+        this.stockInDocumentId = stockInDocumentId;
+    }
+    
+    public String getReferenceNumber() {
+        return referenceNumber;
+    }
+    
+    public void setReferenceNumber(String referenceNumber) {
+        this.referenceNumber = referenceNumber;
+    }
+    
+    public Integer getCount() {
+        return count;
+    }
+    
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+    
+    public String getCreatedBy() {
+        return createdBy;
+    }
+    
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public String getSupplierName() {
+        return supplierName;
+    }
+    
+    public void setSupplierName(String supplierName) {
+        this.supplierName = supplierName;
+    }
+    
+    public String getWarehouseName() {
+        return warehouseName;
+    }
+    
+    public void setWarehouseName(String warehouseName) {
+        this.warehouseName = warehouseName;
+    }
+    
+    public String getSourceMode() {
+        return sourceMode;
+    }
+    
+    public void setSourceMode(String sourceMode) {
+        this.sourceMode = sourceMode;
+    }
+}
@@ -0,0 +1,111 @@
+package management.backend.inventory.dto;
+
+import management.backend.inventory.entity.MovementType;
+import management.backend.inventory.exception.ValidationException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Optional filters for stock movement history queries.
+ * Null fields are not applied.
+ */
+public class StockMovementHistoryFilter {
+    
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private MovementType movementType;
+    private Long itemId;
+    private Long warehouseId;
+    
+    // Default constructor
+    public StockMovementHistoryFilter() {}
+    
+    public StockMovementHistoryFilter(LocalDateTime startDate, LocalDateTime endDate, MovementType movementType, Long itemId, Long warehouseId) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.movementType = movementType;
+        this.itemId = itemId;
+        this.warehouseId = warehouseId;
+    }
+    
+    /**
+     * Build a filter from request parameters.
+     * Dates cover whole days; the movement type is matched case-insensitively.
+     *
+     * @throws ValidationException when the movement type is unknown
+     */
+    public static StockMovementHistoryFilter of(LocalDate startDate, LocalDate endDate, String movementType, Long itemId, Long warehouseId) {
+        MovementType type = null;
+        if (movementType != null && !movementType.isBlank()) {
+            try {
+                type = MovementType.valueOf(movementType.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Invalid movement type: " + movementType, "movementType", "Unknown movement type");
+            }
+        }
+        return new StockMovementHistoryFilter(
+            startDate != null ? startDate.atStartOfDay() : null,
+            endDate != null ? endDate.atTime(LocalTime.MAX) : null,
+            type,
+            itemId,
+            warehouseId
+        );
+    }
+    
+    /**
+     * Parse an ISO date request parameter, or null when it is absent.
+     *
+     * @throws ValidationException when the value is not a yyyy-MM-dd date
+     */
+    public static LocalDate parseDate(String value, String field) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("Invalid date: " + value, field, "Expected yyyy-MM-dd");
+        }
+    }
+    
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+    
+    public void setStartDate(LocalDateTime startDate) {
+        this.startDate = startDate;
+    }
+    
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+    
+    public void setEndDate(LocalDateTime endDate) {
+        this.endDate = endDate;
+    }
+    
+    public MovementType getMovementType() {
+        return movementType;
+    }
+    
+    public void setMovementType(MovementType movementType) {
+        this.movementType = movementType;
+    }
+    
+    public Long getItemId() {
+        return itemId;
+    }
+    
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+    
+    public Long getWarehouseId() {
+        return warehouseId;
+    }
+    
+    public void setWarehouseId(Long warehouseId) {
+        this.warehouseId = warehouseId;
+    }
+}
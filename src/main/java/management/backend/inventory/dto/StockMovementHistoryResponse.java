@@ -1,5 +1,7 @@
 package management.backend.inventory.dto;
 
+import management.backend.inventory.entity.MovementType;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -68,6 +70,30 @@ public class StockMovementHistoryResponse {
         this.unitPrice = unitPrice;
     }
     
+    // Constructor used by JPQL projections, which select the movement type enum
+    public StockMovementHistoryResponse(
+        Long stockMovementId,
+        Long itemId,
+        String itemName,
+        String itemSku,
+        MovementType movementType,
+        Long quantity,
+        Long previousStock,
+        Long newStock,
+        String reason,
+        String recipient,
+        String notes,
+        String referenceNumber,
+        String userName,
+        String userEmail,
+        LocalDateTime createdAt,
+        BigDecimal unitPrice
+    ) {
+        this(stockMovementId, itemId, itemName, itemSku, movementType != null ? movementType.name() : null,
+            quantity, previousStock, newStock, reason, recipient, notes, referenceNumber,
+            userName, userEmail, createdAt, unitPrice);
+    }
+    
     // Getters and setters
     public Long getStockMovementId() {
         return stockMovementId;
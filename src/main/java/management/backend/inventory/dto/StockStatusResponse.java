@@ -0,0 +1,130 @@
+package management.backend.inventory.dto;
+
+import management.backend.inventory.entity.StockStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for an item's stock level in one warehouse, classified against its minimum and maximum stock.
+ */
+public class StockStatusResponse {
+    
+    private Long itemId;
+    private String itemName;
+    private String sku;
+    private Long warehouseId;
+    private String warehouseName;
+    private Long quantity;
+    private Long minimumStock;
+    private Long maximumStock;
+    private StockStatus stockStatus;
+    private LocalDateTime updatedAt;
+    
+    // Default constructor
+    public StockStatusResponse() {}
+    
+    // Constructor used by JPQL constructor expressions
+    public StockStatusResponse(
+        Long itemId,
+        String itemName,
+        String sku,
+        Long warehouseId,
+        String warehouseName,
+        Long quantity,
+        Long minimumStock,
+        Long maximumStock,
+        StockStatus stockStatus,
+        LocalDateTime updatedAt
+    ) {
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.sku = sku;
+        this.warehouseId = warehouseId;
+        this.warehouseName = warehouseName;
+        this.quantity = quantity;
+        this.minimumStock = minimumStock;
+        this.maximumStock = maximumStock;
+        this.stockStatus = stockStatus;
+        this.updatedAt = updatedAt;
+    }
+    
+    public Long getItemId() {
+        return itemId;
+    }
+    
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+    
+    public String getItemName() {
+        return itemName;
+    }
+    
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+    
+    public String getSku() {
+        return sku;
+    }
+    
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+    
+    public Long getWarehouseId() {
+        return warehouseId;
+    }
+    
+    public void setWarehouseId(Long warehouseId) {
+        this.warehouseId = warehouseId;
+    }
+    
+    public String getWarehouseName() {
+        return warehouseName;
+    }
+    
+    public void setWarehouseName(String warehouseName) {
+        this.warehouseName = warehouseName;
+    }
+    
+    public Long getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Long quantity) {
+        this.quantity = quantity;
+    }
+    
+    public Long getMinimumStock() {
+        return minimumStock;
+    }
+    
+    public void setMinimumStock(Long minimumStock) {
+        this.minimumStock = minimumStock;
+    }
+    
+    public Long getMaximumStock() {
+        return maximumStock;
+    }
+    
+    public void setMaximumStock(Long maximumStock) {
+        this.maximumStock = maximumStock;
+    }
+    
+    public StockStatus getStockStatus() {
+        return stockStatus;
+    }
+    
+    public void setStockStatus(StockStatus stockStatus) {
+        this.stockStatus = stockStatus;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,95 @@
+package management.backend.inventory.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the stock of one item in one warehouse.
+ */
+public class WarehouseStockResponse {
+    
+    private Long itemId;
+    private String itemName;
+    private String sku;
+    private Long warehouseId;
+    private String warehouseName;
+    private Long quantity;
+    private LocalDateTime updatedAt;
+    
+    // Default constructor
+    public WarehouseStockResponse() {}
+    
+    // Constructor used by JPQL constructor expressions
+    public WarehouseStockResponse(
+        Long itemId,
+        String itemName,
+        String sku,
+        Long warehouseId,
+        String warehouseName,
+        Long quantity,
+        LocalDateTime updatedAt
+    ) {
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.sku = sku;
+        this.warehouseId = warehouseId;
+        this.warehouseName = warehouseName;
+        this.quantity = quantity;
+        this.updatedAt = updatedAt;
+    }
+    
+    public Long getItemId() {
+        return itemId;
+    }
+    
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+    
+    public String getItemName() {
+        return itemName;
+    }
+    
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+    
+    public String getSku() {
+        return sku;
+    }
+    
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+    
+    public Long getWarehouseId() {
+        return warehouseId;
+    }
+    
+    public void setWarehouseId(Long warehouseId) {
+        this.warehouseId = warehouseId;
+    }
+    
+    public String getWarehouseName() {
+        return warehouseName;
+    }
+    
+    public void setWarehouseName(String warehouseName) {
+        this.warehouseName = warehouseName;
+    }
+    
+    public Long getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Long quantity) {
+        this.quantity = quantity;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
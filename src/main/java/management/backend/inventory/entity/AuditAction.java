@@ -18,5 +18,10 @@ public enum AuditAction {
     /**
      * Entity deletion action
      */
-    DELETE
+    DELETE,
+    
+    /**
+     * Inventory transaction recorded
+     */
+    STOCK_MOVEMENT
 }
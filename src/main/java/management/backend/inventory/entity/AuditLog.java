@@ -21,7 +21,8 @@ import java.util.Objects;
 public class AuditLog {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_logs_seq")
+    @SequenceGenerator(name = "audit_logs_seq", sequenceName = "audit_logs_audit_log_id_seq", allocationSize = 50)
     @Column(name = "audit_log_id")
     private Long auditLogId;
     
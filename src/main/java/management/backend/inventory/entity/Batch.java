@@ -19,7 +19,8 @@ uniqueConstraints = {
 public class Batch {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "batches_seq")
+    @SequenceGenerator(name = "batches_seq", sequenceName = "batches_batch_id_seq", allocationSize = 50)
     @Column(name = "batch_id")
     private Long batchId;
     
@@ -14,7 +14,8 @@ import java.util.Objects;
 public class Category {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categories_seq")
+    @SequenceGenerator(name = "categories_seq", sequenceName = "categories_category_id_seq", allocationSize = 50)
     @Column(name = "category_id")
     private Long categoryId;
     
@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 })
 public class Demand {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "demands_seq")
+    @SequenceGenerator(name = "demands_seq", sequenceName = "demands_demand_id_seq", allocationSize = 50)
     @Column(name = "demand_id")
     private Long demandId;
     
@@ -11,7 +11,8 @@ import jakarta.validation.constraints.NotNull;
 })
 public class DemandItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "demand_items_seq")
+    @SequenceGenerator(name = "demand_items_seq", sequenceName = "demand_items_demand_item_id_seq", allocationSize = 50)
     @Column(name = "demand_item_id")
     private Long demandItemId;
     
@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 })
 public class Employee {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employees_seq")
+    @SequenceGenerator(name = "employees_seq", sequenceName = "employees_employee_id_seq", allocationSize = 50)
     @Column(name = "employee_id")
     private Long employeeId;
     
@@ -8,7 +8,8 @@ import lombok.NoArgsConstructor;
 @Table(name = "grades")
 public class Grade {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "grades_seq")
+    @SequenceGenerator(name = "grades_seq", sequenceName = "grades_grade_id_seq", allocationSize = 50)
     @Column(name = "grade_id")
     private Long id;
 
@@ -17,7 +17,8 @@ import java.util.Objects;
 public class InventoryTransaction {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_transactions_seq")
+    @SequenceGenerator(name = "inventory_transactions_seq", sequenceName = "inventory_transactions_transaction_id_seq", allocationSize = 50)
     @Column(name = "transaction_id")
     private Long transactionId;
     
@@ -24,7 +24,8 @@ import java.util.Objects;
 public class Item {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_item_id_seq", allocationSize = 50)
     @Column(name = "item_id")
     private Long itemId;
     
@@ -47,8 +48,10 @@ public class Item {
     @Column(name = "unit_price", nullable = true, precision = 12, scale = 2)
     private BigDecimal unitPrice;
     
+    // Balance changes only through the conditional UPDATEs in ItemRepository; saving an
+    // edited item must not write back the stock it loaded
     @Min(value = 0, message = "Current stock must be non-negative")
-    @Column(name = "current_stock", nullable = false)
+    @Column(name = "current_stock", nullable = false, updatable = false)
     private Long currentStock = 0L;
     
     @Min(value = 0, message = "Minimum stock must be non-negative")
@@ -16,7 +16,8 @@ import java.util.Objects;
 public class ItemPrice {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_prices_seq")
+    @SequenceGenerator(name = "item_prices_seq", sequenceName = "item_prices_price_id_seq", allocationSize = 50)
     @Column(name = "price_id")
     private Long priceId;
     
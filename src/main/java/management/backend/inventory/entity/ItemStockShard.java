@@ -0,0 +1,78 @@
+package management.backend.inventory.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * One stock sub-counter of a hot item.
+ * Rows are written by ItemStockShardRepository and are read-only here; they are mapped
+ * so queries can add an item's shards to its current stock.
+ */
+@Entity
+@Table(name = "item_stock_shards")
+@IdClass(ItemStockShard.Key.class)
+public class ItemStockShard {
+    
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+    
+    @Id
+    @Column(name = "shard_no")
+    private Short shardNo;
+    
+    @Column(name = "quantity", nullable = false)
+    private Long quantity = 0L;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    // Default constructor for JPA
+    public ItemStockShard() {}
+    
+    public Long getItemId() {
+        return itemId;
+    }
+    
+    public Short getShardNo() {
+        return shardNo;
+    }
+    
+    public Long getQuantity() {
+        return quantity;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    /**
+     * Composite key (item, shard number).
+     */
+    public static class Key implements Serializable {
+        private Long itemId;
+        private Short shardNo;
+        
+        public Key() {}
+        
+        public Key(Long itemId, Short shardNo) {
+            this.itemId = itemId;
+            this.shardNo = shardNo;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(itemId, key.itemId) && Objects.equals(shardNo, key.shardNo);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(itemId, shardNo);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package management.backend.inventory.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-item stock totals read model.
+ * Rows are written by StockJdbcRepository alongside every stock movement and are read-only here.
+ */
+@Entity
+@Table(name = "item_stock_totals")
+public class ItemStockTotal {
+    
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+    
+    @Column(name = "total_in", nullable = false)
+    private Long totalIn = 0L;
+    
+    @Column(name = "total_out", nullable = false)
+    private Long totalOut = 0L;
+    
+    @Column(name = "current_stock", nullable = false)
+    private Long currentStock = 0L;
+    
+    @Column(name = "last_movement_at")
+    private LocalDateTime lastMovementAt;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    // Default constructor for JPA
+    public ItemStockTotal() {}
+    
+    public Long getItemId() {
+        return itemId;
+    }
+    
+    public Long getTotalIn() {
+        return totalIn;
+    }
+    
+    public Long getTotalOut() {
+        return totalOut;
+    }
+    
+    public Long getCurrentStock() {
+        return currentStock;
+    }
+    
+    public LocalDateTime getLastMovementAt() {
+        return lastMovementAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
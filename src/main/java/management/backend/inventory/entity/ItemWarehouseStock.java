@@ -0,0 +1,89 @@
+package management.backend.inventory.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Per-(item, warehouse) stock balance read model.
+ * Rows are written by StockJdbcRepository alongside every stock movement that names a
+ * warehouse and are read-only here. stockStatus classifies the quantity against the item's
+ * minimum and maximum stock and is updated by the same statements.
+ */
+@Entity
+@Table(name = "item_warehouse_stock", indexes = {
+    @Index(name = "idx_item_warehouse_stock_warehouse", columnList = "warehouse_id, item_id")
+})
+@IdClass(ItemWarehouseStock.Key.class)
+public class ItemWarehouseStock {
+    
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+    
+    @Id
+    @Column(name = "warehouse_id")
+    private Long warehouseId;
+    
+    @Column(name = "quantity", nullable = false)
+    private Long quantity = 0L;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "stock_status", nullable = false, length = 10)
+    private StockStatus stockStatus = StockStatus.OK;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    // Default constructor for JPA
+    public ItemWarehouseStock() {}
+    
+    public Long getItemId() {
+        return itemId;
+    }
+    
+    public Long getWarehouseId() {
+        return warehouseId;
+    }
+    
+    public Long getQuantity() {
+        return quantity;
+    }
+    
+    public StockStatus getStockStatus() {
+        return stockStatus;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    /**
+     * Composite key (item, warehouse).
+     */
+    public static class Key implements Serializable {
+        private Long itemId;
+        private Long warehouseId;
+        
+        public Key() {}
+        
+        public Key(Long itemId, Long warehouseId) {
+            this.itemId = itemId;
+            this.warehouseId = warehouseId;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(itemId, key.itemId) && Objects.equals(warehouseId, key.warehouseId);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(itemId, warehouseId);
+        }
+    }
+}
@@ -19,7 +19,8 @@ import java.util.Objects;
 public class PurchaseOrder {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "purchase_orders_seq")
+    @SequenceGenerator(name = "purchase_orders_seq", sequenceName = "purchase_orders_purchase_order_id_seq", allocationSize = 50)
     @Column(name = "purchase_order_id")
     private Long purchaseOrderId;
     
@@ -18,7 +18,8 @@ import java.util.Objects;
 public class SalesOrder {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sales_orders_seq")
+    @SequenceGenerator(name = "sales_orders_seq", sequenceName = "sales_orders_sales_order_id_seq", allocationSize = 50)
     @Column(name = "sales_order_id")
     private Long salesOrderId;
     
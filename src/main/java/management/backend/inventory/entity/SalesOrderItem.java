@@ -14,7 +14,8 @@ import java.util.Objects;
 public class SalesOrderItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sales_order_items_seq")
+    @SequenceGenerator(name = "sales_order_items_seq", sequenceName = "sales_order_items_sales_order_item_id_seq", allocationSize = 50)
     @Column(name = "sales_order_item_id")
     private Long salesOrderItemId;
     
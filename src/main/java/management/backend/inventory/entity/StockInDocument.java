@@ -0,0 +1,94 @@
+package management.backend.inventory.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock-in document header, one row per reference number.
+ * Rows are written by StockJdbcRepository alongside the stock-in movement lines and are read-only here.
+ */
+@Entity
+@Table(name = "stock_in_documents", indexes = {
+        @Index(name = "idx_stock_in_documents_updated_id", columnList = "updated_at DESC, stock_in_document_id DESC")
+})
+public class StockInDocument {
+    
+    @Id
+    @Column(name = "stock_in_document_id")
+    private Long stockInDocumentId;
+    
+    @Column(name = "reference_number", length = 100, nullable = false, unique = true)
+    private String referenceNumber;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "supplier_id")
+    private Supplier supplier;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id")
+    private Warehouse warehouse;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by", nullable = false)
+    private User createdBy;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "source_mode", length = 50)
+    private StockSourceMode sourceMode;
+    
+    @Column(name = "line_count", nullable = false)
+    private Integer lineCount = 0;
+    
+    @Column(name = "notes", columnDefinition = "TEXT")
+    private String notes;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    // Default constructor for JPA
+    public StockInDocument() {}
+    
+    public Long getStockInDocumentId() {
+        return stockInDocumentId;
+    }
+    
+    public String getReferenceNumber() {
+        return referenceNumber;
+    }
+    
+    public Supplier getSupplier() {
+        return supplier;
+    }
+    
+    public Warehouse getWarehouse() {
+        return warehouse;
+    }
+    
+    public User getCreatedBy() {
+        return createdBy;
+    }
+    
+    public StockSourceMode getSourceMode() {
+        return sourceMode;
+    }
+    
+    public Integer getLineCount() {
+        return lineCount;
+    }
+    
+    public String getNotes() {
+        return notes;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
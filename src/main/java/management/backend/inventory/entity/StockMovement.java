@@ -15,14 +15,18 @@ import java.util.Objects;
 @Table(name = "stock_movements", indexes = {
         @Index(name = "idx_stock_movements_item_id", columnList = "item_id"),
         @Index(name = "idx_stock_movements_user_id", columnList = "user_id"),
-        @Index(name = "idx_stock_movements_movement_type", columnList = "movement_type"),
         @Index(name = "idx_stock_movements_created_at", columnList = "created_at"),
-        @Index(name = "idx_stock_movements_reference", columnList = "reference_number")
+        @Index(name = "idx_stock_movements_reference", columnList = "reference_number"),
+        @Index(name = "idx_stock_movements_created_id", columnList = "created_at DESC, stock_movement_id DESC"),
+        @Index(name = "idx_stock_movements_item_created_id", columnList = "item_id, created_at DESC, stock_movement_id DESC"),
+        @Index(name = "idx_stock_movements_warehouse_created_id", columnList = "warehouse_id, created_at DESC, stock_movement_id DESC"),
+        @Index(name = "idx_stock_movements_type_created_id", columnList = "movement_type, created_at DESC, stock_movement_id DESC")
 })
 public class StockMovement {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_movements_seq")
+    @SequenceGenerator(name = "stock_movements_seq", sequenceName = "stock_movements_stock_movement_id_seq", allocationSize = 50)
     @Column(name = "stock_movement_id")
     private Long stockMovementId;
     
@@ -83,6 +87,10 @@ public class StockMovement {
     @Column(name = "source_mode", length = 50)
     private StockSourceMode sourceMode;
     
+    // The item's category when the movement was written; the stock-out reason rollup is keyed by it
+    @Column(name = "category_id")
+    private Long categoryId;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -231,6 +239,9 @@ public class StockMovement {
     public StockSourceMode getSourceMode() { return sourceMode; }
     public void setSourceMode(StockSourceMode sourceMode) { this.sourceMode = sourceMode; }
     
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+    
     public StockOutReason getStockOutReason() { return stockOutReason; }
     public void setStockOutReason(StockOutReason stockOutReason) { this.stockOutReason = stockOutReason; }
     
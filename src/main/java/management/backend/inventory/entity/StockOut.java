@@ -21,7 +21,8 @@ import java.time.LocalDateTime;
 public class StockOut {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_outs_seq")
+    @SequenceGenerator(name = "stock_outs_seq", sequenceName = "stock_outs_id_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -60,6 +61,10 @@ public class StockOut {
     @Column(name = "reference_number", length = 50)
     private String referenceNumber;
 
+    // The OUT movement recorded for this stock-out; edits and deletes go through it
+    @Column(name = "stock_movement_id", unique = true)
+    private Long stockMovementId;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
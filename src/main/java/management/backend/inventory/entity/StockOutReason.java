@@ -12,7 +12,8 @@ import java.util.Objects;
 public class StockOutReason {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_out_reasons_seq")
+    @SequenceGenerator(name = "stock_out_reasons_seq", sequenceName = "stock_out_reasons_reason_id_seq", allocationSize = 50)
     @Column(name = "reason_id")
     private Long reasonId;
     
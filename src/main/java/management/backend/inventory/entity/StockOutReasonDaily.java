@@ -0,0 +1,78 @@
+package management.backend.inventory.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Daily stock-out rollup per (day, item, category, warehouse, reason type).
+ * Rows are written by StockJdbcRepository alongside every stock-out movement and are read-only here.
+ */
+@Entity
+@Table(name = "stock_out_reason_daily", indexes = {
+        @Index(name = "idx_stock_out_reason_daily_date", columnList = "movement_date"),
+        @Index(name = "idx_stock_out_reason_daily_item_date", columnList = "item_id, movement_date"),
+        @Index(name = "idx_stock_out_reason_daily_category_date", columnList = "category_id, movement_date")
+})
+public class StockOutReasonDaily {
+    
+    @Id
+    @Column(name = "id")
+    private Long id;
+    
+    @Column(name = "movement_date", nullable = false)
+    private LocalDate movementDate;
+    
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+    
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+    
+    @Column(name = "warehouse_id")
+    private Long warehouseId;
+    
+    @Column(name = "reason_type", length = 50)
+    private String reasonType;
+    
+    @Column(name = "movement_count", nullable = false)
+    private Long movementCount = 0L;
+    
+    @Column(name = "total_quantity", nullable = false)
+    private Long totalQuantity = 0L;
+    
+    // Default constructor for JPA
+    public StockOutReasonDaily() {}
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public LocalDate getMovementDate() {
+        return movementDate;
+    }
+    
+    public Long getItemId() {
+        return itemId;
+    }
+    
+    public Long getCategoryId() {
+        return categoryId;
+    }
+    
+    public Long getWarehouseId() {
+        return warehouseId;
+    }
+    
+    public String getReasonType() {
+        return reasonType;
+    }
+    
+    public Long getMovementCount() {
+        return movementCount;
+    }
+    
+    public Long getTotalQuantity() {
+        return totalQuantity;
+    }
+}
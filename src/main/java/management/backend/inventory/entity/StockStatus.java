@@ -0,0 +1,10 @@
+package management.backend.inventory.entity;
+
+/**
+ * Stock level of an item in a warehouse relative to the item's minimum and maximum stock.
+ */
+public enum StockStatus {
+    OK,
+    LOW,
+    EXCESS
+}
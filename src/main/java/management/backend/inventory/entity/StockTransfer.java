@@ -16,7 +16,8 @@ import java.util.Objects;
 public class StockTransfer {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_transfers_seq")
+    @SequenceGenerator(name = "stock_transfers_seq", sequenceName = "stock_transfers_transfer_id_seq", allocationSize = 50)
     @Column(name = "transfer_id")
     private Long transferId;
     
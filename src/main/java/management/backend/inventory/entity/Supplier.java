@@ -15,7 +15,8 @@ import java.util.Objects;
 public class Supplier {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "suppliers_seq")
+    @SequenceGenerator(name = "suppliers_seq", sequenceName = "suppliers_supplier_id_seq", allocationSize = 50)
     @Column(name = "supplier_id")
     private Long supplierId;
     
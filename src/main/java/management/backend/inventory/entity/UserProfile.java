@@ -11,7 +11,8 @@ import java.util.Objects;
 public class UserProfile {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_profiles_seq")
+    @SequenceGenerator(name = "user_profiles_seq", sequenceName = "user_profiles_profile_id_seq", allocationSize = 50)
     @Column(name = "profile_id")
     private Long profileId;
     
@@ -15,7 +15,8 @@ import java.util.Objects;
 public class Warehouse {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "warehouses_seq")
+    @SequenceGenerator(name = "warehouses_seq", sequenceName = "warehouses_warehouse_id_seq", allocationSize = 50)
     @Column(name = "warehouse_id")
     private Long warehouseId;
     
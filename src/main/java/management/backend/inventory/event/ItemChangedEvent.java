@@ -0,0 +1,17 @@
+package management.backend.inventory.event;
+
+/**
+ * Published by ItemService when an item is created or its details (price, stock levels) change.
+ */
+public class ItemChangedEvent {
+    
+    private final Long itemId;
+    
+    public ItemChangedEvent(Long itemId) {
+        this.itemId = itemId;
+    }
+    
+    public Long getItemId() {
+        return itemId;
+    }
+}
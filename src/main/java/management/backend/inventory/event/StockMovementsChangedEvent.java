@@ -0,0 +1,37 @@
+package management.backend.inventory.event;
+
+import management.backend.inventory.entity.MovementType;
+import management.backend.inventory.entity.StockMovement;
+
+import java.util.List;
+
+/**
+ * Published by StockMutationService whenever stock movements are recorded or removed.
+ * Listeners that keep in-memory state should use
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT)} so rolled-back writes are never seen.
+ */
+public class StockMovementsChangedEvent {
+    
+    private final List<StockMovement> movements;
+    private final boolean removed;
+    
+    public StockMovementsChangedEvent(List<StockMovement> movements, boolean removed) {
+        this.movements = List.copyOf(movements);
+        this.removed = removed;
+    }
+    
+    public List<StockMovement> getMovements() {
+        return movements;
+    }
+    
+    /**
+     * @return true when the movements were deleted, false when they were recorded
+     */
+    public boolean isRemoved() {
+        return removed;
+    }
+    
+    public boolean containsType(MovementType type) {
+        return movements.stream().anyMatch(m -> m.getMovementType() == type);
+    }
+}
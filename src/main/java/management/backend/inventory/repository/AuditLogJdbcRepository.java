@@ -0,0 +1,68 @@
+package management.backend.inventory.repository;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC repository for writing audit_logs rows in batches.
+ * Rows are inserted with one batched statement, which the driver rewrites into multi-row
+ * inserts (reWriteBatchedInserts).
+ */
+@Repository
+public class AuditLogJdbcRepository {
+
+    private static final String INSERT_SQL = """
+        INSERT INTO audit_logs (user_id, action, entity_type, entity_id, old_values, new_values, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    /**
+     * An audit_logs row with its values already serialized to JSON.
+     */
+    public record AuditRow(Long userId, String action, String entityType, Long entityId,
+                           String oldValues, String newValues, LocalDateTime createdAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuditLogJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert the rows with one batched statement.
+     */
+    public void insertAll(List<AuditRow> rows) {
+        if (rows.isEmpty()) return;
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                AuditRow row = rows.get(i);
+                if (row.userId() == null) {
+                    ps.setNull(1, Types.BIGINT);
+                } else {
+                    ps.setLong(1, row.userId());
+                }
+                ps.setString(2, row.action());
+                ps.setString(3, row.entityType());
+                ps.setLong(4, row.entityId());
+                ps.setString(5, row.oldValues());
+                ps.setString(6, row.newValues());
+                ps.setTimestamp(7, Timestamp.valueOf(row.createdAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+}
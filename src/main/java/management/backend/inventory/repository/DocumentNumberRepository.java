@@ -0,0 +1,27 @@
+package management.backend.inventory.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC access to the document number sequences.
+ */
+@Repository
+public class DocumentNumberRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DocumentNumberRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Draw the next value from a sequence. nextval is not rolled back with the
+     * surrounding transaction, so a value is never handed out twice.
+     */
+    public long nextValue(String sequenceName) {
+        Long value = jdbcTemplate.queryForObject("SELECT nextval(?::regclass)", Long.class, sequenceName);
+        if (value == null) throw new IllegalStateException("Sequence " + sequenceName + " returned no value");
+        return value;
+    }
+}
@@ -0,0 +1,91 @@
+package management.backend.inventory.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC repository for idempotency keys.
+ * A key is reserved before the request runs (status_code NULL) and completed with the
+ * response afterwards; expired keys can be reserved again.
+ */
+@Repository
+public class IdempotencyKeyRepository {
+
+    private static final String RESERVE_SQL = """
+        INSERT INTO idempotency_keys (scope, idempotency_key, request_hash, created_at, expires_at)
+        VALUES (?, ?, ?, CURRENT_TIMESTAMP, ?)
+        ON CONFLICT (scope, idempotency_key) DO UPDATE SET
+            request_hash = EXCLUDED.request_hash,
+            status_code = NULL,
+            content_type = NULL,
+            response_body = NULL,
+            created_at = EXCLUDED.created_at,
+            expires_at = EXCLUDED.expires_at
+        WHERE idempotency_keys.expires_at < CURRENT_TIMESTAMP
+        """;
+
+    /**
+     * A stored key; statusCode is null while the original request is still running.
+     */
+    public record StoredKey(String requestHash, Integer statusCode, String contentType, byte[] responseBody) {
+        public boolean isCompleted() {
+            return statusCode != null;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdempotencyKeyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Reserve a key for a request about to run.
+     *
+     * @return true when reserved; false when an unexpired key already exists
+     */
+    public boolean tryReserve(String scope, String key, String requestHash, LocalDateTime expiresAt) {
+        return jdbcTemplate.update(RESERVE_SQL, scope, key, requestHash, Timestamp.valueOf(expiresAt)) == 1;
+    }
+
+    public Optional<StoredKey> find(String scope, String key) {
+        List<StoredKey> rows = jdbcTemplate.query(
+            "SELECT request_hash, status_code, content_type, response_body FROM idempotency_keys WHERE scope = ? AND idempotency_key = ?",
+            (rs, rowNum) -> new StoredKey(
+                rs.getString("request_hash"),
+                (Integer) rs.getObject("status_code"),
+                rs.getString("content_type"),
+                rs.getBytes("response_body")
+            ),
+            scope, key);
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Store the response of a reserved key.
+     */
+    public void complete(String scope, String key, int statusCode, String contentType, byte[] responseBody) {
+        jdbcTemplate.update(
+            "UPDATE idempotency_keys SET status_code = ?, content_type = ?, response_body = ? WHERE scope = ? AND idempotency_key = ?",
+            statusCode, contentType, responseBody, scope, key);
+    }
+
+    /**
+     * Drop a reserved key so the request can be retried.
+     */
+    public void release(String scope, String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE scope = ? AND idempotency_key = ?", scope, key);
+    }
+
+    /**
+     * @return number of expired keys deleted
+     */
+    public int deleteExpired() {
+        return jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at < CURRENT_TIMESTAMP");
+    }
+}
@@ -0,0 +1,174 @@
+package management.backend.inventory.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * JDBC repository for inventory_balances, the running balance of the inventory_transactions
+ * ledger per (item, warehouse, batch). A null batch is stored as its own balance and
+ * matched through COALESCE(batch_id, 0), like the unique index.
+ */
+@Repository
+public class InventoryBalanceRepository {
+
+    private static final String ADD_SQL = """
+        INSERT INTO inventory_balances (item_id, warehouse_id, batch_id, quantity, updated_at)
+        VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)
+        ON CONFLICT (item_id, warehouse_id, (COALESCE(batch_id, 0))) DO UPDATE SET
+            quantity = inventory_balances.quantity + EXCLUDED.quantity,
+            updated_at = EXCLUDED.updated_at
+        RETURNING quantity
+        """;
+
+    private static final String SUBTRACT_SQL = """
+        UPDATE inventory_balances SET quantity = quantity - ?, updated_at = CURRENT_TIMESTAMP
+        WHERE item_id = ? AND warehouse_id = ? AND COALESCE(batch_id, 0) = COALESCE(?, 0)
+          AND quantity >= ?
+        RETURNING quantity
+        """;
+
+    private static final String VERIFY_RANGE_SQL = """
+        WITH ledger AS (
+            SELECT item_id, warehouse_id, batch_id,
+                SUM(CASE WHEN transaction_type IN ('STOCK_IN', 'TRANSFER_IN') THEN quantity ELSE -quantity END) AS quantity,
+                COUNT(*) AS transaction_count
+            FROM inventory_transactions
+            WHERE item_id BETWEEN ? AND ?
+            GROUP BY item_id, warehouse_id, batch_id
+        ), balance AS (
+            SELECT item_id, warehouse_id, batch_id, quantity
+            FROM inventory_balances
+            WHERE item_id BETWEEN ? AND ?
+        )
+        SELECT
+            COALESCE(l.item_id, b.item_id) AS item_id,
+            COALESCE(l.warehouse_id, b.warehouse_id) AS warehouse_id,
+            COALESCE(l.batch_id, b.batch_id) AS batch_id,
+            b.quantity AS balance,
+            COALESCE(l.quantity, 0) AS ledger,
+            COALESCE(l.transaction_count, 0) AS transaction_count
+        FROM ledger l
+        FULL OUTER JOIN balance b
+            ON b.item_id = l.item_id AND b.warehouse_id = l.warehouse_id
+           AND COALESCE(b.batch_id, 0) = COALESCE(l.batch_id, 0)
+        """;
+
+    /**
+     * Balance of one (item, warehouse, batch), from {@link #findByItemAndWarehouse}.
+     */
+    public record BatchBalance(Long batchId, long quantity) {
+    }
+
+    /**
+     * Stored balance and ledger sum for one (item, warehouse, batch), from {@link #verifyRange}.
+     * balance is null when the ledger has rows but no balance row exists.
+     */
+    public record LedgerBalance(long itemId, long warehouseId, Long batchId, Long balance, long ledger,
+                                long transactionCount) {
+        public boolean matches() {
+            return balance != null ? balance == ledger : ledger == 0;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InventoryBalanceRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Add stock to a balance, creating it when missing.
+     *
+     * @return the new balance
+     */
+    public long add(long itemId, long warehouseId, Long batchId, long quantity) {
+        Long balance = jdbcTemplate.queryForObject(ADD_SQL, Long.class, itemId, warehouseId, batchId, quantity);
+        return balance != null ? balance : 0L;
+    }
+
+    /**
+     * Remove stock from a balance when it holds at least the quantity.
+     *
+     * @return the new balance, or null when the balance is missing or too low
+     */
+    public Long subtractIfAvailable(long itemId, long warehouseId, Long batchId, long quantity) {
+        List<Long> rows = jdbcTemplate.queryForList(SUBTRACT_SQL, Long.class, quantity, itemId, warehouseId, batchId, quantity);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Available stock of an item in a warehouse over all batches.
+     */
+    public long sumAvailable(long itemId, long warehouseId) {
+        Long sum = jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(quantity), 0) FROM inventory_balances WHERE item_id = ? AND warehouse_id = ?",
+            Long.class, itemId, warehouseId);
+        return sum != null ? sum : 0L;
+    }
+
+    /**
+     * Non-zero balances of an item in a warehouse per batch, unbatched stock first.
+     */
+    public List<BatchBalance> findByItemAndWarehouse(long itemId, long warehouseId) {
+        return jdbcTemplate.query("""
+            SELECT batch_id, quantity FROM inventory_balances
+            WHERE item_id = ? AND warehouse_id = ? AND quantity <> 0
+            ORDER BY batch_id NULLS FIRST
+            """, (rs, rowNum) -> new BatchBalance(rs.getObject("batch_id", Long.class), rs.getLong("quantity")),
+            itemId, warehouseId);
+    }
+
+    /**
+     * Compare balances with the ledger sum for an item ID range. One statement, so both
+     * sides come from the same snapshot.
+     */
+    public List<LedgerBalance> verifyRange(long fromItemId, long toItemId) {
+        return jdbcTemplate.query(VERIFY_RANGE_SQL, (rs, rowNum) -> new LedgerBalance(
+            rs.getLong("item_id"),
+            rs.getLong("warehouse_id"),
+            rs.getObject("batch_id", Long.class),
+            rs.getObject("balance", Long.class),
+            rs.getLong("ledger"),
+            rs.getLong("transaction_count")
+        ), fromItemId, toItemId, fromItemId, toItemId);
+    }
+
+    /**
+     * Set a balance to the ledger sum, unless it changed since it was read.
+     *
+     * @param expected the balance read by {@link #verifyRange}, or null when there was no row
+     * @return true when the balance was repaired
+     */
+    public boolean repair(long itemId, long warehouseId, Long batchId, Long expected, long ledger) {
+        if (expected == null) {
+            return jdbcTemplate.update("""
+                INSERT INTO inventory_balances (item_id, warehouse_id, batch_id, quantity, updated_at)
+                VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)
+                ON CONFLICT (item_id, warehouse_id, (COALESCE(batch_id, 0))) DO NOTHING
+                """, itemId, warehouseId, batchId, ledger) == 1;
+        }
+        return jdbcTemplate.update("""
+            UPDATE inventory_balances SET quantity = ?, updated_at = CURRENT_TIMESTAMP
+            WHERE item_id = ? AND warehouse_id = ? AND COALESCE(batch_id, 0) = COALESCE(?, 0) AND quantity = ?
+            """, ledger, itemId, warehouseId, batchId, expected) == 1;
+    }
+
+    /**
+     * Get the lowest and highest item IDs in the ledger or the balances.
+     *
+     * @return {min, max}, or null when both are empty
+     */
+    public long[] findItemIdBounds() {
+        return jdbcTemplate.query("""
+            SELECT
+                LEAST((SELECT MIN(item_id) FROM inventory_transactions), (SELECT MIN(item_id) FROM inventory_balances)),
+                GREATEST((SELECT MAX(item_id) FROM inventory_transactions), (SELECT MAX(item_id) FROM inventory_balances))
+            """, rs -> {
+            rs.next();
+            long min = rs.getLong(1);
+            return rs.wasNull() ? null : new long[] {min, rs.getLong(2)};
+        });
+    }
+}
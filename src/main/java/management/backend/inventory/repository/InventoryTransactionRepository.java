@@ -1,22 +1,33 @@
 package management.backend.inventory.repository;
 
 import management.backend.inventory.entity.InventoryTransaction;
-import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * Read-only access to the inventory_transactions ledger.
+ * There is deliberately no save: transactions are written only through
+ * {@link management.backend.inventory.service.InventoryLedgerService#record}, which moves
+ * the matching inventory_balances row in the same transaction, so balance reads stay exact.
+ */
 @Repository
-public interface InventoryTransactionRepository extends JpaRepository<InventoryTransaction, Long> {
+public interface InventoryTransactionRepository extends org.springframework.data.repository.Repository<InventoryTransaction, Long> {
+    Optional<InventoryTransaction> findById(Long transactionId);
     List<InventoryTransaction> findByItemItemId(Long itemId);
     List<InventoryTransaction> findByWarehouseWarehouseId(Long warehouseId);
     List<InventoryTransaction> findByTransactionType(String transactionType);
     
-    @Query("""
-           SELECT COALESCE(SUM(CASE WHEN t.transactionType IN ('STOCK_IN', 'TRANSFER_IN') THEN t.quantity ELSE -t.quantity END), 0)
-           FROM InventoryTransaction t 
-           WHERE t.item.itemId = :itemId AND t.warehouse.warehouseId = :warehouseId
-           """)
+    /**
+     * Available stock of an item in a warehouse over all batches, read from the running
+     * balances in inventory_balances rather than summed over the ledger.
+     */
+    @Query(value = """
+           SELECT COALESCE(SUM(b.quantity), 0)
+           FROM inventory_balances b
+           WHERE b.item_id = :itemId AND b.warehouse_id = :warehouseId
+           """, nativeQuery = true)
     Long getAvailableStock(Long itemId, Long warehouseId);
 }
@@ -1,10 +1,15 @@
 package management.backend.inventory.repository;
 
+import management.backend.inventory.dto.ItemStockResponse;
 import management.backend.inventory.entity.Item;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -57,21 +62,91 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findItemsWithStockMovements();
     
     /**
-     * Find items with low or zero stock.
-     * This is a complex query that calculates current stock and filters items with stock below threshold.
+     * Find items at or below their low-stock level, with stock totals, in one query.
+     * An item's level is its reorder level, else its minimum stock when set above zero,
+     * else the given default. Most urgent items (furthest below their level) come first.
+     * Stock includes the item's shards, if any. Shards never hold negative stock, so an item
+     * can only be low when items.current_stock alone is at or below its level; that test
+     * comes first and is served by the V37 indexes, leaving the shard sum to the few
+     * candidates it returns.
      */
     @Query("""
-        SELECT i FROM Item i 
-        WHERE i.itemId IN (
-            SELECT sm.item.itemId FROM StockMovement sm 
-            GROUP BY sm.item.itemId 
-            HAVING (
-                COALESCE(SUM(CASE WHEN sm.movementType = 'IN' THEN sm.quantity ELSE 0 END), 0) - 
-                COALESCE(SUM(CASE WHEN sm.movementType = 'OUT' THEN sm.quantity ELSE 0 END), 0)
-            ) <= :threshold
+        SELECT new management.backend.inventory.dto.ItemStockResponse(
+            i.itemId, i.name, i.sku, i.description, i.unitPrice, i.createdAt,
+            CAST((i.currentStock + COALESCE((SELECT SUM(s.quantity) FROM ItemStockShard s WHERE s.itemId = i.itemId), 0)) AS Long),
+            CAST(COALESCE(t.totalIn, 0) AS Long),
+            CAST(COALESCE(t.totalOut, 0) AS Long),
+            c.categoryId, c.name,
+            i.minimumStock, i.maximumStock, i.reorderLevel
         )
-        OR i.itemId NOT IN (SELECT DISTINCT sm2.item.itemId FROM StockMovement sm2)
-        ORDER BY i.name
+        FROM Item i
+        LEFT JOIN i.category c
+        LEFT JOIN ItemStockTotal t ON t.itemId = i.itemId
+        WHERE ((COALESCE(i.reorderLevel, NULLIF(i.minimumStock, 0)) IS NOT NULL
+                AND i.currentStock - COALESCE(i.reorderLevel, NULLIF(i.minimumStock, 0)) <= 0)
+            OR (COALESCE(i.reorderLevel, NULLIF(i.minimumStock, 0)) IS NULL AND i.currentStock <= :defaultThreshold))
+          AND (i.currentStock + COALESCE((SELECT SUM(s.quantity) FROM ItemStockShard s WHERE s.itemId = i.itemId), 0)) <= COALESCE(i.reorderLevel, NULLIF(i.minimumStock, 0), :defaultThreshold)
+        ORDER BY (i.currentStock + COALESCE((SELECT SUM(s.quantity) FROM ItemStockShard s WHERE s.itemId = i.itemId), 0)) - COALESCE(i.reorderLevel, NULLIF(i.minimumStock, 0), :defaultThreshold), i.name
         """)
-    List<Item> findItemsWithStockBelowThreshold(int threshold);
-}
\ No newline at end of file
+    List<ItemStockResponse> findLowStockItems(@Param("defaultThreshold") long defaultThreshold);
+    
+    /**
+     * Get the fields that dashboard statistics are computed from, for all items.
+     * Stock includes the item's shards, if any.
+     */
+    @Query("""
+        SELECT i.itemId as itemId, i.unitPrice as unitPrice, (i.currentStock + COALESCE((SELECT SUM(s.quantity) FROM ItemStockShard s WHERE s.itemId = i.itemId), 0)) as currentStock, i.minimumStock as minimumStock
+        FROM Item i
+        """)
+    List<ItemStatisticsProjection> findStatisticsRows();
+    
+    /**
+     * Get the fields that dashboard statistics are computed from, for the given items.
+     */
+    @Query("""
+        SELECT i.itemId as itemId, i.unitPrice as unitPrice, (i.currentStock + COALESCE((SELECT SUM(s.quantity) FROM ItemStockShard s WHERE s.itemId = i.itemId), 0)) as currentStock, i.minimumStock as minimumStock
+        FROM Item i
+        WHERE i.itemId IN :itemIds
+        """)
+    List<ItemStatisticsProjection> findStatisticsRowsByIds(@Param("itemIds") Collection<Long> itemIds);
+    
+    /**
+     * Atomically increase current stock for an item.
+     * Returns the new balance including any stock shards, or empty when the item does not exist.
+     */
+    @Transactional
+    @Query(value = """
+        UPDATE items
+        SET current_stock = current_stock + :quantity, updated_at = CURRENT_TIMESTAMP
+        WHERE item_id = :itemId
+        RETURNING current_stock + COALESCE((SELECT SUM(s.quantity) FROM item_stock_shards s WHERE s.item_id = items.item_id), 0)
+        """, nativeQuery = true)
+    Optional<Long> incrementStock(@Param("itemId") Long itemId, @Param("quantity") Long quantity);
+    
+    /**
+     * Atomically decrease current stock for an item when enough stock is available.
+     * The availability check and the decrement run as one conditional UPDATE, so concurrent
+     * stock-outs on the same item can neither lose updates nor oversell.
+     * Only items.current_stock is checked; stock held in shards is handled by StockShardService.
+     * Returns the new balance including any stock shards, or empty when the item does not exist
+     * or stock is insufficient.
+     */
+    @Transactional
+    @Query(value = """
+        UPDATE items
+        SET current_stock = current_stock - :quantity, updated_at = CURRENT_TIMESTAMP
+        WHERE item_id = :itemId AND current_stock >= :quantity
+        RETURNING current_stock + COALESCE((SELECT SUM(s.quantity) FROM item_stock_shards s WHERE s.item_id = items.item_id), 0)
+        """, nativeQuery = true)
+    Optional<Long> decrementStockIfAvailable(@Param("itemId") Long itemId, @Param("quantity") Long quantity);
+    
+    /**
+     * Projection for dashboard statistics.
+     */
+    interface ItemStatisticsProjection {
+        Long getItemId();
+        BigDecimal getUnitPrice();
+        Long getCurrentStock();
+        Long getMinimumStock();
+    }
+}
@@ -0,0 +1,149 @@
+package management.backend.inventory.repository;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC repository for item stock shards.
+ * While an item has shard rows its balance is items.current_stock plus the sum of its
+ * shards. Every statement locks the item row before any shard row: single shard updates
+ * hold it FOR KEY SHARE, which concurrent shard writers share, and statements that move
+ * stock between the item row and its shards lock it FOR UPDATE, then the shards in shard
+ * order. A transaction that wrote to a shard and later rebalances the item therefore
+ * never waits for the item row while another transaction waits for its shard.
+ */
+@Repository
+public class ItemStockShardRepository {
+
+    private static final String BALANCE_SQL = """
+        SELECT i.current_stock + COALESCE((SELECT SUM(s.quantity) FROM item_stock_shards s WHERE s.item_id = i.item_id), 0)
+        FROM items i
+        WHERE i.item_id = ?
+        """;
+
+    private static final String UPSERT_SHARD_SQL = """
+        INSERT INTO item_stock_shards (item_id, shard_no, quantity, updated_at)
+        VALUES (?, ?, ?, CURRENT_TIMESTAMP)
+        ON CONFLICT (item_id, shard_no) DO UPDATE SET
+            quantity = EXCLUDED.quantity,
+            updated_at = EXCLUDED.updated_at
+        """;
+
+    /**
+     * An item's stock with its item and shard rows locked.
+     */
+    public record LockedBalance(long base, long shardTotal, int shardCount) {
+        public long total() {
+            return base + shardTotal;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ItemStockShardRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Add a signed quantity to one shard, unless the shard would go below zero.
+     * The item row is locked FOR KEY SHARE first, keeping the item-then-shard lock order.
+     *
+     * @return true when the shard exists and was updated
+     */
+    public boolean addToShard(long itemId, int shardNo, long quantity) {
+        List<Long> item = jdbcTemplate.queryForList(
+            "SELECT item_id FROM items WHERE item_id = ? FOR KEY SHARE", Long.class, itemId);
+        if (item.isEmpty()) return false;
+        return jdbcTemplate.update("""
+            UPDATE item_stock_shards SET quantity = quantity + ?, updated_at = CURRENT_TIMESTAMP
+            WHERE item_id = ? AND shard_no = ? AND quantity + ? >= 0
+            """, quantity, itemId, shardNo, quantity) == 1;
+    }
+
+    /**
+     * Current balance of an item including its shards, or null when the item does not exist.
+     */
+    public Long findBalance(long itemId) {
+        List<Long> rows = jdbcTemplate.queryForList(BALANCE_SQL, Long.class, itemId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * IDs of all items that currently have shards.
+     */
+    public List<Long> findShardedItemIds() {
+        return jdbcTemplate.queryForList("SELECT DISTINCT item_id FROM item_stock_shards", Long.class);
+    }
+
+    /**
+     * The given items that currently have shards.
+     */
+    public List<Long> findShardedItemIds(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) return List.of();
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                "SELECT DISTINCT item_id FROM item_stock_shards WHERE item_id = ANY(?)");
+            ps.setArray(1, con.createArrayOf("bigint", itemIds.toArray(new Long[0])));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+
+    /**
+     * Lock an item row and its shards and read the balance.
+     *
+     * @return the locked balance, or null when the item does not exist
+     */
+    public LockedBalance lockBalance(long itemId) {
+        List<Long> base = jdbcTemplate.queryForList(
+            "SELECT current_stock FROM items WHERE item_id = ? FOR UPDATE", Long.class, itemId);
+        if (base.isEmpty()) return null;
+        List<Long> shards = jdbcTemplate.queryForList(
+            "SELECT quantity FROM item_stock_shards WHERE item_id = ? ORDER BY shard_no FOR UPDATE", Long.class, itemId);
+        long shardTotal = shards.stream().mapToLong(Long::longValue).sum();
+        return new LockedBalance(base.get(0), shardTotal, shards.size());
+    }
+
+    /**
+     * Set an item's balance, spread evenly over shardCount shards with the item row at zero,
+     * or all on the item row when shardCount is zero. Call with the balance locked.
+     */
+    public void distribute(long itemId, long total, int shardCount) {
+        jdbcTemplate.update("UPDATE items SET current_stock = ?, updated_at = CURRENT_TIMESTAMP WHERE item_id = ?",
+            shardCount == 0 ? total : 0L, itemId);
+        jdbcTemplate.update("DELETE FROM item_stock_shards WHERE item_id = ? AND shard_no >= ?", itemId, shardCount);
+        if (shardCount == 0) return;
+        long share = total / shardCount;
+        long remainder = total % shardCount;
+        jdbcTemplate.batchUpdate(UPSERT_SHARD_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, itemId);
+                ps.setShort(2, (short) i);
+                ps.setLong(3, share + (i < remainder ? 1 : 0));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return shardCount;
+            }
+        });
+    }
+
+    /**
+     * Fold an item's shards back into items.current_stock and delete them.
+     *
+     * @return true when the item had shards
+     */
+    public boolean consolidate(long itemId) {
+        LockedBalance balance = lockBalance(itemId);
+        if (balance == null || balance.shardCount() == 0) return false;
+        distribute(itemId, balance.total(), 0);
+        return true;
+    }
+}
@@ -0,0 +1,45 @@
+package management.backend.inventory.repository;
+
+import management.backend.inventory.entity.ItemStockTotal;
+import management.backend.inventory.repository.StockMovementRepository.StockSummaryProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for the per-item stock totals read model.
+ * Reads are one row per item, independent of stock movement history size.
+ */
+@Repository
+public interface ItemStockTotalRepository extends JpaRepository<ItemStockTotal, Long> {
+    
+    /**
+     * Get stock summary for all items that have movements.
+     */
+    @Query("""
+        SELECT 
+            t.itemId as itemId,
+            t.totalIn as totalIn,
+            t.totalOut as totalOut,
+            t.currentStock as currentStock
+        FROM ItemStockTotal t
+        """)
+    List<StockSummaryProjection> getStockSummaryForAllItems();
+    
+    /**
+     * Get stock summary for a specific item, or null when it has no movements.
+     */
+    @Query("""
+        SELECT 
+            t.itemId as itemId,
+            t.totalIn as totalIn,
+            t.totalOut as totalOut,
+            t.currentStock as currentStock
+        FROM ItemStockTotal t
+        WHERE t.itemId = :itemId
+        """)
+    StockSummaryProjection getStockSummaryForItem(@Param("itemId") Long itemId);
+}
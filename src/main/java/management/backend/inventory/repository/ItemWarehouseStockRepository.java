@@ -0,0 +1,116 @@
+package management.backend.inventory.repository;
+
+import management.backend.inventory.dto.StockStatusResponse;
+import management.backend.inventory.dto.WarehouseStockResponse;
+import management.backend.inventory.entity.ItemWarehouseStock;
+import management.backend.inventory.entity.StockStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for the per-(item, warehouse) stock read model.
+ * Stock status alerts are keyset-paginated on (warehouseId, itemId), ascending. Each
+ * combination of filters has its own query, without catch-all "IS NULL OR" predicates, so a
+ * warehouse filter becomes a prefix of the idx_item_warehouse_stock_alerts range.
+ */
+@Repository
+public interface ItemWarehouseStockRepository extends JpaRepository<ItemWarehouseStock, ItemWarehouseStock.Key> {
+    
+    String SELECT_ALERT = """
+        SELECT new management.backend.inventory.dto.StockStatusResponse(
+            s.itemId, i.name, i.sku, s.warehouseId, w.name, s.quantity,
+            i.minimumStock, i.maximumStock, s.stockStatus, s.updatedAt
+        )
+        FROM ItemWarehouseStock s
+        JOIN Item i ON i.itemId = s.itemId
+        JOIN Warehouse w ON w.warehouseId = s.warehouseId
+        WHERE s.stockStatus <> management.backend.inventory.entity.StockStatus.OK
+        """;
+    
+    /**
+     * Get the stock of every item held in a warehouse, by item name.
+     */
+    @Query("""
+        SELECT new management.backend.inventory.dto.WarehouseStockResponse(
+            s.itemId, i.name, i.sku, s.warehouseId, w.name, s.quantity, s.updatedAt
+        )
+        FROM ItemWarehouseStock s
+        JOIN Item i ON i.itemId = s.itemId
+        JOIN Warehouse w ON w.warehouseId = s.warehouseId
+        WHERE s.warehouseId = :warehouseId AND s.quantity <> 0
+        ORDER BY i.name, s.itemId
+        """)
+    List<WarehouseStockResponse> findByWarehouse(@Param("warehouseId") Long warehouseId);
+    
+    /**
+     * Get an item's stock in each warehouse that holds it, by warehouse name.
+     */
+    @Query("""
+        SELECT new management.backend.inventory.dto.WarehouseStockResponse(
+            s.itemId, i.name, i.sku, s.warehouseId, w.name, s.quantity, s.updatedAt
+        )
+        FROM ItemWarehouseStock s
+        JOIN Item i ON i.itemId = s.itemId
+        JOIN Warehouse w ON w.warehouseId = s.warehouseId
+        WHERE s.itemId = :itemId AND s.quantity <> 0
+        ORDER BY w.name, s.warehouseId
+        """)
+    List<WarehouseStockResponse> findByItem(@Param("itemId") Long itemId);
+    
+    /**
+     * Get the page of LOW and EXCESS rows in all warehouses that follows (afterWarehouseId, afterItemId).
+     * Pass 0, 0 for the first page.
+     */
+    @Query(SELECT_ALERT + """
+          AND (s.warehouseId, s.itemId) > (:afterWarehouseId, :afterItemId)
+        ORDER BY s.warehouseId, s.itemId
+        """)
+    List<StockStatusResponse> findAlertsAfter(@Param("afterWarehouseId") Long afterWarehouseId,
+                                              @Param("afterItemId") Long afterItemId,
+                                              Limit limit);
+    
+    /**
+     * Get the page of rows with the given status in all warehouses that follows (afterWarehouseId, afterItemId).
+     */
+    @Query(SELECT_ALERT + """
+          AND s.stockStatus = :status
+          AND (s.warehouseId, s.itemId) > (:afterWarehouseId, :afterItemId)
+        ORDER BY s.warehouseId, s.itemId
+        """)
+    List<StockStatusResponse> findAlertsAfterByStatus(@Param("afterWarehouseId") Long afterWarehouseId,
+                                                      @Param("afterItemId") Long afterItemId,
+                                                      @Param("status") StockStatus status,
+                                                      Limit limit);
+    
+    /**
+     * Get the page of LOW and EXCESS rows in one warehouse that follows afterItemId.
+     * Pass 0 for the first page.
+     */
+    @Query(SELECT_ALERT + """
+          AND s.warehouseId = :warehouseId
+          AND s.itemId > :afterItemId
+        ORDER BY s.warehouseId, s.itemId
+        """)
+    List<StockStatusResponse> findWarehouseAlertsAfter(@Param("warehouseId") Long warehouseId,
+                                                       @Param("afterItemId") Long afterItemId,
+                                                       Limit limit);
+    
+    /**
+     * Get the page of rows with the given status in one warehouse that follows afterItemId.
+     */
+    @Query(SELECT_ALERT + """
+          AND s.warehouseId = :warehouseId
+          AND s.stockStatus = :status
+          AND s.itemId > :afterItemId
+        ORDER BY s.warehouseId, s.itemId
+        """)
+    List<StockStatusResponse> findWarehouseAlertsAfterByStatus(@Param("warehouseId") Long warehouseId,
+                                                               @Param("afterItemId") Long afterItemId,
+                                                               @Param("status") StockStatus status,
+                                                               Limit limit);
+}
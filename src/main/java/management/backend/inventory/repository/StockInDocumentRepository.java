@@ -0,0 +1,49 @@
+package management.backend.inventory.repository;
+
+import management.backend.inventory.dto.StockInDocumentResponse;
+import management.backend.inventory.entity.StockInDocument;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for stock-in document headers.
+ * Listings are keyset-paginated on (updatedAt, stockInDocumentId), newest first.
+ */
+@Repository
+public interface StockInDocumentRepository extends JpaRepository<StockInDocument, Long> {
+    
+    String SELECT_DOCUMENT = """
+        SELECT new management.backend.inventory.dto.StockInDocumentResponse(
+            d.stockInDocumentId, d.referenceNumber, d.lineCount,
+            COALESCE(NULLIF(TRIM(COALESCE(u.name, CONCAT(COALESCE(u.firstName, ''), ' ', COALESCE(u.lastName, '')))), ''), u.username),
+            d.createdAt, d.updatedAt, s.name, w.name, d.sourceMode
+        )
+        FROM StockInDocument d
+        JOIN d.createdBy u
+        LEFT JOIN d.supplier s
+        LEFT JOIN d.warehouse w
+        """;
+    
+    /**
+     * Get the first page of stock-in documents, most recently updated first.
+     */
+    @Query(SELECT_DOCUMENT + "ORDER BY d.updatedAt DESC, d.stockInDocumentId DESC")
+    List<StockInDocumentResponse> findFirstPage(Limit limit);
+    
+    /**
+     * Get the page of stock-in documents that follows the given cursor position.
+     */
+    @Query(SELECT_DOCUMENT + """
+        WHERE (d.updatedAt, d.stockInDocumentId) < (:updatedAt, :id)
+        ORDER BY d.updatedAt DESC, d.stockInDocumentId DESC
+        """)
+    List<StockInDocumentResponse> findPageAfter(@Param("updatedAt") LocalDateTime updatedAt, @Param("id") Long id, Limit limit);
+    
+    boolean existsByReferenceNumber(String referenceNumber);
+}
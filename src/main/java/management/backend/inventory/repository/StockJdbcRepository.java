@@ -0,0 +1,577 @@
+package management.backend.inventory.repository;
+
+import management.backend.inventory.entity.MovementType;
+import management.backend.inventory.entity.StockMovement;
+import management.backend.inventory.entity.StockSourceMode;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC repository for set-based stock writes.
+ * Used where JPA would issue one statement per row: bulk stock balance changes,
+ * batched stock movement inserts, stock-in document headers and the read models
+ * derived from movements (item_stock_totals, item_warehouse_stock, stock_out_reason_daily).
+ */
+@Repository
+public class StockJdbcRepository {
+
+    private static final String ADJUST_STOCK_BULK_SQL = """
+        WITH delta AS (
+            SELECT d.item_id, d.quantity
+            FROM unnest(?::bigint[], ?::bigint[]) AS d(item_id, quantity)
+        ), locked AS (
+            SELECT i.item_id FROM items i
+            WHERE i.item_id IN (SELECT item_id FROM delta)
+            ORDER BY i.item_id
+            FOR UPDATE
+        )
+        UPDATE items i
+        SET current_stock = i.current_stock + d.quantity, updated_at = CURRENT_TIMESTAMP
+        FROM delta d
+        WHERE i.item_id = d.item_id AND i.item_id IN (SELECT item_id FROM locked)
+          AND i.current_stock + d.quantity >= 0
+        RETURNING i.item_id,
+            i.current_stock + COALESCE((SELECT SUM(s.quantity) FROM item_stock_shards s WHERE s.item_id = i.item_id), 0) AS current_stock
+        """;
+
+    private static final String INSERT_MOVEMENT_SQL = """
+        INSERT INTO stock_movements (
+            item_id, user_id, supplier_id, warehouse_id, movement_type, quantity,
+            reference_number, notes, reason, recipient, reason_type, source_mode,
+            previous_stock, new_stock, created_at, category_id
+        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final String APPLY_MOVEMENT_TOTALS_SQL = """
+        INSERT INTO item_stock_totals (item_id, total_in, total_out, current_stock, last_movement_at, updated_at)
+        SELECT
+            m.item_id,
+            SUM(CASE WHEN m.movement_type = 'IN' THEN m.quantity ELSE 0 END),
+            SUM(CASE WHEN m.movement_type = 'OUT' THEN m.quantity ELSE 0 END),
+            SUM(CASE WHEN m.movement_type = 'IN' THEN m.quantity WHEN m.movement_type = 'OUT' THEN -m.quantity ELSE 0 END),
+            MAX(m.created_at),
+            CURRENT_TIMESTAMP
+        FROM unnest(?::bigint[], ?::varchar[], ?::bigint[], ?::timestamp[]) AS m(item_id, movement_type, quantity, created_at)
+        GROUP BY m.item_id
+        ORDER BY m.item_id
+        ON CONFLICT (item_id) DO UPDATE SET
+            total_in = item_stock_totals.total_in + EXCLUDED.total_in,
+            total_out = item_stock_totals.total_out + EXCLUDED.total_out,
+            current_stock = item_stock_totals.current_stock + EXCLUDED.current_stock,
+            last_movement_at = GREATEST(item_stock_totals.last_movement_at, EXCLUDED.last_movement_at),
+            updated_at = EXCLUDED.updated_at
+        """;
+
+    // Classifies a quantity against the item row aliased i; shared by the warehouse stock statements
+    private static final String STOCK_STATUS_CASE = """
+        CASE WHEN %1$s < i.minimum_stock THEN 'LOW' WHEN %1$s > i.maximum_stock THEN 'EXCESS' ELSE 'OK' END""";
+
+    // A warehouse row never goes below zero: what a stock-out takes beyond it came from the
+    // item's unattributed stock (see StockMutationService.requireWarehouseStock)
+    private static final String APPLY_WAREHOUSE_STOCK_SQL = """
+        INSERT INTO item_warehouse_stock (item_id, warehouse_id, quantity, stock_status, updated_at)
+        SELECT d.item_id, d.warehouse_id, GREATEST(d.quantity, 0), %s, CURRENT_TIMESTAMP
+        FROM (
+            SELECT m.item_id, m.warehouse_id, SUM(m.quantity) AS quantity
+            FROM unnest(?::bigint[], ?::bigint[], ?::bigint[]) AS m(item_id, warehouse_id, quantity)
+            GROUP BY m.item_id, m.warehouse_id
+        ) d
+        JOIN items i ON i.item_id = d.item_id
+        ORDER BY d.item_id, d.warehouse_id
+        ON CONFLICT (item_id, warehouse_id) DO UPDATE SET
+            quantity = GREATEST(item_warehouse_stock.quantity + EXCLUDED.quantity, 0),
+            stock_status = (SELECT %s FROM items i WHERE i.item_id = EXCLUDED.item_id),
+            updated_at = EXCLUDED.updated_at
+        """.formatted(STOCK_STATUS_CASE.formatted("GREATEST(d.quantity, 0)"),
+            STOCK_STATUS_CASE.formatted("GREATEST(item_warehouse_stock.quantity + EXCLUDED.quantity, 0)"));
+
+    private static final String CLASSIFY_WAREHOUSE_STOCK_SQL = """
+        UPDATE item_warehouse_stock s
+        SET stock_status = %s, updated_at = CURRENT_TIMESTAMP
+        FROM items i
+        WHERE i.item_id = s.item_id AND s.item_id = ?
+          AND s.stock_status <> %s
+        """.formatted(STOCK_STATUS_CASE.formatted("s.quantity"), STOCK_STATUS_CASE.formatted("s.quantity"));
+
+    private static final String APPLY_REASON_ROLLUP_SQL = """
+        INSERT INTO stock_out_reason_daily (movement_date, item_id, category_id, warehouse_id, reason_type, movement_count, total_quantity)
+        SELECT CAST(m.created_at AS DATE), m.item_id, COALESCE(m.category_id, i.category_id), m.warehouse_id, m.reason_type,
+            SUM(m.delta_count), SUM(m.quantity)
+        FROM unnest(?::bigint[], ?::bigint[], ?::varchar[], ?::bigint[], ?::timestamp[], ?::bigint[], ?::bigint[])
+            AS m(item_id, warehouse_id, reason_type, quantity, created_at, delta_count, category_id)
+        JOIN items i ON i.item_id = m.item_id
+        GROUP BY CAST(m.created_at AS DATE), m.item_id, COALESCE(m.category_id, i.category_id), m.warehouse_id, m.reason_type
+        ORDER BY CAST(m.created_at AS DATE), m.item_id
+        ON CONFLICT (movement_date, item_id, category_id, (COALESCE(warehouse_id, 0)), (COALESCE(reason_type, ''))) DO UPDATE SET
+            movement_count = stock_out_reason_daily.movement_count + EXCLUDED.movement_count,
+            total_quantity = stock_out_reason_daily.total_quantity + EXCLUDED.total_quantity
+        """;
+
+    private static final String UPSERT_STOCK_IN_DOCUMENT_SQL = """
+        INSERT INTO stock_in_documents (reference_number, supplier_id, warehouse_id, created_by, source_mode, line_count, notes, created_at, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT (reference_number) DO UPDATE SET
+            line_count = stock_in_documents.line_count + EXCLUDED.line_count,
+            updated_at = GREATEST(stock_in_documents.updated_at, EXCLUDED.updated_at)
+        """;
+
+    private static final String UPDATE_STOCK_IN_DOCUMENT_SQL = """
+        UPDATE stock_in_documents
+        SET reference_number = ?, supplier_id = ?, warehouse_id = ?, source_mode = ?, line_count = ?, notes = ?, updated_at = ?
+        WHERE reference_number = ?
+        """;
+
+    private static final String REPLAY_MOVEMENTS_SQL = """
+        SELECT stock_movement_id, item_id, movement_type, quantity
+        FROM stock_movements
+        WHERE stock_movement_id > ?
+        ORDER BY stock_movement_id
+        """;
+
+    // Each CTE reads its table once for the whole range through its item_id index; a
+    // stock-out is unledgered from its own item's side and, when its movement was moved
+    // to another item, from that item's side too
+    private static final String RECONCILE_RANGE_SQL = """
+        WITH ledger AS (
+            SELECT m.item_id,
+                SUM(CASE WHEN m.movement_type = 'IN' THEN m.quantity
+                         WHEN m.movement_type = 'OUT' THEN -m.quantity ELSE 0 END) AS ledger_stock,
+                COUNT(*) AS movement_count
+            FROM stock_movements m
+            WHERE m.item_id BETWEEN ? AND ?
+            GROUP BY m.item_id
+        ), unledgered_outs AS (
+            SELECT so.item_id
+            FROM stock_outs so
+            LEFT JOIN stock_movements lm ON lm.stock_movement_id = so.stock_movement_id
+            WHERE so.item_id BETWEEN ? AND ?
+              AND (lm.stock_movement_id IS NULL OR lm.item_id <> so.item_id OR lm.quantity <> so.quantity)
+            GROUP BY so.item_id
+        ), unledgered_movements AS (
+            SELECT lm.item_id
+            FROM stock_movements lm
+            JOIN stock_outs so ON so.stock_movement_id = lm.stock_movement_id
+            WHERE lm.item_id BETWEEN ? AND ?
+              AND (lm.item_id <> so.item_id OR lm.quantity <> so.quantity)
+            GROUP BY lm.item_id
+        )
+        SELECT i.item_id,
+            i.current_stock + COALESCE((SELECT SUM(s.quantity) FROM item_stock_shards s WHERE s.item_id = i.item_id), 0) AS current_stock,
+            COALESCE(l.ledger_stock, 0) AS ledger_stock,
+            COALESCE(l.movement_count, 0) AS movement_count,
+            (uo.item_id IS NOT NULL OR um.item_id IS NOT NULL) AS unledgered
+        FROM items i
+        LEFT JOIN ledger l ON l.item_id = i.item_id
+        LEFT JOIN unledgered_outs uo ON uo.item_id = i.item_id
+        LEFT JOIN unledgered_movements um ON um.item_id = i.item_id
+        WHERE i.item_id BETWEEN ? AND ?
+        """;
+
+    /**
+     * Stored balance and ledger sum for one item, from {@link #reconcileRange}.
+     * unledgered is set when a stock-out of the item has no movement of its own or no longer
+     * matches it: stock-outs used to be edited without touching the ledger, so for these items
+     * the ledger is not known to be right.
+     */
+    public record ItemLedgerBalance(long itemId, long currentStock, long ledgerStock, long movementCount,
+                                    boolean unledgered) {
+        public boolean matches() {
+            return currentStock == ledgerStock;
+        }
+    }
+
+    /**
+     * Receives one movement during {@link #replayMovements}.
+     */
+    @FunctionalInterface
+    public interface MovementReplayHandler {
+        void accept(long movementId, long itemId, MovementType type, long quantity);
+    }
+
+    /**
+     * Receives one item's totals during {@link #forEachItemStockTotal}.
+     */
+    @FunctionalInterface
+    public interface ItemTotalHandler {
+        void accept(long itemId, long totalIn, long totalOut);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Apply signed stock changes to many items in one statement.
+     * Rows are locked in item ID order so concurrent bulk receipts cannot deadlock.
+     * An item whose balance would go below zero is left unchanged; only items.current_stock
+     * is checked, so shards of items losing stock must be consolidated first.
+     * Returned balances include any stock shards.
+     *
+     * @param quantitiesByItem quantity to add (negative to remove) per item ID (one entry per item)
+     * @return new balance per item ID; items that do not exist or lack stock are absent
+     */
+    public Map<Long, Long> adjustStockBulk(Map<Long, Long> quantitiesByItem) {
+        Long[] itemIds = quantitiesByItem.keySet().toArray(new Long[0]);
+        Long[] quantities = new Long[itemIds.length];
+        for (int i = 0; i < itemIds.length; i++) {
+            quantities[i] = quantitiesByItem.get(itemIds[i]);
+        }
+        Map<Long, Long> balances = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(ADJUST_STOCK_BULK_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", itemIds));
+            ps.setArray(2, con.createArrayOf("bigint", quantities));
+            return ps;
+        }, rs -> {
+            balances.put(rs.getLong("item_id"), rs.getLong("current_stock"));
+        });
+        return balances;
+    }
+
+    /**
+     * Insert stock movements as one JDBC batch and assign the generated IDs.
+     * Movements must already carry their item, user and createdAt values.
+     */
+    public void batchInsertMovements(List<StockMovement> movements) {
+        if (movements.isEmpty()) return;
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            con -> con.prepareStatement(INSERT_MOVEMENT_SQL, new String[] {"stock_movement_id"}),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    setMovementValues(ps, movements.get(i));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return movements.size();
+                }
+            },
+            keyHolder
+        );
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < movements.size(); i++) {
+            movements.get(i).setStockMovementId(((Number) keys.get(i).get("stock_movement_id")).longValue());
+        }
+    }
+
+    /**
+     * Fold movements into item_stock_totals with one upsert.
+     * Removed movements are subtracted; last_movement_at only ever moves forward.
+     *
+     * @param movements movements that were just inserted or are being deleted
+     * @param removed true when the movements are being deleted
+     */
+    public void applyMovementTotals(List<StockMovement> movements, boolean removed) {
+        if (movements.isEmpty()) return;
+        int size = movements.size();
+        Long[] itemIds = new Long[size];
+        String[] types = new String[size];
+        Long[] quantities = new Long[size];
+        Timestamp[] createdAt = new Timestamp[size];
+        for (int i = 0; i < size; i++) {
+            StockMovement m = movements.get(i);
+            itemIds[i] = m.getItem().getItemId();
+            types[i] = m.getMovementType().name();
+            quantities[i] = removed ? -m.getQuantity() : m.getQuantity();
+            createdAt[i] = removed || m.getCreatedAt() == null ? null : Timestamp.valueOf(m.getCreatedAt());
+        }
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(APPLY_MOVEMENT_TOTALS_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", itemIds));
+            ps.setArray(2, con.createArrayOf("varchar", types));
+            ps.setArray(3, con.createArrayOf("bigint", quantities));
+            ps.setArray(4, con.createArrayOf("timestamp", createdAt));
+            return ps;
+        });
+    }
+
+    /**
+     * Fold movements into the per-warehouse balances in item_warehouse_stock with one upsert,
+     * reclassifying each touched row against its item's stock levels.
+     * Movements without a warehouse are ignored; removed movements are subtracted. Balances
+     * stop at zero, since stock leaving a warehouse beyond its balance was unattributed stock.
+     * Rows are locked in (item, warehouse) order, after the callers' item row locks.
+     *
+     * @param movements movements that were just inserted or are being deleted
+     * @param removed true when the movements are being deleted
+     */
+    public void applyWarehouseStock(List<StockMovement> movements, boolean removed) {
+        List<StockMovement> located = movements.stream()
+            .filter(m -> m.getWarehouse() != null)
+            .filter(m -> m.getMovementType() == MovementType.IN || m.getMovementType() == MovementType.OUT)
+            .toList();
+        if (located.isEmpty()) return;
+        int size = located.size();
+        Long[] itemIds = new Long[size];
+        Long[] warehouseIds = new Long[size];
+        Long[] quantities = new Long[size];
+        for (int i = 0; i < size; i++) {
+            StockMovement m = located.get(i);
+            long signed = m.getMovementType() == MovementType.IN ? m.getQuantity() : -m.getQuantity();
+            itemIds[i] = m.getItem().getItemId();
+            warehouseIds[i] = m.getWarehouse().getWarehouseId();
+            quantities[i] = removed ? -signed : signed;
+        }
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(APPLY_WAREHOUSE_STOCK_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", itemIds));
+            ps.setArray(2, con.createArrayOf("bigint", warehouseIds));
+            ps.setArray(3, con.createArrayOf("bigint", quantities));
+            return ps;
+        });
+    }
+
+    /**
+     * Reclassify an item's warehouse balances after its minimum or maximum stock changed.
+     *
+     * @return number of rows whose status changed
+     */
+    public int classifyWarehouseStock(long itemId) {
+        return jdbcTemplate.update(CLASSIFY_WAREHOUSE_STOCK_SQL, itemId);
+    }
+
+    /**
+     * Lock an item's balance row in one warehouse and read it.
+     *
+     * @return the warehouse balance, or null when the item has never been stocked there
+     */
+    public Long lockWarehouseStock(long itemId, long warehouseId) {
+        List<Long> rows = jdbcTemplate.queryForList(
+            "SELECT quantity FROM item_warehouse_stock WHERE item_id = ? AND warehouse_id = ? FOR UPDATE",
+            Long.class, itemId, warehouseId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Current category of each of the given items, by item ID.
+     */
+    public Map<Long, Long> findCategoryIds(Long[] itemIds) {
+        Map<Long, Long> categories = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("SELECT item_id, category_id FROM items WHERE item_id = ANY(?)");
+            ps.setArray(1, con.createArrayOf("bigint", itemIds));
+            return ps;
+        }, rs -> {
+            categories.put(rs.getLong("item_id"), rs.getLong("category_id"));
+        });
+        return categories;
+    }
+
+    /**
+     * Total of an item's balances over all warehouses, the part of its stock attributed to one.
+     */
+    public long sumWarehouseStock(long itemId) {
+        Long total = jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(quantity), 0) FROM item_warehouse_stock WHERE item_id = ?", Long.class, itemId);
+        return total != null ? total : 0L;
+    }
+
+    /**
+     * Fold stock-out movements into the stock_out_reason_daily rollup with one upsert.
+     * Movements of other types are ignored; removed movements are subtracted.
+     * Each movement counts under the category it carries, so a removal reaches the row its
+     * insert went to even after the item changed category; the item's category is the fallback.
+     *
+     * @param movements movements that were just inserted or are being deleted
+     * @param removed true when the movements are being deleted
+     */
+    public void applyStockOutReasonRollup(List<StockMovement> movements, boolean removed) {
+        List<StockMovement> outs = movements.stream()
+            .filter(m -> m.getMovementType() == MovementType.OUT)
+            .toList();
+        if (outs.isEmpty()) return;
+        int size = outs.size();
+        Long[] itemIds = new Long[size];
+        Long[] warehouseIds = new Long[size];
+        String[] reasonTypes = new String[size];
+        Long[] quantities = new Long[size];
+        Timestamp[] createdAt = new Timestamp[size];
+        Long[] counts = new Long[size];
+        Long[] categoryIds = new Long[size];
+        for (int i = 0; i < size; i++) {
+            StockMovement m = outs.get(i);
+            itemIds[i] = m.getItem().getItemId();
+            warehouseIds[i] = m.getWarehouse() != null ? m.getWarehouse().getWarehouseId() : null;
+            reasonTypes[i] = m.getReasonType() != null ? m.getReasonType().name() : null;
+            quantities[i] = removed ? -m.getQuantity() : m.getQuantity();
+            createdAt[i] = Timestamp.valueOf(m.getCreatedAt());
+            counts[i] = removed ? -1L : 1L;
+            categoryIds[i] = m.getCategoryId();
+        }
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(APPLY_REASON_ROLLUP_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", itemIds));
+            ps.setArray(2, con.createArrayOf("bigint", warehouseIds));
+            ps.setArray(3, con.createArrayOf("varchar", reasonTypes));
+            ps.setArray(4, con.createArrayOf("bigint", quantities));
+            ps.setArray(5, con.createArrayOf("timestamp", createdAt));
+            ps.setArray(6, con.createArrayOf("bigint", counts));
+            ps.setArray(7, con.createArrayOf("bigint", categoryIds));
+            return ps;
+        });
+    }
+
+    /**
+     * Create the header for a stock-in document, or add lines to an existing one.
+     * Header fields of an existing document keep their original values.
+     *
+     * @param lineCount number of movement lines being written under the reference
+     * @param createdAt creation time for a new header; the update time is always now
+     */
+    public void upsertStockInDocument(String referenceNumber, Long supplierId, Long warehouseId, Long createdBy,
+                                      StockSourceMode sourceMode, int lineCount, String notes, LocalDateTime createdAt) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(UPSERT_STOCK_IN_DOCUMENT_SQL, ps -> {
+            ps.setString(1, referenceNumber);
+            setNullableLong(ps, 2, supplierId);
+            setNullableLong(ps, 3, warehouseId);
+            ps.setLong(4, createdBy);
+            ps.setString(5, sourceMode != null ? sourceMode.name() : null);
+            ps.setInt(6, lineCount);
+            ps.setString(7, notes);
+            ps.setTimestamp(8, Timestamp.valueOf(createdAt != null ? createdAt : now));
+            ps.setTimestamp(9, Timestamp.valueOf(now));
+        });
+    }
+
+    /**
+     * Rewrite the header of an edited stock-in document in place, keeping its ID, creator
+     * and creation time.
+     *
+     * @param newReferenceNumber the document's reference after the edit, equal to referenceNumber unless renamed
+     * @param lineCount number of movement lines under the reference after the edit
+     * @return 1 when the header was updated, 0 when the document has none
+     */
+    public int updateStockInDocument(String referenceNumber, String newReferenceNumber, Long supplierId, Long warehouseId,
+                                     StockSourceMode sourceMode, int lineCount, String notes) {
+        return jdbcTemplate.update(UPDATE_STOCK_IN_DOCUMENT_SQL, ps -> {
+            ps.setString(1, newReferenceNumber);
+            setNullableLong(ps, 2, supplierId);
+            setNullableLong(ps, 3, warehouseId);
+            ps.setString(4, sourceMode != null ? sourceMode.name() : null);
+            ps.setInt(5, lineCount);
+            ps.setString(6, notes);
+            ps.setTimestamp(7, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setString(8, referenceNumber);
+        });
+    }
+
+    /**
+     * Delete the header of a stock-in document.
+     */
+    public void deleteStockInDocument(String referenceNumber) {
+        jdbcTemplate.update("DELETE FROM stock_in_documents WHERE reference_number = ?", referenceNumber);
+    }
+
+    /**
+     * Read movements with an ID above {@code afterId} in ID order, without loading entities.
+     * Must run inside a transaction so PostgreSQL streams rows in chunks of {@code fetchSize}.
+     */
+    public void replayMovements(long afterId, int fetchSize, MovementReplayHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(REPLAY_MOVEMENTS_SQL);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, afterId);
+            return ps;
+        }, (RowCallbackHandler) rs -> handler.accept(
+            rs.getLong("stock_movement_id"),
+            rs.getLong("item_id"),
+            MovementType.valueOf(rs.getString("movement_type")),
+            rs.getLong("quantity")
+        ));
+    }
+
+    /**
+     * Read the per-item totals maintained in item_stock_totals.
+     */
+    public void forEachItemStockTotal(ItemTotalHandler handler) {
+        jdbcTemplate.query("SELECT item_id, total_in, total_out FROM item_stock_totals", (RowCallbackHandler) rs ->
+            handler.accept(rs.getLong("item_id"), rs.getLong("total_in"), rs.getLong("total_out")));
+    }
+
+    /**
+     * Get the lowest and highest item IDs.
+     *
+     * @return {min, max}, or null when there are no items
+     */
+    public long[] findItemIdBounds() {
+        return jdbcTemplate.query("SELECT MIN(item_id), MAX(item_id) FROM items", rs -> {
+            rs.next();
+            long min = rs.getLong(1);
+            return rs.wasNull() ? null : new long[] {min, rs.getLong(2)};
+        });
+    }
+
+    /**
+     * Compare item balances (items.current_stock plus any stock shards) with the sum of each
+     * item's movements for an item ID range. One statement, so balances and movements come from the same snapshot.
+     */
+    public List<ItemLedgerBalance> reconcileRange(long fromItemId, long toItemId) {
+        return jdbcTemplate.query(RECONCILE_RANGE_SQL, (rs, rowNum) -> new ItemLedgerBalance(
+            rs.getLong("item_id"),
+            rs.getLong("current_stock"),
+            rs.getLong("ledger_stock"),
+            rs.getLong("movement_count"),
+            rs.getBoolean("unledgered")
+        ), fromItemId, toItemId, fromItemId, toItemId, fromItemId, toItemId, fromItemId, toItemId);
+    }
+
+    /**
+     * Set an item's balance to the ledger sum, unless the balance changed since it was read.
+     * Stock held in shards is kept and items.current_stock takes the difference.
+     *
+     * @return true when the balance was repaired
+     */
+    public boolean repairCurrentStock(long itemId, long expectedStock, long ledgerStock) {
+        return jdbcTemplate.update("""
+            UPDATE items SET current_stock = current_stock + (? - ?), updated_at = CURRENT_TIMESTAMP
+            WHERE item_id = ?
+              AND current_stock + COALESCE((SELECT SUM(s.quantity) FROM item_stock_shards s WHERE s.item_id = items.item_id), 0) = ?
+              AND current_stock + (? - ?) >= 0
+            """, ledgerStock, expectedStock, itemId, expectedStock, ledgerStock, expectedStock) == 1;
+    }
+
+    private void setMovementValues(PreparedStatement ps, StockMovement m) throws SQLException {
+        ps.setLong(1, m.getItem().getItemId());
+        ps.setLong(2, m.getUser().getId());
+        setNullableLong(ps, 3, m.getSupplier() != null ? m.getSupplier().getSupplierId() : null);
+        setNullableLong(ps, 4, m.getWarehouse() != null ? m.getWarehouse().getWarehouseId() : null);
+        ps.setString(5, m.getMovementType().name());
+        ps.setLong(6, m.getQuantity());
+        ps.setString(7, m.getReferenceNumber());
+        ps.setString(8, m.getNotes());
+        ps.setString(9, m.getReason());
+        ps.setString(10, m.getRecipient());
+        ps.setString(11, m.getReasonType() != null ? m.getReasonType().name() : null);
+        ps.setString(12, m.getSourceMode() != null ? m.getSourceMode().name() : null);
+        ps.setLong(13, m.getPreviousStock());
+        ps.setLong(14, m.getNewStock());
+        ps.setTimestamp(15, Timestamp.valueOf(m.getCreatedAt()));
+        setNullableLong(ps, 16, m.getCategoryId());
+    }
+
+    private void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+}
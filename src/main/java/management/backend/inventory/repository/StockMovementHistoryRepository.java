@@ -0,0 +1,109 @@
+package management.backend.inventory.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import management.backend.inventory.dto.StockMovementHistoryFilter;
+import management.backend.inventory.dto.StockMovementHistoryResponse;
+import management.backend.inventory.util.KeysetCursor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Repository for filtered stock movement history read as DTOs.
+ * Only the filters that are set become predicates, and rows are fetched newest first
+ * by keyset on (createdAt, stockMovementId) so each page is an index range scan.
+ */
+@Repository
+public class StockMovementHistoryRepository {
+
+    private static final String SELECT_HISTORY = """
+        SELECT new management.backend.inventory.dto.StockMovementHistoryResponse(
+            sm.stockMovementId, i.itemId, i.name, i.sku, sm.movementType,
+            sm.quantity, sm.previousStock, sm.newStock, sm.reason, sm.recipient,
+            sm.notes, sm.referenceNumber,
+            COALESCE(NULLIF(TRIM(COALESCE(u.name, CONCAT(COALESCE(u.firstName, ''), ' ', COALESCE(u.lastName, '')))), ''), u.username),
+            u.email, sm.createdAt, i.unitPrice
+        )
+        FROM StockMovement sm
+        JOIN sm.item i
+        JOIN sm.user u
+        """;
+
+    private final EntityManager entityManager;
+
+    public StockMovementHistoryRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Fetch one page of movement history, newest first.
+     *
+     * @param filter optional filters; null fields are ignored
+     * @param after cursor of the last row of the previous page, or null for the first page
+     * @param limit maximum number of rows to return
+     */
+    public List<StockMovementHistoryResponse> findPage(StockMovementHistoryFilter filter, KeysetCursor after, int limit) {
+        return buildQuery(filter, after, false).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Stream all matching movements oldest first from a forward-only database cursor.
+     * Must be consumed and closed inside a transaction; rows are fetched in chunks of
+     * {@code fetchSize}, so memory use does not grow with the result size.
+     */
+    public Stream<StockMovementHistoryResponse> stream(StockMovementHistoryFilter filter, int fetchSize) {
+        return buildQuery(filter, null, true)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream();
+    }
+
+    private TypedQuery<StockMovementHistoryResponse> buildQuery(StockMovementHistoryFilter filter, KeysetCursor after, boolean ascending) {
+        StringBuilder jpql = new StringBuilder(SELECT_HISTORY);
+        Map<String, Object> params = new HashMap<>();
+        String glue = "WHERE ";
+        if (filter.getStartDate() != null) {
+            jpql.append(glue).append("sm.createdAt >= :startDate ");
+            params.put("startDate", filter.getStartDate());
+            glue = "AND ";
+        }
+        if (filter.getEndDate() != null) {
+            jpql.append(glue).append("sm.createdAt <= :endDate ");
+            params.put("endDate", filter.getEndDate());
+            glue = "AND ";
+        }
+        if (filter.getMovementType() != null) {
+            jpql.append(glue).append("sm.movementType = :movementType ");
+            params.put("movementType", filter.getMovementType());
+            glue = "AND ";
+        }
+        if (filter.getItemId() != null) {
+            jpql.append(glue).append("sm.item.itemId = :itemId ");
+            params.put("itemId", filter.getItemId());
+            glue = "AND ";
+        }
+        if (filter.getWarehouseId() != null) {
+            jpql.append(glue).append("sm.warehouse.warehouseId = :warehouseId ");
+            params.put("warehouseId", filter.getWarehouseId());
+            glue = "AND ";
+        }
+        if (after != null) {
+            jpql.append(glue).append("(sm.createdAt, sm.stockMovementId) < (:cursorCreatedAt, :cursorId) ");
+            params.put("cursorCreatedAt", after.getCreatedAt());
+            params.put("cursorId", after.getId());
+        }
+        jpql.append(ascending
+            ? "ORDER BY sm.createdAt ASC, sm.stockMovementId ASC"
+            : "ORDER BY sm.createdAt DESC, sm.stockMovementId DESC");
+
+        TypedQuery<StockMovementHistoryResponse> query =
+            entityManager.createQuery(jpql.toString(), StockMovementHistoryResponse.class);
+        params.forEach(query::setParameter);
+        return query;
+    }
+}
@@ -36,7 +36,7 @@ public interface StockMovementRepository extends JpaRepository<StockMovement, Lo
         WHERE sm.item.itemId = :itemId 
         AND sm.movementType = 'IN'
         """)
-    Integer calculateTotalStockIn(@Param("itemId") Long itemId);
+    Long calculateTotalStockIn(@Param("itemId") Long itemId);
     
     /**
      * Calculate total stock OUT for a specific item.
@@ -47,7 +47,7 @@ public interface StockMovementRepository extends JpaRepository<StockMovement, Lo
         WHERE sm.item.itemId = :itemId 
         AND sm.movementType = 'OUT'
         """)
-    Integer calculateTotalStockOut(@Param("itemId") Long itemId);
+    Long calculateTotalStockOut(@Param("itemId") Long itemId);
     
     /**
      * Calculate current stock for a specific item (IN - OUT).
@@ -59,7 +59,7 @@ public interface StockMovementRepository extends JpaRepository<StockMovement, Lo
         FROM StockMovement sm 
         WHERE sm.item.itemId = :itemId
         """)
-    Integer calculateCurrentStock(@Param("itemId") Long itemId);
+    Long calculateCurrentStock(@Param("itemId") Long itemId);
     
     /**
      * Get stock summary for all items.
@@ -246,9 +246,9 @@ public interface StockMovementRepository extends JpaRepository<StockMovement, Lo
      */
     interface StockSummaryProjection {
         Long getItemId();
-        Integer getTotalIn();
-        Integer getTotalOut();
-        Integer getCurrentStock();
+        Long getTotalIn();
+        Long getTotalOut();
+        Long getCurrentStock();
     }
     
     /**
@@ -0,0 +1,105 @@
+package management.backend.inventory.repository;
+
+import management.backend.inventory.entity.StockOutReasonDaily;
+import management.backend.inventory.repository.StockMovementRepository.ReasonBreakdownProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository for the daily stock-out reason rollup.
+ * Breakdown queries aggregate at most one row per (day, item, warehouse, reason type)
+ * instead of scanning stock_movements.
+ */
+@Repository
+public interface StockOutReasonDailyRepository extends JpaRepository<StockOutReasonDaily, Long> {
+    
+    /**
+     * Get stock-out reasons breakdown for a date range.
+     */
+    @Query("""
+        SELECT 
+            r.reasonType as reasonType,
+            SUM(r.movementCount) as count
+        FROM StockOutReasonDaily r 
+        WHERE r.movementDate BETWEEN :startDate AND :endDate 
+        GROUP BY r.reasonType 
+        HAVING SUM(r.movementCount) > 0
+        ORDER BY count DESC
+        """)
+    List<ReasonBreakdownProjection> getReasonBreakdown(
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+    
+    /**
+     * Get stock-out reasons breakdown for a specific item.
+     */
+    @Query("""
+        SELECT 
+            r.reasonType as reasonType,
+            SUM(r.movementCount) as count
+        FROM StockOutReasonDaily r 
+        WHERE r.itemId = :itemId 
+        AND r.movementDate BETWEEN :startDate AND :endDate 
+        GROUP BY r.reasonType 
+        HAVING SUM(r.movementCount) > 0
+        ORDER BY count DESC
+        """)
+    List<ReasonBreakdownProjection> getReasonBreakdownByItem(
+        @Param("itemId") Long itemId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+    
+    /**
+     * Get stock-out reasons breakdown for a specific category.
+     */
+    @Query("""
+        SELECT 
+            r.reasonType as reasonType,
+            SUM(r.movementCount) as count
+        FROM StockOutReasonDaily r 
+        WHERE r.categoryId = :categoryId 
+        AND r.movementDate BETWEEN :startDate AND :endDate 
+        GROUP BY r.reasonType 
+        HAVING SUM(r.movementCount) > 0
+        ORDER BY count DESC
+        """)
+    List<ReasonBreakdownProjection> getReasonBreakdownByCategory(
+        @Param("categoryId") Long categoryId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+    
+    /**
+     * Get stock-out counts per reason type across all time.
+     */
+    @Query("""
+        SELECT 
+            r.reasonType as reasonType,
+            SUM(r.movementCount) as count
+        FROM StockOutReasonDaily r 
+        GROUP BY r.reasonType
+        """)
+    List<ReasonBreakdownProjection> getReasonCounts();
+    
+    /**
+     * Get top stock-out reasons by count across all time.
+     */
+    @Query("""
+        SELECT 
+            r.reasonType as reasonType,
+            SUM(r.movementCount) as count
+        FROM StockOutReasonDaily r 
+        GROUP BY r.reasonType 
+        HAVING SUM(r.movementCount) > 0
+        ORDER BY count DESC
+        LIMIT :limit
+        """)
+    List<ReasonBreakdownProjection> getTopReasons(@Param("limit") int limit);
+}
@@ -0,0 +1,45 @@
+package management.backend.inventory.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC access to the stock_summary materialized view over inventory_transactions.
+ */
+@Repository
+public class StockSummaryRepository {
+
+    // Advisory lock key held while refreshing, so only one instance refreshes at a time
+    private static final long REFRESH_LOCK_KEY = 0x73746f636b53756dL;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockSummaryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Highest transaction ID in the ledger, or 0 when it is empty. Reads the primary key index only.
+     */
+    public long findMaxTransactionId() {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(transaction_id) FROM inventory_transactions", Long.class);
+        return max != null ? max : 0L;
+    }
+
+    /**
+     * Take the refresh lock for the current transaction.
+     *
+     * @return false when another session is refreshing
+     */
+    public boolean tryLockRefresh() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, REFRESH_LOCK_KEY));
+    }
+
+    /**
+     * Recompute stock_summary without blocking readers.
+     */
+    public void refreshConcurrently() {
+        jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY stock_summary");
+    }
+}
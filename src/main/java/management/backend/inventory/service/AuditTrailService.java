@@ -0,0 +1,231 @@
+package management.backend.inventory.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import management.backend.inventory.config.AppProperties;
+import management.backend.inventory.entity.AuditAction;
+import management.backend.inventory.repository.AuditLogJdbcRepository;
+import management.backend.inventory.repository.AuditLogJdbcRepository.AuditRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous writer for audit_logs, replacing the row-level audit triggers.
+ * Committed entity changes are submitted by {@link management.backend.inventory.config.AuditEventListener}
+ * and queued; one worker serializes them to JSON and inserts them in batches of up to
+ * maxBatchSize rows, at most flushInterval after the first one arrived, so audited writes
+ * no longer pay for to_jsonb and an extra insert inside their own transaction.
+ * <p>
+ * The queue is bounded: when it is full, the submitting thread waits up to offerTimeout,
+ * then the change is dropped and counted in audit.entries.dropped. A batch that fails is
+ * retried row by row so one bad row does not lose the others. Changes submitted before the
+ * writer starts wait in the queue; the queued ones are written on shutdown.
+ */
+@Service
+public class AuditTrailService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditTrailService.class);
+
+    private static final long IDLE_POLL_MS = 100;
+
+    /**
+     * A committed change to an audited entity. Values are keyed by column name;
+     * oldValues is null for creates and newValues is null for deletes.
+     */
+    public record Change(Long userId, AuditAction action, String entityType, Long entityId,
+                         Map<String, Object> oldValues, Map<String, Object> newValues, LocalDateTime occurredAt) {
+    }
+
+    private final AuditLogJdbcRepository auditLogJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final AppProperties.Audit properties;
+    private final BlockingQueue<Change> queue;
+
+    private final Timer flushTimer;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean running;
+    private volatile boolean dropping;
+    private Thread worker;
+
+    public AuditTrailService(AuditLogJdbcRepository auditLogJdbcRepository, PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper, AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.auditLogJdbcRepository = auditLogJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.properties = appProperties.getAudit();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        this.flushTimer = Timer.builder("audit.flush")
+            .description("Time to insert one batch of audit_logs rows").register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.entries.written")
+            .description("audit_logs rows inserted").register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.entries.dropped")
+            .description("Audit entries dropped because the queue stayed full").register(meterRegistry);
+        this.failedCounter = Counter.builder("audit.entries.failed")
+            .description("Audit entries that could not be inserted").register(meterRegistry);
+        Gauge.builder("audit.queue.size", queue, BlockingQueue::size)
+            .description("Audit entries waiting to be inserted").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public boolean isChangedColumnsOnly() {
+        return properties.isChangedColumnsOnly();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!properties.isEnabled()) return;
+        start();
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onContextClosed() {
+        stop();
+    }
+
+    synchronized void start() {
+        if (running) return;
+        running = true;
+        worker = new Thread(this::runWorker, "audit-writer");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Audit writer started: max batch {}, flush interval {}, queue capacity {}, changed columns only {}",
+            properties.getMaxBatchSize(), properties.getFlushInterval(), properties.getQueueCapacity(),
+            properties.isChangedColumnsOnly());
+    }
+
+    /**
+     * Stop accepting changes and write the queued ones.
+     */
+    synchronized void stop() {
+        if (!running) return;
+        running = false;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Anything the worker did not reach is written here
+        List<Change> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) flush(remaining);
+    }
+
+    /**
+     * Queue a change for the next batch, waiting up to offerTimeout while the queue is full.
+     */
+    public void submit(Change change) {
+        if (!properties.isEnabled()) return;
+        boolean queued;
+        try {
+            queued = queue.offer(change, properties.getOfferTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            droppedCounter.increment();
+            if (!dropping) {
+                dropping = true;
+                log.warn("Audit queue full ({} entries), dropping audit entries until it drains", queue.size());
+            }
+        }
+    }
+
+    private void runWorker() {
+        int maxBatchSize = Math.max(1, properties.getMaxBatchSize());
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        List<Change> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Change first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Change next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        queue.drainTo(batch, maxBatchSize - batch.size());
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                flush(batch);
+                return;
+            } catch (RuntimeException e) {
+                log.error("Audit writer failed to write {} entries", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void flush(List<Change> batch) {
+        List<AuditRow> rows = new ArrayList<>(batch.size());
+        for (Change change : batch) {
+            AuditRow row = toRow(change);
+            if (row != null) rows.add(row);
+        }
+        if (rows.isEmpty()) return;
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(
+                status -> auditLogJdbcRepository.insertAll(rows)));
+            writtenCounter.increment(rows.size());
+        } catch (RuntimeException e) {
+            log.warn("Audit batch of {} rows failed, inserting rows one by one: {}", rows.size(), e.getMessage());
+            for (AuditRow row : rows) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> auditLogJdbcRepository.insertAll(List.of(row)));
+                    writtenCounter.increment();
+                } catch (RuntimeException rowError) {
+                    failedCounter.increment();
+                    log.error("Could not write audit entry for {} {}: {}", row.entityType(), row.entityId(), rowError.getMessage());
+                }
+            }
+        }
+        if (dropping && queue.isEmpty()) dropping = false;
+    }
+
+    private AuditRow toRow(Change change) {
+        try {
+            return new AuditRow(change.userId(), change.action().name(), change.entityType(), change.entityId(),
+                toJson(change.oldValues()), toJson(change.newValues()), change.occurredAt());
+        } catch (JsonProcessingException e) {
+            failedCounter.increment();
+            log.error("Could not serialize audit entry for {} {}", change.entityType(), change.entityId(), e);
+            return null;
+        }
+    }
+
+    private String toJson(Map<String, Object> values) throws JsonProcessingException {
+        return values == null ? null : objectMapper.writeValueAsString(values);
+    }
+}
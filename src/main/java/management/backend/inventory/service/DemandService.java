@@ -14,10 +14,10 @@ import management.backend.inventory.repository.ItemRepository;
 import management.backend.inventory.repository.DemandItemRepository;
 import management.backend.inventory.repository.UserRepository;
 import management.backend.inventory.repository.EmployeeRepository;
+import management.backend.inventory.service.DocumentNumberService.DocumentType;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 @Service
@@ -27,13 +27,15 @@ public class DemandService {
     private final DemandItemRepository demandItemRepository;
     private final EmployeeRepository employeeRepository;
     private final UserRepository userRepository;
+    private final DocumentNumberService documentNumberService;
     
-    public DemandService(DemandRepository demandRepository, ItemRepository itemRepository, UserRepository userRepository, DemandItemRepository demandItemRepository, EmployeeRepository employeeRepository) {
+    public DemandService(DemandRepository demandRepository, ItemRepository itemRepository, UserRepository userRepository, DemandItemRepository demandItemRepository, EmployeeRepository employeeRepository, DocumentNumberService documentNumberService) {
         this.demandRepository = demandRepository;
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
         this.demandItemRepository = demandItemRepository;
         this.employeeRepository = employeeRepository;
+        this.documentNumberService = documentNumberService;
     }
     
     @Transactional
@@ -79,9 +81,7 @@ public class DemandService {
             }
         }
         d.setNote(request.getNote());
-        d = demandRepository.save(d);
-        String code = "DM-" + java.time.LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + "-" + d.getDemandId();
-        d.setDemandCode(code);
+        d.setDemandCode(documentNumberService.next(DocumentType.DEMAND));
         d = demandRepository.save(d);
         if (request.getItems() != null && !request.getItems().isEmpty()) {
             for (var line : request.getItems()) {
@@ -0,0 +1,86 @@
+package management.backend.inventory.service;
+
+import management.backend.inventory.repository.DocumentNumberRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Service for document reference numbers such as SI-20240131-000051.
+ * Each prefix has its own database sequence with INCREMENT BY {@link #BLOCK_SIZE}; one
+ * nextval reserves a block of numbers that is then handed out from memory, so most
+ * numbers cost no database round trip. Numbers never repeat across instances, and are
+ * increasing within an instance; blocks held by different instances interleave, and a
+ * restart skips the rest of its blocks.
+ */
+@Service
+public class DocumentNumberService {
+
+    // Must match INCREMENT BY of the document_number_*_seq sequences
+    static final int BLOCK_SIZE = 50;
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    public enum DocumentType {
+        STOCK_IN("SI", "document_number_si_seq"),
+        STOCK_OUT("OUT", "document_number_out_seq"),
+        DEMAND("DM", "document_number_dm_seq"),
+        PURCHASE_ORDER("PO", "document_number_po_seq");
+
+        private final String prefix;
+        private final String sequenceName;
+
+        DocumentType(String prefix, String sequenceName) {
+            this.prefix = prefix;
+            this.sequenceName = sequenceName;
+        }
+
+        public String getPrefix() {
+            return prefix;
+        }
+    }
+
+    private static final class Block {
+        private long next;
+        private long end; // exclusive
+    }
+
+    private final DocumentNumberRepository documentNumberRepository;
+    private final Map<DocumentType, Block> blocks = new EnumMap<>(DocumentType.class);
+
+    public DocumentNumberService(DocumentNumberRepository documentNumberRepository) {
+        this.documentNumberRepository = documentNumberRepository;
+        for (DocumentType type : DocumentType.values()) {
+            blocks.put(type, new Block());
+        }
+    }
+
+    /**
+     * Next reference number for a document type, dated today.
+     */
+    public String next(DocumentType type) {
+        return next(type, LocalDate.now());
+    }
+
+    /**
+     * Next reference number for a document type with the given document date.
+     */
+    public String next(DocumentType type, LocalDate date) {
+        return String.format("%s-%s-%06d", type.prefix, date.format(DATE_FORMAT), nextNumber(type));
+    }
+
+    long nextNumber(DocumentType type) {
+        Block block = blocks.get(type);
+        synchronized (block) {
+            if (block.next >= block.end) {
+                long start = documentNumberRepository.nextValue(type.sequenceName);
+                block.next = start;
+                block.end = start + BLOCK_SIZE;
+            }
+            return block.next++;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package management.backend.inventory.service;
+
+import management.backend.inventory.config.AppProperties;
+import management.backend.inventory.repository.IdempotencyKeyRepository;
+import management.backend.inventory.repository.IdempotencyKeyRepository.StoredKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Service for Idempotency-Key handling on write endpoints.
+ * Keys are scoped to the caller and endpoint, live for app.idempotency.ttl and are
+ * evicted by a scheduled cleanup.
+ */
+@Service
+public class IdempotencyKeyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyKeyService.class);
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final AppProperties.Idempotency properties;
+
+    public IdempotencyKeyService(IdempotencyKeyRepository idempotencyKeyRepository, AppProperties appProperties) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.properties = appProperties.getIdempotency();
+    }
+
+    /**
+     * Reserve a key before running the request.
+     *
+     * @return true when this request owns the key; false when it was already used
+     */
+    public boolean reserve(String scope, String key, String requestHash) {
+        return idempotencyKeyRepository.tryReserve(scope, key, requestHash, LocalDateTime.now().plus(properties.getTtl()));
+    }
+
+    public Optional<StoredKey> find(String scope, String key) {
+        return idempotencyKeyRepository.find(scope, key);
+    }
+
+    public void complete(String scope, String key, int statusCode, String contentType, byte[] responseBody) {
+        idempotencyKeyRepository.complete(scope, key, statusCode, contentType, responseBody);
+    }
+
+    public void release(String scope, String key) {
+        idempotencyKeyRepository.release(scope, key);
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval:PT1H}")
+    public void deleteExpired() {
+        int deleted = idempotencyKeyRepository.deleteExpired();
+        if (deleted > 0) {
+            log.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package management.backend.inventory.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import management.backend.inventory.config.AppProperties;
+import management.backend.inventory.repository.InventoryBalanceRepository;
+import management.backend.inventory.repository.InventoryBalanceRepository.LedgerBalance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Background job that checks inventory_balances against the inventory_transactions ledger.
+ * Item ID ranges are compared one at a time, each in a single statement. Mismatches are
+ * logged and, when repair is enabled, balances are rewritten from the ledger unless they
+ * changed in the meantime. Results are exported as inventory.balance.verification.* metrics.
+ */
+@Service
+public class InventoryBalanceVerificationService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryBalanceVerificationService.class);
+
+    // Discrepancies kept in the report and logged individually
+    private static final int MAX_REPORTED_DISCREPANCIES = 1000;
+
+    /**
+     * Outcome of one verification run.
+     */
+    public record Report(long balancesChecked, long discrepancyCount, long repaired,
+                         List<LedgerBalance> discrepancies, long durationMs) {
+    }
+
+    private final InventoryBalanceRepository inventoryBalanceRepository;
+    private final AppProperties.BalanceVerification properties;
+
+    private final Counter balancesCounter;
+    private final Counter discrepanciesCounter;
+    private final Counter repairsCounter;
+    private final Timer runTimer;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public InventoryBalanceVerificationService(InventoryBalanceRepository inventoryBalanceRepository,
+                                               AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.inventoryBalanceRepository = inventoryBalanceRepository;
+        this.properties = appProperties.getBalanceVerification();
+        this.balancesCounter = Counter.builder("inventory.balance.verification.balances")
+            .description("Inventory balances checked against the ledger").register(meterRegistry);
+        this.discrepanciesCounter = Counter.builder("inventory.balance.verification.discrepancies")
+            .description("Inventory balances that differ from the ledger").register(meterRegistry);
+        this.repairsCounter = Counter.builder("inventory.balance.verification.repairs")
+            .description("Inventory balances rewritten from the ledger").register(meterRegistry);
+        this.runTimer = Timer.builder("inventory.balance.verification.run")
+            .description("Time for a full inventory balance verification").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.balance-verification.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        if (!properties.isEnabled()) return;
+        verify(properties.isRepair());
+    }
+
+    /**
+     * Verify all inventory balances.
+     *
+     * @param repair rewrite mismatched balances from the ledger
+     * @return the run report, or null when a run is already in progress
+     */
+    public Report verify(boolean repair) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Inventory balance verification already running; skipping");
+            return null;
+        }
+        try {
+            return runTimer.record(() -> doVerify(repair));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private Report doVerify(boolean repair) {
+        long started = System.currentTimeMillis();
+        long[] bounds = inventoryBalanceRepository.findItemIdBounds();
+        if (bounds == null) {
+            return new Report(0, 0, 0, List.of(), 0);
+        }
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        long checked = 0;
+        long discrepancyCount = 0;
+        long repaired = 0;
+        List<LedgerBalance> discrepancies = new ArrayList<>();
+        for (long from = bounds[0]; from <= bounds[1]; from += chunkSize) {
+            long to = Math.min(bounds[1], from + chunkSize - 1);
+            for (LedgerBalance row : inventoryBalanceRepository.verifyRange(from, to)) {
+                checked++;
+                balancesCounter.increment();
+                if (row.matches()) continue;
+                discrepancyCount++;
+                discrepanciesCounter.increment();
+                if (discrepancies.size() < MAX_REPORTED_DISCREPANCIES) {
+                    discrepancies.add(row);
+                    log.warn("Inventory balance discrepancy for item {}, warehouse {}, batch {}: balance {}, ledger {}",
+                        row.itemId(), row.warehouseId(), row.batchId(), row.balance(), row.ledger());
+                }
+                if (repair && inventoryBalanceRepository.repair(row.itemId(), row.warehouseId(), row.batchId(),
+                        row.balance(), row.ledger())) {
+                    repaired++;
+                    repairsCounter.increment();
+                }
+            }
+        }
+        long duration = System.currentTimeMillis() - started;
+        log.info("Inventory balance verification finished: {} balances, {} discrepancies, {} repaired in {} ms",
+            checked, discrepancyCount, repaired, duration);
+        return new Report(checked, discrepancyCount, repaired, List.copyOf(discrepancies), duration);
+    }
+}
@@ -0,0 +1,117 @@
+package management.backend.inventory.service;
+
+import jakarta.persistence.EntityManager;
+import management.backend.inventory.dto.BatchStockResponse;
+import management.backend.inventory.entity.Batch;
+import management.backend.inventory.entity.InventoryTransaction;
+import management.backend.inventory.repository.BatchRepository;
+import management.backend.inventory.repository.InventoryBalanceRepository;
+import management.backend.inventory.repository.InventoryBalanceRepository.BatchBalance;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service for the inventory_transactions ledger and its running balances.
+ * Each transaction is inserted together with a single-row change to the balance of its
+ * (item, warehouse, batch), so available stock is read without summing history. Outbound
+ * transactions are conditional on that balance holding enough stock.
+ * {@link #record} is the only way to write the ledger; InventoryTransactionRepository is
+ * read-only, so no insert can bypass the balance update.
+ */
+@Service
+@Transactional
+public class InventoryLedgerService {
+
+    private final EntityManager entityManager;
+    private final InventoryBalanceRepository inventoryBalanceRepository;
+    private final BatchRepository batchRepository;
+    private final StockSummaryRefreshService stockSummaryRefreshService;
+
+    public InventoryLedgerService(EntityManager entityManager,
+                                  InventoryBalanceRepository inventoryBalanceRepository,
+                                  BatchRepository batchRepository,
+                                  StockSummaryRefreshService stockSummaryRefreshService) {
+        this.entityManager = entityManager;
+        this.inventoryBalanceRepository = inventoryBalanceRepository;
+        this.batchRepository = batchRepository;
+        this.stockSummaryRefreshService = stockSummaryRefreshService;
+    }
+
+    /**
+     * Insert a ledger transaction and apply it to its balance.
+     * STOCK_IN and TRANSFER_IN add stock; every other type removes it.
+     *
+     * @return the saved transaction
+     * @throws IllegalArgumentException when the transaction is incomplete or would take the
+     *         balance below zero
+     */
+    public InventoryTransaction record(InventoryTransaction transaction) {
+        if (transaction.getItem() == null || transaction.getItem().getItemId() == null) {
+            throw new IllegalArgumentException("Item is required");
+        }
+        if (transaction.getWarehouse() == null || transaction.getWarehouse().getWarehouseId() == null) {
+            throw new IllegalArgumentException("Warehouse is required");
+        }
+        if (transaction.getQuantity() == null || transaction.getQuantity() <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        if (transaction.getTransactionType() == null) throw new IllegalArgumentException("Transaction type is required");
+
+        long itemId = transaction.getItem().getItemId();
+        long warehouseId = transaction.getWarehouse().getWarehouseId();
+        Long batchId = transaction.getBatch() != null ? transaction.getBatch().getBatchId() : null;
+        long quantity = transaction.getQuantity();
+        if (transaction.isStockIn()) {
+            inventoryBalanceRepository.add(itemId, warehouseId, batchId, quantity);
+        } else if (inventoryBalanceRepository.subtractIfAvailable(itemId, warehouseId, batchId, quantity) == null) {
+            long available = inventoryBalanceRepository.findByItemAndWarehouse(itemId, warehouseId).stream()
+                .filter(b -> Objects.equals(b.batchId(), batchId))
+                .mapToLong(BatchBalance::quantity)
+                .sum();
+            throw new IllegalArgumentException(String.format(
+                "Insufficient stock for item %d in warehouse %d%s. Available: %d, requested: %d",
+                itemId, warehouseId, batchId != null ? " batch " + batchId : "", available, quantity));
+        }
+        // Persisted as an entity so the audit listener still sees the insert
+        entityManager.persist(transaction);
+        stockSummaryRefreshService.markChanged();
+        return transaction;
+    }
+
+    /**
+     * Available stock of an item in a warehouse over all batches.
+     */
+    @Transactional(readOnly = true)
+    public long getAvailableStock(Long itemId, Long warehouseId) {
+        validateIds(itemId, warehouseId);
+        return inventoryBalanceRepository.sumAvailable(itemId, warehouseId);
+    }
+
+    /**
+     * Available stock of an item in a warehouse per batch, stock without a batch first.
+     */
+    @Transactional(readOnly = true)
+    public List<BatchStockResponse> getAvailableStockByBatch(Long itemId, Long warehouseId) {
+        validateIds(itemId, warehouseId);
+        List<BatchBalance> balances = inventoryBalanceRepository.findByItemAndWarehouse(itemId, warehouseId);
+        List<Long> batchIds = balances.stream().map(BatchBalance::batchId).filter(Objects::nonNull).toList();
+        Map<Long, Batch> batches = batchIds.isEmpty() ? Map.of() : batchRepository.findAllById(batchIds).stream()
+            .collect(Collectors.toMap(Batch::getBatchId, Function.identity()));
+        return balances.stream().map(b -> {
+            Batch batch = b.batchId() != null ? batches.get(b.batchId()) : null;
+            return new BatchStockResponse(b.batchId(), batch != null ? batch.getBatchNumber() : null,
+                batch != null ? batch.getExpiryDate() : null, b.quantity());
+        }).toList();
+    }
+
+    private void validateIds(Long itemId, Long warehouseId) {
+        if (itemId == null) throw new IllegalArgumentException("Item ID cannot be null");
+        if (warehouseId == null) throw new IllegalArgumentException("Warehouse ID cannot be null");
+    }
+}
@@ -0,0 +1,179 @@
+package management.backend.inventory.service;
+
+import management.backend.inventory.dto.StatisticsResponse;
+import management.backend.inventory.entity.Item;
+import management.backend.inventory.entity.StockMovement;
+import management.backend.inventory.event.ItemChangedEvent;
+import management.backend.inventory.event.StockMovementsChangedEvent;
+import management.backend.inventory.repository.ItemRepository;
+import management.backend.inventory.repository.ItemRepository.ItemStatisticsProjection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Dashboard statistics held as running aggregates.
+ * Each item's last known price, stock and minimum stock is kept in memory; when an item
+ * or its stock changes, only that item is re-read and its old contribution swapped for
+ * the new one, so reads are O(1). A periodic full recompute corrects any drift.
+ */
+@Service
+public class InventoryStatisticsService {
+    
+    private static final Logger log = LoggerFactory.getLogger(InventoryStatisticsService.class);
+    
+    // Used when an item has no minimum stock set
+    private static final long DEFAULT_LOW_STOCK_THRESHOLD = 10;
+    
+    private final ItemRepository itemRepository;
+    
+    private final Map<Long, ItemSnapshot> snapshots = new HashMap<>();
+    private Aggregates aggregates;
+    private volatile StatisticsResponse current;
+    
+    public InventoryStatisticsService(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+    
+    /**
+     * Get the current dashboard statistics.
+     * Loads all items once on first use; afterwards answers from the running aggregates.
+     */
+    public StatisticsResponse getStatistics() {
+        StatisticsResponse stats = current;
+        if (stats != null) return stats;
+        synchronized (this) {
+            if (current == null) {
+                rebuild(itemRepository.findStatisticsRows());
+            }
+            return current;
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onStockMovementsChanged(StockMovementsChangedEvent event) {
+        Set<Long> itemIds = event.getMovements().stream()
+            .map(StockMovement::getItem)
+            .filter(Objects::nonNull)
+            .map(Item::getItemId)
+            .collect(Collectors.toSet());
+        refreshItems(itemIds);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onItemChanged(ItemChangedEvent event) {
+        refreshItems(Set.of(event.getItemId()));
+    }
+    
+    /**
+     * Re-read the given items and swap their contribution to the aggregates.
+     * Does nothing until the aggregates have been loaded.
+     */
+    public synchronized void refreshItems(Collection<Long> itemIds) {
+        if (current == null || itemIds.isEmpty()) return;
+        Map<Long, ItemStatisticsProjection> rows = itemRepository.findStatisticsRowsByIds(itemIds).stream()
+            .collect(Collectors.toMap(ItemStatisticsProjection::getItemId, row -> row));
+        for (Long itemId : itemIds) {
+            ItemSnapshot previous = snapshots.remove(itemId);
+            if (previous != null) aggregates.remove(previous);
+            ItemStatisticsProjection row = rows.get(itemId);
+            if (row != null) {
+                ItemSnapshot next = ItemSnapshot.of(row);
+                snapshots.put(itemId, next);
+                aggregates.add(next);
+            }
+        }
+        current = aggregates.toResponse();
+    }
+    
+    /**
+     * Recompute all statistics from the database and replace the running aggregates.
+     * Logs a warning when the running aggregates had drifted from the recomputed values.
+     */
+    @Scheduled(fixedDelayString = "${app.statistics.drift-check-interval:PT5M}",
+               initialDelayString = "${app.statistics.drift-check-interval:PT5M}")
+    public synchronized void recompute() {
+        StatisticsResponse before = current;
+        rebuild(itemRepository.findStatisticsRows());
+        if (before != null && !sameFigures(before, current)) {
+            log.warn("Dashboard statistics drift corrected: totalItems {} -> {}, totalValue {} -> {}, lowStockItems {} -> {}, outOfStockItems {} -> {}",
+                before.getTotalItems(), current.getTotalItems(),
+                before.getTotalValue(), current.getTotalValue(),
+                before.getLowStockItems(), current.getLowStockItems(),
+                before.getOutOfStockItems(), current.getOutOfStockItems());
+        }
+    }
+    
+    private void rebuild(List<ItemStatisticsProjection> rows) {
+        snapshots.clear();
+        aggregates = new Aggregates();
+        for (ItemStatisticsProjection row : rows) {
+            ItemSnapshot snapshot = ItemSnapshot.of(row);
+            snapshots.put(row.getItemId(), snapshot);
+            aggregates.add(snapshot);
+        }
+        current = aggregates.toResponse();
+    }
+    
+    private static boolean sameFigures(StatisticsResponse a, StatisticsResponse b) {
+        return Objects.equals(a.getTotalItems(), b.getTotalItems())
+            && a.getTotalValue().compareTo(b.getTotalValue()) == 0
+            && Objects.equals(a.getLowStockItems(), b.getLowStockItems())
+            && Objects.equals(a.getOutOfStockItems(), b.getOutOfStockItems());
+    }
+    
+    /**
+     * One item's contribution to the statistics.
+     */
+    private record ItemSnapshot(BigDecimal value, boolean lowStock, boolean outOfStock) {
+        
+        static ItemSnapshot of(ItemStatisticsProjection row) {
+            long stock = row.getCurrentStock() != null ? row.getCurrentStock() : 0L;
+            BigDecimal price = row.getUnitPrice() != null ? row.getUnitPrice() : BigDecimal.ZERO;
+            Long min = row.getMinimumStock();
+            long threshold = (min != null && min > 0) ? min : DEFAULT_LOW_STOCK_THRESHOLD;
+            return new ItemSnapshot(
+                price.multiply(BigDecimal.valueOf(stock)),
+                stock >= 0 && stock < threshold,
+                stock == 0
+            );
+        }
+    }
+    
+    private static class Aggregates {
+        private int totalItems;
+        private BigDecimal totalValue = BigDecimal.ZERO;
+        private int lowStockItems;
+        private int outOfStockItems;
+        
+        void add(ItemSnapshot s) {
+            totalItems++;
+            totalValue = totalValue.add(s.value());
+            if (s.lowStock()) lowStockItems++;
+            if (s.outOfStock()) outOfStockItems++;
+        }
+        
+        void remove(ItemSnapshot s) {
+            totalItems--;
+            totalValue = totalValue.subtract(s.value());
+            if (s.lowStock()) lowStockItems--;
+            if (s.outOfStock()) outOfStockItems--;
+        }
+        
+        StatisticsResponse toResponse() {
+            return new StatisticsResponse(totalItems, totalValue, lowStockItems, outOfStockItems);
+        }
+    }
+}
@@ -5,13 +5,15 @@ import management.backend.inventory.dto.ItemStockResponse;
 import management.backend.inventory.dto.StatisticsResponse;
 import management.backend.inventory.entity.Category;
 import management.backend.inventory.entity.Item;
+import management.backend.inventory.event.ItemChangedEvent;
 import management.backend.inventory.repository.CategoryRepository;
 import management.backend.inventory.repository.ItemRepository;
+import management.backend.inventory.repository.ItemStockTotalRepository;
 import management.backend.inventory.repository.StockMovementRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -26,13 +28,17 @@ import java.util.stream.Collectors;
 public class ItemService {
     
     private final ItemRepository itemRepository;
-    private final StockMovementRepository stockMovementRepository;
+    private final ItemStockTotalRepository itemStockTotalRepository;
     private final CategoryRepository categoryRepository;
+    private final InventoryStatisticsService inventoryStatisticsService;
+    private final ApplicationEventPublisher eventPublisher;
     
-    public ItemService(ItemRepository itemRepository, StockMovementRepository stockMovementRepository, CategoryRepository categoryRepository) {
+    public ItemService(ItemRepository itemRepository, ItemStockTotalRepository itemStockTotalRepository, CategoryRepository categoryRepository, InventoryStatisticsService inventoryStatisticsService, ApplicationEventPublisher eventPublisher) {
         this.itemRepository = itemRepository;
-        this.stockMovementRepository = stockMovementRepository;
+        this.itemStockTotalRepository = itemStockTotalRepository;
         this.categoryRepository = categoryRepository;
+        this.inventoryStatisticsService = inventoryStatisticsService;
+        this.eventPublisher = eventPublisher;
     }
     
     /**
@@ -77,7 +83,9 @@ public class ItemService {
         
         // Category is mandatory above
         
-        return itemRepository.save(item);
+        Item saved = itemRepository.save(item);
+        eventPublisher.publishEvent(new ItemChangedEvent(saved.getItemId()));
+        return saved;
     }
 
     /**
@@ -125,7 +133,9 @@ public class ItemService {
             item.setCategory(category.orElse(null));
         }
 
-        return itemRepository.save(item);
+        Item saved = itemRepository.save(item);
+        eventPublisher.publishEvent(new ItemChangedEvent(itemId));
+        return saved;
     }
     
     /**
@@ -138,7 +148,7 @@ public class ItemService {
         
         // Get stock summaries for all items
         List<StockMovementRepository.StockSummaryProjection> stockSummaries = 
-            stockMovementRepository.getStockSummaryForAllItems();
+            itemStockTotalRepository.getStockSummaryForAllItems();
         
         // Create a map for quick lookup of stock data by item ID
         Map<Long, StockMovementRepository.StockSummaryProjection> stockMap = stockSummaries.stream()
@@ -152,9 +162,9 @@ public class ItemService {
             .map(item -> {
                 StockMovementRepository.StockSummaryProjection stockSummary = stockMap.get(item.getItemId());
                 
-                Integer totalStockIn = stockSummary != null ? stockSummary.getTotalIn() : 0;
-                Integer totalStockOut = stockSummary != null ? stockSummary.getTotalOut() : 0;
-                Integer currentStock = stockSummary != null ? stockSummary.getCurrentStock() : 0;
+                Long totalStockIn = stockSummary != null ? stockSummary.getTotalIn() : 0L;
+                Long totalStockOut = stockSummary != null ? stockSummary.getTotalOut() : 0L;
+                Long currentStock = stockSummary != null ? stockSummary.getCurrentStock() : 0L;
                 Long categoryId = item.getCategory() != null ? item.getCategory().getCategoryId() : null;
                 String categoryName = item.getCategory() != null ? item.getCategory().getName() : null;
                 return new ItemStockResponse(
@@ -209,11 +219,11 @@ public class ItemService {
         
         Item item = itemOpt.get();
         StockMovementRepository.StockSummaryProjection stockSummary = 
-            stockMovementRepository.getStockSummaryForItem(itemId);
+            itemStockTotalRepository.getStockSummaryForItem(itemId);
         
-        Integer totalStockIn = stockSummary != null ? stockSummary.getTotalIn() : 0;
-        Integer totalStockOut = stockSummary != null ? stockSummary.getTotalOut() : 0;
-        Integer currentStock = stockSummary != null ? stockSummary.getCurrentStock() : 0;
+        Long totalStockIn = stockSummary != null ? stockSummary.getTotalIn() : 0L;
+        Long totalStockOut = stockSummary != null ? stockSummary.getTotalOut() : 0L;
+        Long currentStock = stockSummary != null ? stockSummary.getCurrentStock() : 0L;
         Long categoryId = item.getCategory() != null ? item.getCategory().getCategoryId() : null;
         String categoryName = item.getCategory() != null ? item.getCategory().getName() : null;
         ItemStockResponse response = new ItemStockResponse(
@@ -245,40 +255,13 @@ public class ItemService {
     }
     
     /**
-     * Get items with low stock (below threshold).
+     * Get items with low stock.
+     * Each item is compared against its own reorder level or minimum stock;
+     * the threshold applies only to items that define neither.
      */
     @Transactional(readOnly = true)
     public List<ItemStockResponse> getItemsWithLowStock(int threshold) {
-        List<Item> lowStockItems = itemRepository.findItemsWithStockBelowThreshold(threshold);
-        
-        return lowStockItems.stream()
-            .map(item -> {
-                StockMovementRepository.StockSummaryProjection stockSummary = 
-                    stockMovementRepository.getStockSummaryForItem(item.getItemId());
-                
-                Integer totalStockIn = stockSummary != null ? stockSummary.getTotalIn() : 0;
-                Integer totalStockOut = stockSummary != null ? stockSummary.getTotalOut() : 0;
-                Integer currentStock = stockSummary != null ? stockSummary.getCurrentStock() : 0;
-                Long categoryId = item.getCategory() != null ? item.getCategory().getCategoryId() : null;
-                String categoryName = item.getCategory() != null ? item.getCategory().getName() : null;
-                return new ItemStockResponse(
-                    item.getItemId(),
-                    item.getName(),
-                    item.getSku(),
-                    item.getDescription(),
-                    item.getUnitPrice(),
-                    item.getCreatedAt(),
-                    currentStock,
-                    totalStockIn,
-                    totalStockOut,
-                    categoryId,
-                    categoryName,
-                    item.getMinimumStock(),
-                    item.getMaximumStock(),
-                    item.getReorderLevel()
-                );
-            })
-            .collect(Collectors.toList());
+        return itemRepository.findLowStockItems(threshold);
     }
     
     /**
@@ -301,39 +284,11 @@ public class ItemService {
     }
 
     /**
-     * Get dashboard statistics.
+     * Get dashboard statistics from the running aggregates.
      * Requirements: 4.1, 4.2, 4.3, 4.4, 4.5 - Calculate dashboard statistics
      */
     @Transactional(readOnly = true)
     public StatisticsResponse getStatistics() {
-        List<ItemStockResponse> allItems = getAllItemsWithStock();
-        
-        // Calculate total items count
-        Integer totalItems = allItems.size();
-        
-        // Calculate total inventory value (sum of unit_price × current_stock)
-        BigDecimal totalValue = allItems.stream()
-            .map(item -> {
-                BigDecimal price = item.getUnitPrice() != null ? item.getUnitPrice() : BigDecimal.ZERO;
-                return price.multiply(new BigDecimal(item.getCurrentStock()));
-            })
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        // Calculate low stock items count based on threshold (currentStock < minimumStock)
-        Integer lowStockItems = (int) allItems.stream()
-            .filter(item -> {
-                Integer cs = item.getCurrentStock();
-                Long min = item.getMinimumStock();
-                int threshold = (min != null && min > 0) ? min.intValue() : 10;
-                return cs != null && cs >= 0 && cs < threshold;
-            })
-            .count();
-        
-        // Calculate out of stock items count (0 units)
-        Integer outOfStockItems = (int) allItems.stream()
-            .filter(item -> item.getCurrentStock() == 0)
-            .count();
-        
-        return new StatisticsResponse(totalItems, totalValue, lowStockItems, outOfStockItems);
+        return inventoryStatisticsService.getStatistics();
     }
 }
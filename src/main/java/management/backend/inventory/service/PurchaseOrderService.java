@@ -16,6 +16,7 @@ import management.backend.inventory.repository.SupplierRepository;
 import management.backend.inventory.repository.UserRepository;
 import management.backend.inventory.repository.WarehouseRepository;
 import management.backend.inventory.repository.PurchaseOrderItemRepository;
+import management.backend.inventory.service.DocumentNumberService.DocumentType;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,19 +32,22 @@ public class PurchaseOrderService {
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final PurchaseOrderItemRepository purchaseOrderItemRepository;
+    private final DocumentNumberService documentNumberService;
 
     public PurchaseOrderService(PurchaseOrderRepository purchaseOrderRepository,
                                 SupplierRepository supplierRepository,
                                 WarehouseRepository warehouseRepository,
                                 UserRepository userRepository,
                                 ItemRepository itemRepository,
-                                PurchaseOrderItemRepository purchaseOrderItemRepository) {
+                                PurchaseOrderItemRepository purchaseOrderItemRepository,
+                                DocumentNumberService documentNumberService) {
         this.purchaseOrderRepository = purchaseOrderRepository;
         this.supplierRepository = supplierRepository;
         this.warehouseRepository = warehouseRepository;
         this.userRepository = userRepository;
         this.itemRepository = itemRepository;
         this.purchaseOrderItemRepository = purchaseOrderItemRepository;
+        this.documentNumberService = documentNumberService;
     }
 
     @Transactional(readOnly = true)
@@ -78,9 +82,7 @@ public class PurchaseOrderService {
         po.setNotes(request.getNotes());
         po.setCreatedBy(currentUser);
         po.setStatus(PurchaseOrderStatus.DRAFT);
-        po = purchaseOrderRepository.save(po);
-        String code = String.format("PO-%s-%d", po.getOrderDate().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd")), po.getPurchaseOrderId());
-        po.setPurchaseOrderCode(code);
+        po.setPurchaseOrderCode(documentNumberService.next(DocumentType.PURCHASE_ORDER, po.getOrderDate()));
         return purchaseOrderRepository.save(po);
     }
     
@@ -0,0 +1,391 @@
+package management.backend.inventory.service;
+
+import management.backend.inventory.config.AppProperties;
+import management.backend.inventory.entity.MovementType;
+import management.backend.inventory.entity.StockMovement;
+import management.backend.inventory.event.StockMovementsChangedEvent;
+import management.backend.inventory.repository.StockJdbcRepository;
+import management.backend.inventory.util.LongBalanceMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional in-memory stock ledger (app.ledger.enabled).
+ * At startup the last checkpoint is loaded and movements after its high-water mark are
+ * replayed into primitive-keyed maps of item ID to total in/out, split into stripes that
+ * each sit behind a read/write lock; committed movements are then applied as they arrive. Movements committed while a replay runs are buffered and applied
+ * once it finishes, on top of the replayed state. Checkpoints are written periodically so
+ * restarts replay only the tail.
+ * <p>
+ * stock_movements stays the source of truth. Because IDs are allocated in pooled blocks and
+ * movements can be deleted, a tail replay can miss changes; the result is therefore checked
+ * against item_stock_totals and rebuilt by a full replay when they disagree. At each
+ * checkpoint every item is compared with a snapshot of item_stock_totals, net of the
+ * movements applied since the snapshot was taken, and corrected when they differ; this also
+ * picks up movements written by other instances.
+ * Until loading completes, {@link #find(Long)} returns null and callers read the database.
+ */
+@Service
+public class StockLedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedgerService.class);
+
+    private static final int CHECKPOINT_MAGIC = 0x534C4731; // "SLG1"
+
+    private static final int STRIPE_BITS = 6;
+
+    /**
+     * Totals for one item.
+     */
+    public record Balance(long totalIn, long totalOut) {
+        public long currentStock() {
+            return totalIn - totalOut;
+        }
+    }
+
+    private static final Balance ZERO = new Balance(0, 0);
+
+    private final StockJdbcRepository stockJdbcRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AppProperties.Ledger properties;
+
+    // Readers take only their stripe's read lock; all writes also hold this service's monitor
+    private final LongBalanceMap[] stripes = new LongBalanceMap[1 << STRIPE_BITS];
+    private final ReadWriteLock[] stripeLocks = new ReadWriteLock[1 << STRIPE_BITS];
+    private long highWaterMark;
+    // Events committed during a replay, applied when it finishes; null when not replaying
+    private List<StockMovementsChangedEvent> buffered;
+    // Movements applied since the current reconcile snapshot; null when not reconciling
+    private LongBalanceMap sinceSnapshot;
+    private boolean live;
+    private volatile boolean ready;
+
+    public StockLedgerService(StockJdbcRepository stockJdbcRepository, PlatformTransactionManager transactionManager,
+                              AppProperties appProperties) {
+        this.stockJdbcRepository = stockJdbcRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = appProperties.getLedger();
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new LongBalanceMap(64);
+            stripeLocks[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    /**
+     * Get an item's totals from memory.
+     *
+     * @return the totals (zero for items without movements), or null when the ledger is not serving reads
+     */
+    public Balance find(Long itemId) {
+        if (!ready || itemId == null) return null;
+        return balance(itemId);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!properties.isEnabled()) return;
+        load();
+    }
+
+    /**
+     * Load the checkpoint, replay the tail and verify; falls back to a full replay on mismatch.
+     */
+    public void load() {
+        long started = System.currentTimeMillis();
+        boolean fromCheckpoint;
+        synchronized (this) {
+            live = false;
+            fromCheckpoint = readCheckpoint();
+        }
+        int replayed = replayFrom(highWaterMark);
+        int mismatched = verify();
+        if (mismatched > 0 && fromCheckpoint) {
+            log.warn("Stock ledger checkpoint disagrees with item_stock_totals for {} items; replaying full history", mismatched);
+            synchronized (this) {
+                live = false;
+                clearBalances();
+                highWaterMark = 0;
+            }
+            replayed = replayFrom(0);
+            mismatched = verify();
+        }
+        if (mismatched > 0) {
+            // Usually movements committed while replaying; anything persistent is fixed by reconcile()
+            log.info("Stock ledger differs from item_stock_totals for {} items after replay", mismatched);
+        }
+        ready = true;
+        log.info("Stock ledger ready: {} items, {} movements replayed{} in {} ms", balanceCount(), replayed,
+            fromCheckpoint ? " after checkpoint" : "", System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public synchronized void onStockMovementsChanged(StockMovementsChangedEvent event) {
+        if (buffered != null) {
+            buffered.add(event);
+        } else if (live) {
+            applyEvent(event);
+        }
+    }
+
+    private void applyEvent(StockMovementsChangedEvent event) {
+        long sign = event.isRemoved() ? -1 : 1;
+        for (StockMovement m : event.getMovements()) {
+            long quantity = sign * m.getQuantity();
+            apply(m.getItem().getItemId(), m.getMovementType(), quantity);
+            if (sinceSnapshot != null) {
+                record(sinceSnapshot, m.getItem().getItemId(), m.getMovementType(), quantity);
+            }
+            if (!event.isRemoved() && m.getStockMovementId() != null) {
+                highWaterMark = Math.max(highWaterMark, m.getStockMovementId());
+            }
+        }
+    }
+
+    /**
+     * Reconcile with item_stock_totals, then write a checkpoint of the current balances.
+     */
+    @Scheduled(fixedDelayString = "${app.ledger.checkpoint-interval:PT10M}",
+               initialDelayString = "${app.ledger.checkpoint-interval:PT10M}")
+    public void checkpoint() {
+        if (!ready) return;
+        int corrected = reconcile();
+        if (corrected > 0) {
+            log.warn("Stock ledger drift corrected for {} items", corrected);
+        }
+        Path path = Paths.get(properties.getCheckpointPath());
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            if (path.getParent() != null) Files.createDirectories(path.getParent());
+            synchronized (this) {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                    out.writeInt(CHECKPOINT_MAGIC);
+                    out.writeLong(highWaterMark);
+                    out.writeInt(balanceCount());
+                    for (LongBalanceMap stripe : stripes) {
+                        stripe.forEach((itemId, in, outTotal) -> {
+                            try {
+                                out.writeLong(itemId);
+                                out.writeLong(in);
+                                out.writeLong(outTotal);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+                    }
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Failed to write stock ledger checkpoint to {}", path, e);
+        }
+    }
+
+    private boolean readCheckpoint() {
+        Path path = Paths.get(properties.getCheckpointPath());
+        clearBalances();
+        highWaterMark = 0;
+        if (!Files.isRegularFile(path)) return false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != CHECKPOINT_MAGIC) {
+                log.warn("Ignoring stock ledger checkpoint {} with unknown format", path);
+                return false;
+            }
+            long mark = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                put(in.readLong(), in.readLong(), in.readLong());
+            }
+            highWaterMark = mark;
+            return true;
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable stock ledger checkpoint {}", path, e);
+            clearBalances();
+            return false;
+        }
+    }
+
+    /**
+     * Replay movements after an ID. Events committed before the replay starts are part of
+     * what it reads, so only those arriving from then on are buffered and applied after it.
+     */
+    private int replayFrom(long afterId) {
+        synchronized (this) {
+            buffered = new ArrayList<>();
+        }
+        AtomicInteger count = new AtomicInteger();
+        LongBalanceMap replayed = new LongBalanceMap();
+        long[] mark = {afterId};
+        try {
+            readOnlyTransaction.executeWithoutResult(status ->
+                stockJdbcRepository.replayMovements(afterId, properties.getReplayFetchSize(), (movementId, itemId, type, quantity) -> {
+                    record(replayed, itemId, type, quantity);
+                    mark[0] = Math.max(mark[0], movementId);
+                    count.incrementAndGet();
+                }));
+            synchronized (this) {
+                replayed.forEach(this::add);
+                highWaterMark = Math.max(highWaterMark, mark[0]);
+                buffered.forEach(this::applyEvent);
+                live = true;
+            }
+        } finally {
+            synchronized (this) {
+                buffered = null;
+            }
+        }
+        return count.get();
+    }
+
+    /**
+     * Correct items that differ from item_stock_totals. The totals are read in one statement,
+     * a snapshot; movements applied from just before it was taken are tracked, so each item
+     * is compared as of the snapshot however busy it is, and corrected to the snapshot plus
+     * those movements.
+     *
+     * @return number of items corrected
+     */
+    int reconcile() {
+        synchronized (this) {
+            sinceSnapshot = new LongBalanceMap();
+        }
+        LongBalanceMap totals = new LongBalanceMap();
+        int corrected = 0;
+        try {
+            stockJdbcRepository.forEachItemStockTotal(totals::put);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                sinceSnapshot = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            LongBalanceMap since = sinceSnapshot;
+            sinceSnapshot = null;
+            int[] count = {0};
+            totals.forEach((itemId, in, out) -> {
+                long sinceIn = since.getIn(itemId);
+                long sinceOut = since.getOut(itemId);
+                Balance current = balance(itemId);
+                if (current.totalIn() - sinceIn != in || current.totalOut() - sinceOut != out) {
+                    put(itemId, in + sinceIn, out + sinceOut);
+                    count[0]++;
+                }
+            });
+            corrected = count[0];
+        }
+        return corrected;
+    }
+
+    // Count items whose replayed totals differ from item_stock_totals
+    private int verify() {
+        AtomicInteger mismatched = new AtomicInteger();
+        stockJdbcRepository.forEachItemStockTotal((itemId, in, out) -> {
+            Balance current = balance(itemId);
+            if (current.totalIn() != in || current.totalOut() != out) {
+                mismatched.incrementAndGet();
+            }
+        });
+        return mismatched.get();
+    }
+
+    private void apply(long itemId, MovementType type, long quantity) {
+        if (type == MovementType.IN) {
+            add(itemId, quantity, 0);
+        } else if (type == MovementType.OUT) {
+            add(itemId, 0, quantity);
+        }
+    }
+
+    // Fibonacci hash; the top bits pick the stripe so the bits each stripe's map hashes on still vary
+    private static int stripeOf(long itemId) {
+        return (int) ((itemId * 0x9E3779B97F4A7C15L) >>> (64 - STRIPE_BITS));
+    }
+
+    private Balance balance(long itemId) {
+        int s = stripeOf(itemId);
+        stripeLocks[s].readLock().lock();
+        try {
+            LongBalanceMap stripe = stripes[s];
+            return stripe.containsKey(itemId) ? new Balance(stripe.getIn(itemId), stripe.getOut(itemId)) : ZERO;
+        } finally {
+            stripeLocks[s].readLock().unlock();
+        }
+    }
+
+    private void add(long itemId, long in, long out) {
+        int s = stripeOf(itemId);
+        stripeLocks[s].writeLock().lock();
+        try {
+            stripes[s].add(itemId, in, out);
+        } finally {
+            stripeLocks[s].writeLock().unlock();
+        }
+    }
+
+    private void put(long itemId, long in, long out) {
+        int s = stripeOf(itemId);
+        stripeLocks[s].writeLock().lock();
+        try {
+            stripes[s].put(itemId, in, out);
+        } finally {
+            stripeLocks[s].writeLock().unlock();
+        }
+    }
+
+    private void clearBalances() {
+        for (int s = 0; s < stripes.length; s++) {
+            stripeLocks[s].writeLock().lock();
+            try {
+                stripes[s].clear();
+            } finally {
+                stripeLocks[s].writeLock().unlock();
+            }
+        }
+    }
+
+    // Exact while this service's monitor is held, since every write holds it
+    private int balanceCount() {
+        int count = 0;
+        for (LongBalanceMap stripe : stripes) {
+            count += stripe.size();
+        }
+        return count;
+    }
+
+    private static void record(LongBalanceMap totals, long itemId, MovementType type, long quantity) {
+        if (type == MovementType.IN) {
+            totals.add(itemId, quantity, 0);
+        } else if (type == MovementType.OUT) {
+            totals.add(itemId, 0, quantity);
+        }
+    }
+}
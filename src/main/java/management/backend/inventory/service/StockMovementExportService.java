@@ -0,0 +1,136 @@
+package management.backend.inventory.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import management.backend.inventory.dto.StockMovementHistoryFilter;
+import management.backend.inventory.dto.StockMovementHistoryResponse;
+import management.backend.inventory.exception.ValidationException;
+import management.backend.inventory.repository.StockMovementHistoryRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service for streaming stock ledger exports.
+ * Rows flow from a forward-only database cursor straight to the response stream,
+ * so heap use is constant regardless of how many movements are exported.
+ */
+@Service
+public class StockMovementExportService {
+    
+    private static final int FETCH_SIZE = 1000;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "stockMovementId,itemId,itemName,itemSku,movementType,quantity,previousStock,newStock,"
+        + "reason,recipient,notes,referenceNumber,userName,userEmail,createdAt,unitPrice";
+    
+    /**
+     * Supported export formats.
+     */
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+        
+        private final String contentType;
+        private final String extension;
+        
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+        
+        public String getContentType() {
+            return contentType;
+        }
+        
+        public String getExtension() {
+            return extension;
+        }
+        
+        public static Format parse(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new ValidationException("Invalid export format: " + value, "format", "Format must be csv or ndjson");
+            }
+        }
+    }
+    
+    private final StockMovementHistoryRepository stockMovementHistoryRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    
+    public StockMovementExportService(StockMovementHistoryRepository stockMovementHistoryRepository,
+                                      PlatformTransactionManager transactionManager,
+                                      ObjectMapper objectMapper) {
+        this.stockMovementHistoryRepository = stockMovementHistoryRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * Write all movements matching the filter, oldest first, to the given stream.
+     * Runs in its own read-only transaction because the database cursor must stay open
+     * while rows are written; the header is flushed first so the client sees bytes immediately.
+     */
+    public void export(StockMovementHistoryFilter filter, Format format, boolean gzip, OutputStream out) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<StockMovementHistoryResponse> rows = stockMovementHistoryRepository.stream(filter, FETCH_SIZE)) {
+                OutputStream target = gzip ? new GZIPOutputStream(out, WRITE_BUFFER_SIZE, true) : out;
+                Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+                if (format == Format.CSV) {
+                    writer.write(CSV_HEADER);
+                    writer.write('\n');
+                }
+                writer.flush();
+                Iterator<StockMovementHistoryResponse> it = rows.iterator();
+                while (it.hasNext()) {
+                    StockMovementHistoryResponse row = it.next();
+                    if (format == Format.CSV) {
+                        writeCsvRow(writer, row);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(row));
+                        writer.write('\n');
+                    }
+                }
+                writer.flush();
+                if (target instanceof GZIPOutputStream gzipOut) {
+                    gzipOut.finish();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+    
+    private void writeCsvRow(Writer writer, StockMovementHistoryResponse row) throws IOException {
+        Object[] values = {
+            row.getStockMovementId(), row.getItemId(), row.getItemName(), row.getItemSku(), row.getMovementType(),
+            row.getQuantity(), row.getPreviousStock(), row.getNewStock(), row.getReason(), row.getRecipient(),
+            row.getNotes(), row.getReferenceNumber(), row.getUserName(), row.getUserEmail(), row.getCreatedAt(),
+            row.getUnitPrice()
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) writer.write(',');
+            if (values[i] != null) writer.write(csvEscape(values[i].toString()));
+        }
+        writer.write('\n');
+    }
+    
+    private String csvEscape(String value) {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+            || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
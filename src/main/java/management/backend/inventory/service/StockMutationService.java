@@ -0,0 +1,314 @@
+package management.backend.inventory.service;
+
+import management.backend.inventory.entity.Item;
+import management.backend.inventory.entity.StockMovement;
+import management.backend.inventory.event.ItemChangedEvent;
+import management.backend.inventory.event.StockMovementsChangedEvent;
+import management.backend.inventory.repository.ItemRepository;
+import management.backend.inventory.repository.StockJdbcRepository;
+import management.backend.inventory.repository.StockMovementRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Service for atomic changes to items.current_stock and the stock movement ledger.
+ * Every balance change is a single conditional UPDATE that returns the new balance,
+ * so callers never load the Item, compare in Java and save it back.
+ * Movements are written and removed through here so the read models derived from them
+ * (item_stock_totals, item_warehouse_stock, stock_out_reason_daily) stay in step, and a
+ * StockMovementsChangedEvent is published for in-memory listeners.
+ * Writes to hot items go to their stock shards (see StockShardService).
+ */
+@Service
+@Transactional
+public class StockMutationService {
+
+    private final ItemRepository itemRepository;
+    private final StockJdbcRepository stockJdbcRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockShardService stockShardService;
+
+    public StockMutationService(ItemRepository itemRepository, StockJdbcRepository stockJdbcRepository,
+                                StockMovementRepository stockMovementRepository, ApplicationEventPublisher eventPublisher,
+                                StockShardService stockShardService) {
+        this.itemRepository = itemRepository;
+        this.stockJdbcRepository = stockJdbcRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.eventPublisher = eventPublisher;
+        this.stockShardService = stockShardService;
+    }
+
+    /**
+     * Increase stock for an item.
+     *
+     * @return the new balance
+     * @throws IllegalArgumentException when the item does not exist
+     */
+    public Long increaseStock(Long itemId, Long quantity) {
+        validate(itemId, quantity);
+        stockShardService.recordWrite(itemId);
+        if (stockShardService.isSharded(itemId)) {
+            Optional<Long> balance = stockShardService.increase(itemId, quantity);
+            if (balance.isPresent()) return balance.get();
+        }
+        return itemRepository.incrementStock(itemId, quantity)
+            .orElseThrow(() -> new IllegalArgumentException("Item with ID " + itemId + " not found"));
+    }
+
+    /**
+     * Decrease stock for an item when enough stock is available.
+     *
+     * @return the new balance, or empty when the item does not exist or stock is insufficient
+     */
+    public Optional<Long> tryDecreaseStock(Long itemId, Long quantity) {
+        validate(itemId, quantity);
+        stockShardService.recordWrite(itemId);
+        if (stockShardService.isSharded(itemId)) {
+            return stockShardService.tryDecrease(itemId, quantity);
+        }
+        Optional<Long> balance = itemRepository.decrementStockIfAvailable(itemId, quantity);
+        if (balance.isEmpty() && stockShardService.hasShards(itemId)) {
+            // Sharded by another instance since the last evaluation here
+            return stockShardService.tryDecrease(itemId, quantity);
+        }
+        return balance;
+    }
+
+    /**
+     * Current balance of an item, including stock held in its shards.
+     *
+     * @return the balance, or null when the item does not exist
+     */
+    public Long currentStock(Long itemId) {
+        return stockShardService.balance(itemId);
+    }
+
+    /**
+     * Check that a warehouse can supply a quantity of an item that is about to leave it, locking
+     * its balance row until the transaction ends so concurrent withdrawals from the same
+     * warehouse queue here. Call after the item's own balance has been decreased, so locks are
+     * always taken item first, then warehouse; the movement then updates the locked row.
+     * <p>
+     * Stock received without a warehouse (single stock-ins, stock from before warehouses were
+     * tracked) is not attributed to any warehouse and can leave from any of them, so the
+     * item's unattributed stock counts as available too. The warehouse's balance row then
+     * stops at zero and the rest is taken from the unattributed stock.
+     *
+     * @param itemBalance the item's balance after the decrease
+     * @throws IllegalArgumentException when the warehouse and the unattributed stock together hold less than the quantity
+     */
+    public void requireWarehouseStock(Long itemId, Long warehouseId, Long quantity, Long itemBalance) {
+        validate(itemId, quantity);
+        if (warehouseId == null) throw new IllegalArgumentException("Warehouse ID cannot be null");
+        Long stocked = stockJdbcRepository.lockWarehouseStock(itemId, warehouseId);
+        long held = stocked != null ? stocked : 0L;
+        if (held >= quantity) return;
+        long unattributed = itemBalance + quantity - stockJdbcRepository.sumWarehouseStock(itemId);
+        long available = held + Math.max(0L, unattributed);
+        if (available < quantity) {
+            throw new IllegalArgumentException(String.format(
+                "Insufficient stock in warehouse for item %d. Available: %d, requested: %d", itemId, available, quantity));
+        }
+    }
+
+    /**
+     * Increase stock for many items with one set-based update.
+     *
+     * @param quantitiesByItem quantity to add per item ID
+     * @return new balance per item ID
+     * @throws IllegalArgumentException when any item does not exist
+     */
+    public Map<Long, Long> increaseStockBulk(Map<Long, Long> quantitiesByItem) {
+        Map<Long, Long> ordered = new TreeMap<>();
+        quantitiesByItem.forEach((itemId, quantity) -> {
+            validate(itemId, quantity);
+            ordered.put(itemId, quantity);
+        });
+        if (ordered.isEmpty()) return Map.of();
+        Map<Long, Long> balances = stockJdbcRepository.adjustStockBulk(ordered);
+        for (Long itemId : ordered.keySet()) {
+            if (!balances.containsKey(itemId)) {
+                throw new IllegalArgumentException("Item not found: " + itemId);
+            }
+        }
+        return balances;
+    }
+
+    /**
+     * Apply net stock changes, positive or negative, to many items with one set-based update.
+     * Zero changes are skipped.
+     *
+     * @param deltasByItem quantity to add (negative to remove) per item ID
+     * @return new balance per changed item ID
+     * @throws IllegalArgumentException when an item does not exist or would go below zero;
+     *         the surrounding transaction must then be rolled back
+     */
+    public Map<Long, Long> adjustStockBulk(Map<Long, Long> deltasByItem) {
+        Map<Long, Long> ordered = new TreeMap<>();
+        deltasByItem.forEach((itemId, delta) -> {
+            if (itemId == null) throw new IllegalArgumentException("Item ID cannot be null");
+            if (delta != null && delta != 0) ordered.put(itemId, delta);
+        });
+        if (ordered.isEmpty()) return Map.of();
+        // The update checks items.current_stock alone, so fold shards of items losing stock into it first
+        Set<Long> decreasing = new TreeSet<>();
+        ordered.forEach((itemId, delta) -> {
+            if (delta < 0) decreasing.add(itemId);
+        });
+        if (!decreasing.isEmpty()) stockShardService.consolidate(decreasing);
+        Map<Long, Long> balances = stockJdbcRepository.adjustStockBulk(ordered);
+        for (Long itemId : ordered.keySet()) {
+            if (balances.containsKey(itemId)) continue;
+            Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new IllegalArgumentException("Item not found: " + itemId));
+            throw new IllegalArgumentException(String.format(
+                "Insufficient stock for item %s. Available: %d, requested change: %d",
+                item.getName(), item.getCurrentStock(), ordered.get(itemId)));
+        }
+        return balances;
+    }
+
+    /**
+     * Save a stock movement and fold it into the item's stock totals.
+     */
+    public StockMovement recordMovement(StockMovement movement) {
+        stampCategories(List.of(movement));
+        StockMovement saved = stockMovementRepository.save(movement);
+        applyReadModels(List.of(saved), false);
+        return saved;
+    }
+
+    /**
+     * Insert stock movements as one JDBC batch and fold them into stock totals.
+     * Movements must already carry their createdAt value.
+     */
+    public List<StockMovement> recordMovements(List<StockMovement> movements) {
+        stampCategories(movements);
+        stockJdbcRepository.batchInsertMovements(movements);
+        applyReadModels(movements, false);
+        return movements;
+    }
+
+    /**
+     * Save in-place edits to stock movements and fold item, quantity, warehouse and reason
+     * changes into the read models. Movement type must be unchanged. For the read models, a
+     * changed movement is removed as it was and added back as it is now.
+     * Item balances are not touched; callers adjust them separately.
+     *
+     * @param movements edited movements
+     * @param originals {@link #snapshot} of each movement taken before the edit, by movement ID;
+     *                  movements without one are treated as unchanged
+     */
+    public void updateMovements(List<StockMovement> movements, Map<Long, StockMovement> originals) {
+        if (movements.isEmpty()) return;
+        // A movement moved to another item takes that item's category
+        List<StockMovement> moved = new ArrayList<>();
+        for (StockMovement m : movements) {
+            StockMovement original = originals.get(m.getStockMovementId());
+            if (original != null && !original.getItem().getItemId().equals(m.getItem().getItemId())) {
+                m.setCategoryId(null);
+                moved.add(m);
+            }
+        }
+        stampCategories(moved);
+        stockMovementRepository.saveAll(movements);
+        List<StockMovement> before = new ArrayList<>();
+        List<StockMovement> after = new ArrayList<>();
+        for (StockMovement m : movements) {
+            StockMovement original = originals.get(m.getStockMovementId());
+            if (original == null || !changesReadModels(original, m)) continue;
+            before.add(original);
+            after.add(m);
+        }
+        if (after.isEmpty()) return;
+        applyReadModels(before, true);
+        applyReadModels(after, false);
+    }
+
+    /**
+     * Delete stock movements and subtract them from stock totals.
+     * Item balances are not touched; callers restore them separately.
+     */
+    public void removeMovements(List<StockMovement> movements) {
+        if (movements.isEmpty()) return;
+        applyReadModels(movements, true);
+        stockMovementRepository.deleteAll(movements);
+    }
+
+    /**
+     * Reclassify an item's warehouse stock status when its stock levels may have changed.
+     * Runs synchronously inside the publishing transaction, so the status commits with the item.
+     */
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.getItemId() == null) return;
+        // The classification reads the item's levels in SQL, so write pending item changes first
+        itemRepository.flush();
+        stockJdbcRepository.classifyWarehouseStock(event.getItemId());
+    }
+
+    /**
+     * Record on each movement without one the category its item is in now.
+     */
+    private void stampCategories(List<StockMovement> movements) {
+        Set<Long> itemIds = new TreeSet<>();
+        for (StockMovement m : movements) {
+            if (m.getCategoryId() == null) itemIds.add(m.getItem().getItemId());
+        }
+        if (itemIds.isEmpty()) return;
+        Map<Long, Long> categories = stockJdbcRepository.findCategoryIds(itemIds.toArray(new Long[0]));
+        for (StockMovement m : movements) {
+            if (m.getCategoryId() == null) m.setCategoryId(categories.get(m.getItem().getItemId()));
+        }
+    }
+
+    private void applyReadModels(List<StockMovement> movements, boolean removed) {
+        stockJdbcRepository.applyMovementTotals(movements, removed);
+        stockJdbcRepository.applyWarehouseStock(movements, removed);
+        stockJdbcRepository.applyStockOutReasonRollup(movements, removed);
+        eventPublisher.publishEvent(new StockMovementsChangedEvent(movements, removed));
+    }
+
+    /**
+     * Detached copy of a movement carrying the fields the read models use, to pass to
+     * {@link #updateMovements} as the state before an edit.
+     */
+    public static StockMovement snapshot(StockMovement m) {
+        StockMovement copy = new StockMovement(m.getItem(), m.getUser(), m.getMovementType(), m.getQuantity(),
+            m.getPreviousStock(), m.getNewStock());
+        copy.setStockMovementId(m.getStockMovementId());
+        copy.setWarehouse(m.getWarehouse());
+        copy.setReasonType(m.getReasonType());
+        copy.setCategoryId(m.getCategoryId());
+        copy.setCreatedAt(m.getCreatedAt());
+        return copy;
+    }
+
+    private static boolean changesReadModels(StockMovement original, StockMovement edited) {
+        return !original.getQuantity().equals(edited.getQuantity())
+            || !original.getItem().getItemId().equals(edited.getItem().getItemId())
+            || !Objects.equals(warehouseIdOf(original), warehouseIdOf(edited))
+            || original.getReasonType() != edited.getReasonType();
+    }
+
+    private static Long warehouseIdOf(StockMovement m) {
+        return m.getWarehouse() != null ? m.getWarehouse().getWarehouseId() : null;
+    }
+
+    private void validate(Long itemId, Long quantity) {
+        if (itemId == null) throw new IllegalArgumentException("Item ID cannot be null");
+        if (quantity == null || quantity <= 0) throw new IllegalArgumentException("Quantity must be positive");
+    }
+}
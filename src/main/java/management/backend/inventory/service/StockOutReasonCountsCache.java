@@ -0,0 +1,64 @@
+package management.backend.inventory.service;
+
+import management.backend.inventory.config.AppProperties;
+import management.backend.inventory.entity.MovementType;
+import management.backend.inventory.event.StockMovementsChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * In-memory cache of all-time stock-out counts per reason type.
+ * Invalidated after any transaction on this instance that records or deletes a stock-out
+ * movement commits. Stock-outs recorded by other instances are not seen until the entry
+ * expires, app.reason-counts.ttl after it was loaded.
+ */
+@Component
+public class StockOutReasonCountsCache {
+    
+    private final AppProperties.ReasonCounts properties;
+    private Map<String, Integer> counts;
+    private long loadedAt;
+    private long version;
+    
+    public StockOutReasonCountsCache(AppProperties appProperties) {
+        this.properties = appProperties.getReasonCounts();
+    }
+    
+    /**
+     * Return the cached counts, loading them when the cache is empty or expired.
+     * A load that overlaps an invalidation is returned but not cached.
+     */
+    public Map<String, Integer> get(Supplier<Map<String, Integer>> loader) {
+        long loadVersion;
+        synchronized (this) {
+            if (counts != null && System.nanoTime() - loadedAt < properties.getTtl().toNanos()) return counts;
+            counts = null;
+            loadVersion = version;
+        }
+        long startedAt = System.nanoTime();
+        Map<String, Integer> loaded = Map.copyOf(loader.get());
+        synchronized (this) {
+            if (version == loadVersion) {
+                counts = loaded;
+                loadedAt = startedAt;
+            }
+        }
+        return loaded;
+    }
+    
+    public synchronized void invalidate() {
+        version++;
+        counts = null;
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onStockMovementsChanged(StockMovementsChangedEvent event) {
+        if (event.containsType(MovementType.OUT)) {
+            invalidate();
+        }
+    }
+}
@@ -3,18 +3,18 @@ package management.backend.inventory.service;
 import management.backend.inventory.dto.StockOutReasonResponse;
 import management.backend.inventory.entity.StockOutReasonEnum;
 import management.backend.inventory.repository.StockMovementRepository;
+import management.backend.inventory.repository.StockOutReasonDailyRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 /**
  * Service for stock-out reason management and reporting.
  * Provides methods to track, analyze, and report on stock-out reasons.
+ * Breakdowns are answered from the stock_out_reason_daily rollup rather than raw movements.
  * 
  * Requirements: SaaS Features - Stock-out reasons tracking and reporting
  */
@@ -22,10 +22,12 @@ import java.util.stream.Collectors;
 @Transactional
 public class StockOutReasonService {
     
-    private final StockMovementRepository stockMovementRepository;
+    private final StockOutReasonDailyRepository stockOutReasonDailyRepository;
+    private final StockOutReasonCountsCache reasonCountsCache;
     
-    public StockOutReasonService(StockMovementRepository stockMovementRepository) {
-        this.stockMovementRepository = stockMovementRepository;
+    public StockOutReasonService(StockOutReasonDailyRepository stockOutReasonDailyRepository, StockOutReasonCountsCache reasonCountsCache) {
+        this.stockOutReasonDailyRepository = stockOutReasonDailyRepository;
+        this.reasonCountsCache = reasonCountsCache;
     }
     
     /**
@@ -56,12 +58,9 @@ public class StockOutReasonService {
      */
     @Transactional(readOnly = true)
     public List<StockOutReasonResponse> getReasonBreakdown(LocalDate startDate, LocalDate endDate) {
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = endDate.atTime(LocalTime.MAX);
-        
-        // Get all stock-out movements for the date range
-        List<StockMovementRepository.ReasonBreakdownProjection> projections = stockMovementRepository
-            .getReasonBreakdown(startDateTime, endDateTime);
+        // Aggregate the daily rollup rows for the date range
+        List<StockMovementRepository.ReasonBreakdownProjection> projections = stockOutReasonDailyRepository
+            .getReasonBreakdown(startDate, endDate);
         
         List<StockOutReasonResponse> reasonCounts = projections.stream()
             .map(p -> new StockOutReasonResponse(
@@ -97,11 +96,8 @@ public class StockOutReasonService {
      */
     @Transactional(readOnly = true)
     public List<StockOutReasonResponse> getReasonBreakdownByItem(Long itemId, LocalDate startDate, LocalDate endDate) {
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = endDate.atTime(LocalTime.MAX);
-        
-        List<StockMovementRepository.ReasonBreakdownProjection> projections = stockMovementRepository
-            .getReasonBreakdownByItem(itemId, startDateTime, endDateTime);
+        List<StockMovementRepository.ReasonBreakdownProjection> projections = stockOutReasonDailyRepository
+            .getReasonBreakdownByItem(itemId, startDate, endDate);
         
         List<StockOutReasonResponse> reasonCounts = projections.stream()
             .map(p -> new StockOutReasonResponse(
@@ -137,11 +133,8 @@ public class StockOutReasonService {
      */
     @Transactional(readOnly = true)
     public List<StockOutReasonResponse> getReasonBreakdownByCategory(Long categoryId, LocalDate startDate, LocalDate endDate) {
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = endDate.atTime(LocalTime.MAX);
-        
-        List<StockMovementRepository.ReasonBreakdownProjection> projections = stockMovementRepository
-            .getReasonBreakdownByCategory(categoryId, startDateTime, endDateTime);
+        List<StockMovementRepository.ReasonBreakdownProjection> projections = stockOutReasonDailyRepository
+            .getReasonBreakdownByCategory(categoryId, startDate, endDate);
         
         List<StockOutReasonResponse> reasonCounts = projections.stream()
             .map(p -> new StockOutReasonResponse(
@@ -169,16 +162,26 @@ public class StockOutReasonService {
     
     /**
      * Get all reason counts across all time.
+     * Served from an in-memory cache that is invalidated when stock-outs change.
      * 
      * @return map of reason type to count
      */
     @Transactional(readOnly = true)
     public Map<String, Integer> getReasonCounts() {
+        return new HashMap<>(reasonCountsCache.get(this::loadReasonCounts));
+    }
+    
+    private Map<String, Integer> loadReasonCounts() {
         Map<String, Integer> counts = new HashMap<>();
-        
         for (StockOutReasonEnum reason : StockOutReasonEnum.values()) {
-            Integer count = stockMovementRepository.countByReasonType(reason.name());
-            counts.put(reason.name(), count != null ? count : 0);
+            counts.put(reason.name(), 0);
+        }
+        
+        // One grouped aggregate for all reason types
+        for (StockMovementRepository.ReasonBreakdownProjection p : stockOutReasonDailyRepository.getReasonCounts()) {
+            if (p.getReasonType() != null && counts.containsKey(p.getReasonType()) && p.getCount() != null) {
+                counts.put(p.getReasonType(), p.getCount());
+            }
         }
         
         return counts;
@@ -244,7 +247,7 @@ public class StockOutReasonService {
      */
     @Transactional(readOnly = true)
     public List<StockOutReasonResponse> getTopReasons(int limit) {
-        List<StockMovementRepository.ReasonBreakdownProjection> projections = stockMovementRepository.getTopReasons(limit);
+        List<StockMovementRepository.ReasonBreakdownProjection> projections = stockOutReasonDailyRepository.getTopReasons(limit);
         
         List<StockOutReasonResponse> allReasons = projections.stream()
             .map(p -> new StockOutReasonResponse(
@@ -11,6 +11,7 @@ import management.backend.inventory.repository.StockMovementRepository;
 import management.backend.inventory.repository.StockOutRepository;
 import management.backend.inventory.repository.UserRepository;
 import management.backend.inventory.repository.WarehouseRepository;
+import management.backend.inventory.service.DocumentNumberService.DocumentType;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,7 +19,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,16 +32,21 @@ public class StockOutService {
     private final EmployeeRepository employeeRepository;
     private final StockMovementRepository stockMovementRepository;
     private final UserRepository userRepository;
+    private final StockMutationService stockMutationService;
+    private final DocumentNumberService documentNumberService;
 
     public StockOutService(StockOutRepository stockOutRepository, ItemRepository itemRepository,
                            WarehouseRepository warehouseRepository, EmployeeRepository employeeRepository,
-                           StockMovementRepository stockMovementRepository, UserRepository userRepository) {
+                           StockMovementRepository stockMovementRepository, UserRepository userRepository,
+                           StockMutationService stockMutationService, DocumentNumberService documentNumberService) {
         this.stockOutRepository = stockOutRepository;
         this.itemRepository = itemRepository;
         this.warehouseRepository = warehouseRepository;
         this.employeeRepository = employeeRepository;
         this.stockMovementRepository = stockMovementRepository;
         this.userRepository = userRepository;
+        this.stockMutationService = stockMutationService;
+        this.documentNumberService = documentNumberService;
     }
 
     private User resolveCurrentUser() {
@@ -55,6 +61,20 @@ public class StockOutService {
         }
     }
 
+    /**
+     * Build the error for a rejected stock-out. Only runs on the failure path,
+     * so successful stock-outs never load the item.
+     * The format receives the item name and the currently available stock, including
+     * stock held in the item's shards.
+     */
+    private RuntimeException insufficientStock(Long itemId, String format) {
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new RuntimeException("Item not found: " + itemId));
+        Long available = stockMutationService.currentStock(itemId);
+        return new RuntimeException(String.format(format, item.getName(),
+                available != null ? available : item.getCurrentStock()));
+    }
+
     private StockOutReasonEnum mapToReasonEnum(StockOutType type) {
         if (type == null) return null;
         try {
@@ -65,7 +85,7 @@ public class StockOutService {
     }
 
     public List<StockOutResponse> createStockOutBatch(CreateStockOutBatchRequest request) {
-        String referenceNumber = "OUT-" + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        String referenceNumber = documentNumberService.next(DocumentType.STOCK_OUT);
         List<StockOut> stockOuts = new ArrayList<>();
         User currentUser = resolveCurrentUser();
 
@@ -90,19 +110,17 @@ public class StockOutService {
         }
 
         for (StockOutItemRequest itemRequest : request.getItems()) {
-            Item item = itemRepository.findById(itemRequest.getItemId())
-                    .orElseThrow(() -> new RuntimeException("Item not found: " + itemRequest.getItemId()));
-
-            if (item.getCurrentStock() < itemRequest.getQuantity()) {
-                throw new RuntimeException("Insufficient stock for item " + item.getName() + ". Available: " + item.getCurrentStock());
+            Long itemId = itemRequest.getItemId();
+            long quantity = itemRequest.getQuantity();
+
+            // Check availability and deduct stock in one conditional update
+            Long newStock = stockMutationService.tryDecreaseStock(itemId, quantity)
+                    .orElseThrow(() -> insufficientStock(itemId, "Insufficient stock for item %s. Available: %d"));
+            if (sourceWarehouse != null) {
+                stockMutationService.requireWarehouseStock(itemId, sourceWarehouse.getWarehouseId(), quantity, newStock);
             }
-
-            Long previousStock = item.getCurrentStock();
-            Long newStock = previousStock - itemRequest.getQuantity();
-
-            // Deduct stock
-            item.setCurrentStock(newStock);
-            itemRepository.save(item);
+            Long previousStock = newStock + quantity;
+            Item item = itemRepository.getReferenceById(itemId);
 
             // Create StockMovement
             StockMovement movement = new StockMovement(
@@ -118,16 +136,9 @@ public class StockOutService {
             movement.setReasonType(mapToReasonEnum(request.getStockOutType()));
             movement.setReason(request.getStockOutType().name());
             movement.setWarehouse(sourceWarehouse); // The source warehouse
+            movement.setRecipient(recipientOf(request.getStockOutType(), branch, employee));
             
-            if (branch != null) {
-                movement.setRecipient("Branch: " + branch.getName());
-            } else if (employee != null) {
-                movement.setRecipient("Employee: " + employee.getName());
-            } else {
-                movement.setRecipient(request.getStockOutType().name());
-            }
-            
-            stockMovementRepository.save(movement);
+            StockMovement saved = stockMutationService.recordMovement(movement);
 
             StockOut stockOut = StockOut.builder()
                     .stockOutType(request.getStockOutType())
@@ -139,6 +150,7 @@ public class StockOutService {
                     .branch(branch)
                     .employee(employee)
                     .referenceNumber(referenceNumber)
+                    .stockMovementId(saved.getStockMovementId())
                     .build();
 
             stockOuts.add(stockOutRepository.save(stockOut));
@@ -151,14 +163,8 @@ public class StockOutService {
     public StockOutResponse createStockOut(CreateStockOutRequest request) {
         Long itemId = request.getItemId();
         if (itemId == null) throw new IllegalArgumentException("Item ID cannot be null");
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new RuntimeException("Item not found"));
         User currentUser = resolveCurrentUser();
 
-        if (item.getCurrentStock() < request.getQuantity()) {
-            throw new RuntimeException("Insufficient stock. Available: " + item.getCurrentStock());
-        }
-        
         Warehouse sourceWarehouse = null;
         if (request.getSourceWarehouseId() != null) {
             sourceWarehouse = warehouseRepository.findById(request.getSourceWarehouseId())
@@ -181,12 +187,15 @@ public class StockOutService {
              }
         }
 
-        Long previousStock = item.getCurrentStock();
-        Long newStock = previousStock - request.getQuantity();
-
-        // Deduct stock
-        item.setCurrentStock(newStock);
-        itemRepository.save(item);
+        // Check availability and deduct stock in one conditional update
+        long quantity = request.getQuantity();
+        Long newStock = stockMutationService.tryDecreaseStock(itemId, quantity)
+                .orElseThrow(() -> insufficientStock(itemId, "Insufficient stock. Available: %2$d"));
+        if (sourceWarehouse != null) {
+            stockMutationService.requireWarehouseStock(itemId, sourceWarehouse.getWarehouseId(), quantity, newStock);
+        }
+        Long previousStock = newStock + quantity;
+        Item item = itemRepository.getReferenceById(itemId);
 
         // Create StockMovement
         StockMovement movement = new StockMovement(
@@ -201,16 +210,9 @@ public class StockOutService {
         movement.setReasonType(mapToReasonEnum(request.getStockOutType()));
         movement.setReason(request.getStockOutType().name());
         movement.setWarehouse(sourceWarehouse);
+        movement.setRecipient(recipientOf(request.getStockOutType(), branch, employee));
         
-        if (branch != null) {
-            movement.setRecipient("Branch: " + branch.getName());
-        } else if (employee != null) {
-            movement.setRecipient("Employee: " + employee.getName());
-        } else {
-            movement.setRecipient(request.getStockOutType().name());
-        }
-        
-        stockMovementRepository.save(movement);
+        StockMovement saved = stockMutationService.recordMovement(movement);
 
         StockOut stockOut = StockOut.builder()
                 .stockOutType(request.getStockOutType())
@@ -221,6 +223,7 @@ public class StockOutService {
                 .sourceWarehouse(sourceWarehouse)
                 .branch(branch)
                 .employee(employee)
+                .stockMovementId(saved.getStockMovementId())
                 .build();
 
         var savedStockOut = stockOutRepository.save(stockOut);
@@ -229,55 +232,58 @@ public class StockOutService {
         return mapToResponse(savedStockOut);
     }
     
-    // updateStockOut method remains mostly the same but should handle branch/employee updates if needed.
-    // For now, I'll assume updates are just quantity/note/date/type. 
-    // If type changes to BRANCH_TRANSFER, we might need branchId.
-    // I will leave updateStockOut as is for now or update it minimally.
-    // The user asked for "add stock out" page update mostly.
-
+    /**
+     * Update a stock-out and the OUT movement it was recorded with.
+     * The item balance changes by the net difference, or moves between both items when the
+     * item changes; item rows are locked in ID order, then the source warehouse's row, which
+     * must be able to supply any extra quantity. The movement is edited in place, so the read
+     * models derived from it follow the edit.
+     */
     public StockOutResponse updateStockOut(Long id, CreateStockOutRequest request) {
         if (id == null) throw new IllegalArgumentException("ID cannot be null");
         StockOut stockOut = stockOutRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Stock out not found"));
+        Long itemId = request.getItemId();
+        if (itemId == null) throw new IllegalArgumentException("Item ID cannot be null");
 
-        Item item = stockOut.getItem(); 
-        
-        if (!item.getItemId().equals(request.getItemId())) {
-            // Restore stock to old item
-            item.setCurrentStock(item.getCurrentStock() + stockOut.getQuantity());
-            itemRepository.save(item);
-
-            // Get new item
-            Long itemId = request.getItemId();
-            if (itemId == null) throw new IllegalArgumentException("Item ID cannot be null");
-            item = itemRepository.findById(itemId)
-                    .orElseThrow(() -> new RuntimeException("Item not found"));
-            
-            // Check availability on new item
-            if (item.getCurrentStock() < request.getQuantity()) {
-                throw new RuntimeException("Insufficient stock on new item. Available: " + item.getCurrentStock());
+        Long currentItemId = stockOut.getItem().getItemId();
+        long currentQuantity = stockOut.getQuantity();
+        long quantity = request.getQuantity();
+        Warehouse sourceWarehouse = stockOut.getSourceWarehouse();
+        StockMovement movement = findMovement(stockOut);
+        User currentUser = movement == null ? resolveCurrentUser() : null;
+
+        // Item balance after the edit, or null when it did not change
+        Long newStock = null;
+        if (!currentItemId.equals(itemId)) {
+            Long restoredStock;
+            if (currentItemId < itemId) {
+                restoredStock = stockMutationService.increaseStock(currentItemId, currentQuantity);
+                newStock = decreaseStock(itemId, quantity, "Insufficient stock on new item. Available: %2$d");
+            } else {
+                newStock = decreaseStock(itemId, quantity, "Insufficient stock on new item. Available: %2$d");
+                restoredStock = stockMutationService.increaseStock(currentItemId, currentQuantity);
             }
-            
-            // Deduct from new item
-            item.setCurrentStock(item.getCurrentStock() - request.getQuantity());
-            stockOut.setItem(item);
-        } else {
-            // Same item, adjust difference
-            int diff = request.getQuantity() - stockOut.getQuantity();
-            
-            if (diff > 0) {
-                // Trying to remove more
-                if (item.getCurrentStock() < diff) {
-                    throw new RuntimeException("Insufficient stock. Available: " + item.getCurrentStock());
-                }
-                item.setCurrentStock(item.getCurrentStock() - diff);
-            } else if (diff < 0) {
-                // Trying to remove less (restore some)
-                item.setCurrentStock(item.getCurrentStock() + Math.abs(diff));
+            if (sourceWarehouse != null) {
+                stockMutationService.requireWarehouseStock(itemId, sourceWarehouse.getWarehouseId(), quantity, newStock);
             }
+            if (movement == null) {
+                recordCorrection(stockOut, currentItemId, MovementType.IN, currentQuantity, restoredStock, currentUser);
+                recordCorrection(stockOut, itemId, MovementType.OUT, quantity, newStock, currentUser);
+            }
+            stockOut.setItem(itemRepository.getReferenceById(itemId));
+        } else if (quantity > currentQuantity) {
+            long diff = quantity - currentQuantity;
+            newStock = decreaseStock(itemId, diff, "Insufficient stock. Available: %2$d");
+            if (sourceWarehouse != null) {
+                stockMutationService.requireWarehouseStock(itemId, sourceWarehouse.getWarehouseId(), diff, newStock);
+            }
+            if (movement == null) recordCorrection(stockOut, itemId, MovementType.OUT, diff, newStock, currentUser);
+        } else if (quantity < currentQuantity) {
+            long diff = currentQuantity - quantity;
+            newStock = stockMutationService.increaseStock(itemId, diff);
+            if (movement == null) recordCorrection(stockOut, itemId, MovementType.IN, diff, newStock, currentUser);
         }
-        
-        itemRepository.save(item);
 
         stockOut.setStockOutType(request.getStockOutType());
         stockOut.setQuantity(request.getQuantity());
@@ -299,6 +305,21 @@ public class StockOutService {
             stockOut.setEmployee(null);
         }
 
+        if (movement != null) {
+            StockMovement original = StockMutationService.snapshot(movement);
+            movement.setItem(stockOut.getItem());
+            movement.setQuantity(quantity);
+            if (newStock != null) {
+                movement.setPreviousStock(newStock + quantity);
+                movement.setNewStock(newStock);
+            }
+            movement.setNotes(request.getNote());
+            movement.setReasonType(mapToReasonEnum(request.getStockOutType()));
+            movement.setReason(request.getStockOutType().name());
+            movement.setRecipient(recipientOf(request.getStockOutType(), stockOut.getBranch(), stockOut.getEmployee()));
+            stockMutationService.updateMovements(List.of(movement), Map.of(movement.getStockMovementId(), original));
+        }
+
         StockOut updatedStockOut = stockOutRepository.save(stockOut);
         return mapToResponse(updatedStockOut);
     }
@@ -309,18 +330,15 @@ public class StockOutService {
                 .orElseThrow(() -> new RuntimeException("Stock out not found"));
 
         // 1. Restore stock to item
-        Item item = stockOut.getItem();
-        item.setCurrentStock(item.getCurrentStock() + stockOut.getQuantity());
-        itemRepository.save(item);
-
-        // 2. Find and delete associated StockMovement
-        // We use reference number and item ID to match
-        if (stockOut.getReferenceNumber() != null) {
-            List<StockMovement> movements = stockMovementRepository.findByReferenceNumber(stockOut.getReferenceNumber());
-            movements.stream()
-                    .filter(m -> m.getItem().getItemId().equals(item.getItemId()))
-                    .findFirst() // If multiple matches (rare), just delete one
-                    .ifPresent(stockMovementRepository::delete);
+        Long itemId = stockOut.getItem().getItemId();
+        Long newStock = stockMutationService.increaseStock(itemId, (long) stockOut.getQuantity());
+
+        // 2. Delete the associated StockMovement, or record the restore when there is none
+        StockMovement movement = findMovement(stockOut);
+        if (movement != null) {
+            stockMutationService.removeMovements(List.of(movement));
+        } else {
+            recordCorrection(stockOut, itemId, MovementType.IN, stockOut.getQuantity(), newStock, resolveCurrentUser());
         }
 
         // 3. Delete the stock out record
@@ -340,6 +358,56 @@ public class StockOutService {
         return mapToResponse(stockOut);
     }
 
+    /**
+     * Decrease an item's stock, or fail with the item's available stock in the message.
+     *
+     * @return the new balance
+     */
+    private Long decreaseStock(Long itemId, long quantity, String format) {
+        return stockMutationService.tryDecreaseStock(itemId, quantity)
+                .orElseThrow(() -> insufficientStock(itemId, format));
+    }
+
+    /**
+     * The movement a stock-out was recorded with. Stock-outs recorded before movements were
+     * linked are matched by reference number and item.
+     */
+    private StockMovement findMovement(StockOut stockOut) {
+        if (stockOut.getStockMovementId() != null) {
+            return stockMovementRepository.findById(stockOut.getStockMovementId()).orElse(null);
+        }
+        if (stockOut.getReferenceNumber() == null) return null;
+        Long itemId = stockOut.getItem().getItemId();
+        return stockMovementRepository.findByReferenceNumber(stockOut.getReferenceNumber()).stream()
+                .filter(m -> m.getMovementType() == MovementType.OUT && m.getItem().getItemId().equals(itemId))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Record a balance change to a stock-out that has no movement of its own, so the ledger
+     * still moves with items.current_stock.
+     *
+     * @param newStock the item's balance after the change
+     */
+    private void recordCorrection(StockOut stockOut, Long itemId, MovementType type, long quantity, Long newStock, User user) {
+        Long previousStock = type == MovementType.OUT ? newStock + quantity : newStock - quantity;
+        StockMovement correction = new StockMovement(itemRepository.getReferenceById(itemId), user, type, quantity,
+                previousStock, newStock);
+        correction.setReferenceNumber(stockOut.getReferenceNumber());
+        correction.setNotes("Correction for stock out " + stockOut.getId());
+        correction.setReasonType(type == MovementType.OUT ? mapToReasonEnum(stockOut.getStockOutType()) : null);
+        correction.setReason(stockOut.getStockOutType() != null ? stockOut.getStockOutType().name() : null);
+        correction.setWarehouse(stockOut.getSourceWarehouse());
+        stockMutationService.recordMovement(correction);
+    }
+
+    private String recipientOf(StockOutType type, Warehouse branch, Employee employee) {
+        if (branch != null) return "Branch: " + branch.getName();
+        if (employee != null) return "Employee: " + employee.getName();
+        return type.name();
+    }
+
     private StockOutResponse mapToResponse(StockOut stockOut) {
         return StockOutResponse.builder()
                 .id(stockOut.getId())
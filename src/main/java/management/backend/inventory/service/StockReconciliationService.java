@@ -0,0 +1,183 @@
+package management.backend.inventory.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import management.backend.inventory.config.AppProperties;
+import management.backend.inventory.repository.StockJdbcRepository;
+import management.backend.inventory.repository.StockJdbcRepository.ItemLedgerBalance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background job that checks items.current_stock against the sum of each item's movements.
+ * The item ID space is split into fixed-size ranges that are checked in parallel by a
+ * bounded pool, so at most {@code parallelism} reconciliation queries hold a connection.
+ * Discrepancies are logged and, when repair is enabled, balances are rewritten from the ledger.
+ * Items with stock-outs that were edited outside the ledger are reported but never repaired,
+ * since their balance, not their ledger, holds the edit.
+ * Progress and throughput are exported as stock.reconciliation.* metrics.
+ */
+@Service
+public class StockReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReconciliationService.class);
+
+    // Discrepancies kept in the report and logged individually
+    private static final int MAX_REPORTED_DISCREPANCIES = 1000;
+
+    /**
+     * Outcome of one reconciliation run.
+     */
+    public record Report(long itemsChecked, long movementsScanned, long discrepancyCount, long repaired,
+                         long unrepairable, List<ItemLedgerBalance> discrepancies, long durationMs) {
+    }
+
+    private final StockJdbcRepository stockJdbcRepository;
+    private final AppProperties.Reconciliation properties;
+
+    private final Counter itemsCounter;
+    private final Counter movementsCounter;
+    private final Counter discrepanciesCounter;
+    private final Counter repairsCounter;
+    private final Timer chunkTimer;
+    private final Timer runTimer;
+    private final AtomicLong chunksTotal = new AtomicLong();
+    private final AtomicLong chunksDone = new AtomicLong();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public StockReconciliationService(StockJdbcRepository stockJdbcRepository, AppProperties appProperties,
+                                      MeterRegistry meterRegistry) {
+        this.stockJdbcRepository = stockJdbcRepository;
+        this.properties = appProperties.getReconciliation();
+        this.itemsCounter = Counter.builder("stock.reconciliation.items")
+            .description("Items checked by stock reconciliation").register(meterRegistry);
+        this.movementsCounter = Counter.builder("stock.reconciliation.movements")
+            .description("Stock movements summed by stock reconciliation").register(meterRegistry);
+        this.discrepanciesCounter = Counter.builder("stock.reconciliation.discrepancies")
+            .description("Items whose current stock differs from the ledger").register(meterRegistry);
+        this.repairsCounter = Counter.builder("stock.reconciliation.repairs")
+            .description("Item balances rewritten from the ledger").register(meterRegistry);
+        this.chunkTimer = Timer.builder("stock.reconciliation.chunk")
+            .description("Time to reconcile one item ID range").register(meterRegistry);
+        this.runTimer = Timer.builder("stock.reconciliation.run")
+            .description("Time for a full reconciliation run").register(meterRegistry);
+        Gauge.builder("stock.reconciliation.progress", this, StockReconciliationService::progress)
+            .description("Fraction of item ID ranges done in the current run").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.reconciliation.cron:0 0 3 * * *}")
+    public void scheduledRun() {
+        if (!properties.isEnabled()) return;
+        reconcile(properties.isRepair());
+    }
+
+    /**
+     * Reconcile all items.
+     *
+     * @param repair rewrite mismatched balances from the ledger
+     * @return the run report, or null when a run is already in progress
+     */
+    public Report reconcile(boolean repair) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Stock reconciliation already running; skipping");
+            return null;
+        }
+        try {
+            return runTimer.record(() -> doReconcile(repair));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    double progress() {
+        long total = chunksTotal.get();
+        return total == 0 ? 0.0 : (double) chunksDone.get() / total;
+    }
+
+    private Report doReconcile(boolean repair) {
+        long started = System.currentTimeMillis();
+        chunksDone.set(0);
+        chunksTotal.set(0);
+        long[] bounds = stockJdbcRepository.findItemIdBounds();
+        if (bounds == null) {
+            return new Report(0, 0, 0, 0, 0, List.of(), 0);
+        }
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        long chunks = (bounds[1] - bounds[0]) / chunkSize + 1;
+        chunksTotal.set(chunks);
+        log.info("Stock reconciliation started: item IDs {}..{} in {} chunks, parallelism {}, repair {}",
+            bounds[0], bounds[1], chunks, properties.getParallelism(), repair);
+
+        AtomicLong items = new AtomicLong();
+        AtomicLong movements = new AtomicLong();
+        AtomicLong discrepancyCount = new AtomicLong();
+        AtomicLong repaired = new AtomicLong();
+        AtomicLong unrepairable = new AtomicLong();
+        List<ItemLedgerBalance> discrepancies = Collections.synchronizedList(new ArrayList<>());
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, properties.getParallelism()));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (long from = bounds[0]; from <= bounds[1]; from += chunkSize) {
+                long fromId = from;
+                long toId = Math.min(bounds[1], from + chunkSize - 1);
+                futures.add(pool.submit(() -> chunkTimer.record(() -> {
+                    for (ItemLedgerBalance row : stockJdbcRepository.reconcileRange(fromId, toId)) {
+                        items.incrementAndGet();
+                        movements.addAndGet(row.movementCount());
+                        itemsCounter.increment();
+                        movementsCounter.increment(row.movementCount());
+                        if (row.matches()) continue;
+                        discrepancyCount.incrementAndGet();
+                        discrepanciesCounter.increment();
+                        if (discrepancies.size() < MAX_REPORTED_DISCREPANCIES) {
+                            discrepancies.add(row);
+                            log.warn("Stock discrepancy for item {}: current_stock {}, ledger {}{}",
+                                row.itemId(), row.currentStock(), row.ledgerStock(),
+                                row.unledgered() ? " (stock-outs edited outside the ledger)" : "");
+                        }
+                        if (row.unledgered()) {
+                            unrepairable.incrementAndGet();
+                            continue;
+                        }
+                        if (repair && stockJdbcRepository.repairCurrentStock(row.itemId(), row.currentStock(), row.ledgerStock())) {
+                            repaired.incrementAndGet();
+                            repairsCounter.increment();
+                        }
+                    }
+                    chunksDone.incrementAndGet();
+                })));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Stock reconciliation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Stock reconciliation failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long duration = System.currentTimeMillis() - started;
+        log.info("Stock reconciliation finished: {} items, {} movements, {} discrepancies, {} repaired, {} not repairable in {} ms",
+            items.get(), movements.get(), discrepancyCount.get(), repaired.get(), unrepairable.get(), duration);
+        return new Report(items.get(), movements.get(), discrepancyCount.get(), repaired.get(), unrepairable.get(),
+            List.copyOf(discrepancies), duration);
+    }
+}
@@ -1,30 +1,54 @@
 package management.backend.inventory.service;
 
+import management.backend.inventory.dto.CursorPageResponse;
 import management.backend.inventory.dto.ItemStockResponse;
 import management.backend.inventory.dto.StockMovementRequest;
 import management.backend.inventory.dto.StockInBatchRequest;
 import management.backend.inventory.dto.StockInBatchRequest.StockInLine;
+import management.backend.inventory.dto.StockInDocumentResponse;
+import management.backend.inventory.dto.StockMovementHistoryFilter;
+import management.backend.inventory.dto.StockMovementHistoryResponse;
+import management.backend.inventory.dto.StockStatusResponse;
+import management.backend.inventory.dto.WarehouseStockResponse;
 import management.backend.inventory.entity.Item;
 import management.backend.inventory.entity.MovementType;
 import management.backend.inventory.entity.StockMovement;
 import management.backend.inventory.entity.StockOutReasonEnum;
 import management.backend.inventory.entity.StockSourceMode;
+import management.backend.inventory.entity.StockStatus;
 import management.backend.inventory.entity.User;
 import management.backend.inventory.entity.Supplier;
 import management.backend.inventory.entity.Warehouse;
+import management.backend.inventory.exception.ValidationException;
 import management.backend.inventory.repository.ItemRepository;
+import management.backend.inventory.repository.ItemStockTotalRepository;
+import management.backend.inventory.repository.ItemWarehouseStockRepository;
+import management.backend.inventory.repository.StockInDocumentRepository;
+import management.backend.inventory.repository.StockJdbcRepository;
+import management.backend.inventory.repository.StockMovementHistoryRepository;
 import management.backend.inventory.repository.StockMovementRepository;
 import management.backend.inventory.repository.UserRepository;
 import management.backend.inventory.repository.SupplierRepository;
 import management.backend.inventory.repository.WarehouseRepository;
+import management.backend.inventory.service.DocumentNumberService.DocumentType;
+import management.backend.inventory.util.CompositeKeyCursor;
+import management.backend.inventory.util.KeysetCursor;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
@@ -35,18 +59,36 @@ import java.util.stream.Collectors;
 @Transactional
 public class StockService {
     
+    private static final int MAX_HISTORY_PAGE_SIZE = 500;
+    
     private final StockMovementRepository stockMovementRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final SupplierRepository supplierRepository;
     private final WarehouseRepository warehouseRepository;
+    private final StockMutationService stockMutationService;
+    private final ItemStockTotalRepository itemStockTotalRepository;
+    private final StockMovementHistoryRepository stockMovementHistoryRepository;
+    private final StockInDocumentRepository stockInDocumentRepository;
+    private final StockJdbcRepository stockJdbcRepository;
+    private final StockLedgerService stockLedgerService;
+    private final DocumentNumberService documentNumberService;
+    private final ItemWarehouseStockRepository itemWarehouseStockRepository;
     
-    public StockService(StockMovementRepository stockMovementRepository, ItemRepository itemRepository, UserRepository userRepository, SupplierRepository supplierRepository, WarehouseRepository warehouseRepository) {
+    public StockService(StockMovementRepository stockMovementRepository, ItemRepository itemRepository, UserRepository userRepository, SupplierRepository supplierRepository, WarehouseRepository warehouseRepository, StockMutationService stockMutationService, ItemStockTotalRepository itemStockTotalRepository, StockMovementHistoryRepository stockMovementHistoryRepository, StockInDocumentRepository stockInDocumentRepository, StockJdbcRepository stockJdbcRepository, StockLedgerService stockLedgerService, DocumentNumberService documentNumberService, ItemWarehouseStockRepository itemWarehouseStockRepository) {
         this.stockMovementRepository = stockMovementRepository;
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
         this.supplierRepository = supplierRepository;
         this.warehouseRepository = warehouseRepository;
+        this.stockMutationService = stockMutationService;
+        this.itemStockTotalRepository = itemStockTotalRepository;
+        this.stockMovementHistoryRepository = stockMovementHistoryRepository;
+        this.stockInDocumentRepository = stockInDocumentRepository;
+        this.stockJdbcRepository = stockJdbcRepository;
+        this.stockLedgerService = stockLedgerService;
+        this.documentNumberService = documentNumberService;
+        this.itemWarehouseStockRepository = itemWarehouseStockRepository;
     }
     
     /**
@@ -54,23 +96,17 @@ public class StockService {
      * Requirements: 4.1, 2.1, 2.2 - Stock-in movement recording with positive quantity
      */
     public StockMovement recordStockIn(StockMovementRequest request, Authentication authentication) {
-        // Validate that the item exists
         Long itemId = request.getItemId();
         if (itemId == null) throw new IllegalArgumentException("Item ID cannot be null");
-        Optional<Item> itemOpt = itemRepository.findById(itemId);
-        if (itemOpt.isEmpty()) {
-            throw new IllegalArgumentException("Item with ID " + itemId + " not found");
-        }
-        
-        Item item = itemOpt.get();
         User currentUser = resolveCurrentUser(authentication);
         
-        Long previousStock = item.getCurrentStock();
-        Long newStock = previousStock + request.getQuantity();
+        // Update item stock atomically; fails when the item does not exist
+        Long newStock = stockMutationService.increaseStock(itemId, request.getQuantity());
+        Long previousStock = newStock - request.getQuantity();
         
         // Create and save stock-in movement
         StockMovement movement = new StockMovement(
-            item,
+            itemRepository.getReferenceById(itemId),
             currentUser,
             MovementType.IN,
             request.getQuantity(),
@@ -82,11 +118,12 @@ public class StockService {
         movement.setNotes(request.getNotes());
         // supplier/warehouse may be set via batch endpoint; keep null here
         
-        // Update item stock
-        item.setCurrentStock(newStock);
-        itemRepository.save(item);
-        
-        return stockMovementRepository.save(movement);
+        StockMovement saved = stockMutationService.recordMovement(movement);
+        if (request.getReferenceNumber() != null && !request.getReferenceNumber().isBlank()) {
+            stockJdbcRepository.upsertStockInDocument(request.getReferenceNumber(), null, null, currentUser.getId(),
+                null, 1, request.getNotes(), saved.getCreatedAt());
+        }
+        return saved;
     }
     
     /**
@@ -118,34 +155,50 @@ public class StockService {
             ? request.getReferenceNumber()
             : generateReferenceNumber();
         
-        final Supplier supplierFinal = supplier;
-        return request.getItems().stream().map(line -> {
+        // Aggregate lines per item so the whole receipt is one set-based stock update
+        Map<Long, Long> quantitiesByItem = new HashMap<>();
+        for (StockInLine line : request.getItems()) {
             Long itemId = line.getItemId();
             if (itemId == null) throw new IllegalArgumentException("Item ID cannot be null");
-            Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new IllegalArgumentException("Item not found: " + itemId));
-            Long previousStock = item.getCurrentStock();
+            if (line.getQuantity() == null || line.getQuantity() <= 0) throw new IllegalArgumentException("Quantity must be positive");
+            quantitiesByItem.merge(itemId, line.getQuantity(), Long::sum);
+        }
+        Map<Long, Long> balances = stockMutationService.increaseStockBulk(quantitiesByItem);
+        
+        // Running balance per item, starting from the stock before this receipt
+        Map<Long, Long> running = new HashMap<>();
+        balances.forEach((itemId, newBalance) -> running.put(itemId, newBalance - quantitiesByItem.get(itemId)));
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<StockMovement> movements = new ArrayList<>(request.getItems().size());
+        for (StockInLine line : request.getItems()) {
+            Long itemId = line.getItemId();
+            Long previousStock = running.get(itemId);
             Long newStock = previousStock + line.getQuantity();
+            running.put(itemId, newStock);
             StockMovement movement = new StockMovement(
-                item, currentUser, MovementType.IN, line.getQuantity(), previousStock, newStock
+                itemRepository.getReferenceById(itemId), currentUser, MovementType.IN, line.getQuantity(), previousStock, newStock
             );
             movement.setReferenceNumber(ref);
             movement.setNotes(request.getNotes());
-            if (supplierFinal != null) movement.setSupplier(supplierFinal);
+            if (supplier != null) movement.setSupplier(supplier);
             movement.setWarehouse(warehouse);
-            movement.setSourceMode(supplierFinal != null ? StockSourceMode.SUPPLIER : StockSourceMode.NON_SUPPLIER);
-            item.setCurrentStock(newStock);
-            itemRepository.save(item);
-            return stockMovementRepository.save(movement);
-        }).collect(Collectors.toList());
+            movement.setSourceMode(supplier != null ? StockSourceMode.SUPPLIER : StockSourceMode.NON_SUPPLIER);
+            movement.setCreatedAt(now);
+            movements.add(movement);
+        }
+        stockJdbcRepository.upsertStockInDocument(ref, supplier != null ? supplier.getSupplierId() : null, warehouse.getWarehouseId(),
+            currentUser.getId(), supplier != null ? StockSourceMode.SUPPLIER : StockSourceMode.NON_SUPPLIER,
+            movements.size(), request.getNotes(), now);
+        return stockMutationService.recordMovements(movements);
     }
     
     @Transactional(readOnly = true)
-    public List<java.util.Map<String, Object>> getStockInDetails(String referenceNumber) {
+    public List<Map<String, Object>> getStockInDetails(String referenceNumber) {
         List<StockMovement> movements = stockMovementRepository.findByReferenceNumber(referenceNumber);
         return movements.stream()
             .map(m -> {
-                java.util.Map<String, Object> row = new java.util.HashMap<>();
+                Map<String, Object> row = new HashMap<>();
                 row.put("itemId", m.getItem().getItemId());
                 row.put("sku", m.getItem().getSku());
                 row.put("name", m.getItem().getName());
@@ -162,20 +215,28 @@ public class StockService {
     public void deleteStockIn(String referenceNumber) {
         List<StockMovement> movements = stockMovementRepository.findByReferenceNumber(referenceNumber);
         if (movements.isEmpty()) return;
+        Map<Long, Long> deltas = new HashMap<>();
+        Map<Long, Map<Long, Long>> warehouseDeltas = new TreeMap<>();
         for (StockMovement m : movements) {
-            Item item = m.getItem();
-            item.setCurrentStock(item.getCurrentStock() - m.getQuantity());
-            itemRepository.save(item);
+            deltas.merge(m.getItem().getItemId(), -m.getQuantity(), Long::sum);
+            mergeWarehouseDelta(warehouseDeltas, m, -m.getQuantity());
         }
-        stockMovementRepository.deleteByReferenceNumber(referenceNumber);
+        Map<Long, Long> balances = stockMutationService.adjustStockBulk(deltas);
+        requireWarehouseStock(warehouseDeltas, deltas, balances);
+        stockMutationService.removeMovements(movements);
+        stockJdbcRepository.deleteStockInDocument(referenceNumber);
     }
     
+    /**
+     * Update a stock-in document in place.
+     * Each new line is matched to an existing line for the same item, in order; matched lines
+     * are updated only where they differ, unmatched old lines are deleted and unmatched new
+     * lines inserted. Balances change by the net difference per item in one statement, so
+     * editing one line of a large receipt touches one item and one movement.
+     * The document header is updated in place and keeps its ID and creator.
+     */
     @Transactional
     public void updateStockIn(String referenceNumber, StockInBatchRequest request, Authentication authentication) {
-        List<StockMovement> existing = stockMovementRepository.findByReferenceNumber(referenceNumber);
-        java.time.LocalDateTime originalCreated = existing.isEmpty() ? null : existing.stream().map(StockMovement::getCreatedAt).min(java.util.Comparator.naturalOrder()).orElse(null);
-        deleteStockIn(referenceNumber);
-        // Recreate with the same reference number
         Supplier supplier = null;
         if (request.getSupplierId() != null) {
             Long supplierId = request.getSupplierId();
@@ -197,29 +258,131 @@ public class StockService {
         List<StockInLine> lines = request.getItems();
         if (lines == null || lines.isEmpty()) throw new IllegalArgumentException("No items provided");
         String newRef = (request.getReferenceNumber() != null && !request.getReferenceNumber().isBlank()) ? request.getReferenceNumber() : referenceNumber;
+        StockSourceMode sourceMode = supplier != null ? StockSourceMode.SUPPLIER : StockSourceMode.NON_SUPPLIER;
+        if (!newRef.equals(referenceNumber) && stockInDocumentRepository.existsByReferenceNumber(newRef)) {
+            throw new IllegalArgumentException("Reference number already in use: " + newRef);
+        }
+        
+        List<StockMovement> existing = new ArrayList<>(stockMovementRepository.findByReferenceNumber(referenceNumber));
+        existing.sort(Comparator.comparing(StockMovement::getStockMovementId));
+        LocalDateTime originalCreated = existing.stream().map(StockMovement::getCreatedAt)
+            .min(Comparator.naturalOrder()).orElse(null);
+        
+        // Net change per item: new quantities minus old ones
+        Map<Long, Long> deltas = new HashMap<>();
+        Map<Long, Map<Long, Long>> warehouseDeltas = new TreeMap<>();
+        Map<Long, Deque<StockMovement>> unmatched = new HashMap<>();
+        for (StockMovement m : existing) {
+            Long itemId = m.getItem().getItemId();
+            deltas.merge(itemId, -m.getQuantity(), Long::sum);
+            mergeWarehouseDelta(warehouseDeltas, m, -m.getQuantity());
+            unmatched.computeIfAbsent(itemId, id -> new ArrayDeque<>()).add(m);
+        }
         for (StockInLine line : lines) {
             Long itemId = line.getItemId();
             if (itemId == null) throw new IllegalArgumentException("Item ID cannot be null");
-            Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new IllegalArgumentException("Item not found: " + itemId));
-            Long previousStock = item.getCurrentStock();
-            Long newStock = previousStock + line.getQuantity();
-            StockMovement movement = new StockMovement(item, currentUser, MovementType.IN, line.getQuantity(), previousStock, newStock);
+            if (line.getQuantity() == null || line.getQuantity() <= 0) throw new IllegalArgumentException("Quantity must be positive");
+            deltas.merge(itemId, line.getQuantity(), Long::sum);
+            warehouseDeltas.computeIfAbsent(itemId, id -> new TreeMap<>())
+                .merge(warehouse.getWarehouseId(), line.getQuantity(), Long::sum);
+        }
+        Map<Long, Long> balances = stockMutationService.adjustStockBulk(deltas);
+        requireWarehouseStock(warehouseDeltas, deltas, balances);
+        
+        LocalDateTime createdAt = originalCreated != null ? originalCreated : LocalDateTime.now();
+        List<StockMovement> updated = new ArrayList<>();
+        Map<Long, StockMovement> originals = new HashMap<>();
+        List<StockMovement> inserted = new ArrayList<>();
+        for (StockInLine line : lines) {
+            Long itemId = line.getItemId();
+            Deque<StockMovement> candidates = unmatched.get(itemId);
+            StockMovement movement = candidates != null ? candidates.pollFirst() : null;
+            if (movement == null) {
+                movement = new StockMovement(itemRepository.getReferenceById(itemId), currentUser, MovementType.IN,
+                    line.getQuantity(), null, null);
+                movement.setCreatedAt(createdAt);
+                inserted.add(movement);
+            } else {
+                boolean movedWarehouse = movement.getWarehouse() == null
+                    || !movement.getWarehouse().getWarehouseId().equals(warehouse.getWarehouseId());
+                if (!movement.getQuantity().equals(line.getQuantity()) || movedWarehouse) {
+                    originals.put(movement.getStockMovementId(), StockMutationService.snapshot(movement));
+                    movement.setQuantity(line.getQuantity());
+                }
+                updated.add(movement);
+            }
             movement.setReferenceNumber(newRef);
             movement.setNotes(request.getNotes());
-            if (supplier != null) movement.setSupplier(supplier);
+            movement.setSupplier(supplier);
             movement.setWarehouse(warehouse);
-            if (originalCreated != null) movement.setCreatedAt(originalCreated);
-            movement.setSourceMode(supplier != null ? StockSourceMode.SUPPLIER : StockSourceMode.NON_SUPPLIER);
-            item.setCurrentStock(newStock);
-            itemRepository.save(item);
-            stockMovementRepository.save(movement);
+            movement.setSourceMode(sourceMode);
         }
+        List<StockMovement> removed = new ArrayList<>();
+        unmatched.values().forEach(removed::addAll);
+        
+        // Restate previous/new stock on lines whose quantity changed or that are new, ending at the item's balance
+        List<StockMovement> restated = new ArrayList<>(inserted);
+        updated.stream().filter(m -> originals.containsKey(m.getStockMovementId())
+            && !originals.get(m.getStockMovementId()).getQuantity().equals(m.getQuantity())).forEach(restated::add);
+        Map<Long, Long> running = new HashMap<>();
+        for (StockMovement m : restated) {
+            running.merge(m.getItem().getItemId(), -m.getQuantity(), Long::sum);
+        }
+        running.replaceAll((itemId, quantity) -> quantity + balanceAfter(balances, itemId));
+        for (StockMovement m : restated) {
+            Long itemId = m.getItem().getItemId();
+            Long previousStock = running.get(itemId);
+            m.setPreviousStock(previousStock);
+            m.setNewStock(previousStock + m.getQuantity());
+            running.put(itemId, previousStock + m.getQuantity());
+        }
+        
+        stockMutationService.removeMovements(removed);
+        stockMutationService.updateMovements(updated, originals);
+        stockMutationService.recordMovements(inserted);
+        Long supplierId = supplier != null ? supplier.getSupplierId() : null;
+        int headers = stockJdbcRepository.updateStockInDocument(referenceNumber, newRef, supplierId, warehouse.getWarehouseId(),
+            sourceMode, lines.size(), request.getNotes());
+        if (headers == 0) {
+            // Documents recorded before headers were kept get one now
+            stockJdbcRepository.upsertStockInDocument(newRef, supplierId, warehouse.getWarehouseId(),
+                currentUser.getId(), sourceMode, lines.size(), request.getNotes(), originalCreated);
+        }
+    }
+    
+    private static void mergeWarehouseDelta(Map<Long, Map<Long, Long>> warehouseDeltas, StockMovement m, long delta) {
+        if (m.getWarehouse() == null) return;
+        warehouseDeltas.computeIfAbsent(m.getItem().getItemId(), id -> new TreeMap<>())
+            .merge(m.getWarehouse().getWarehouseId(), delta, Long::sum);
+    }
+    
+    /**
+     * Check that every warehouse losing stock to a removed or reduced receipt still holds it,
+     * so the receipt's stock cannot be taken back after it was shipped out of that warehouse.
+     * Runs after the item balances were adjusted, keeping the item-then-warehouse lock order;
+     * items and warehouses are visited in ID order.
+     */
+    private void requireWarehouseStock(Map<Long, Map<Long, Long>> warehouseDeltas, Map<Long, Long> deltas,
+                                       Map<Long, Long> balances) {
+        warehouseDeltas.forEach((itemId, byWarehouse) -> byWarehouse.forEach((warehouseId, delta) -> {
+            if (delta >= 0) return;
+            // Balance before this edit, less the quantity leaving the warehouse
+            Long itemBalance = balanceAfter(balances, itemId) - deltas.getOrDefault(itemId, 0L) + delta;
+            stockMutationService.requireWarehouseStock(itemId, warehouseId, -delta, itemBalance);
+        }));
+    }
+    
+    /**
+     * An item's balance after a bulk adjustment. Items whose net change was zero were not
+     * adjusted, so their balance is read, including any stock held in shards.
+     */
+    private Long balanceAfter(Map<Long, Long> balances, Long itemId) {
+        Long balance = balances.get(itemId);
+        return balance != null ? balance : stockMutationService.currentStock(itemId);
     }
     
     private String generateReferenceNumber() {
-        java.time.LocalDateTime now = java.time.LocalDateTime.now();
-        return String.format("SI-%s", now.format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        return documentNumberService.next(DocumentType.STOCK_IN);
     }
     
     private User resolveCurrentUser(Authentication authentication) {
@@ -240,28 +403,11 @@ public class StockService {
      * SaaS Features: Stock-out reason tracking
      */
     public StockMovement recordStockOut(StockMovementRequest request, Authentication authentication) {
-        // Validate that the item exists
         Long itemId = request.getItemId();
         if (itemId == null) throw new IllegalArgumentException("Item ID cannot be null");
-        Optional<Item> itemOpt = itemRepository.findById(itemId);
-        if (itemOpt.isEmpty()) {
-            throw new IllegalArgumentException("Item with ID " + itemId + " not found");
-        }
-        
-        Item item = itemOpt.get();
         User currentUser = userRepository.findByEmail(authentication.getName())
             .orElseThrow(() -> new IllegalArgumentException("User not found"));
         
-        Long previousStock = item.getCurrentStock();
-        
-        // Validate sufficient stock exists
-        if (previousStock < request.getQuantity()) {
-            throw new IllegalArgumentException(
-                String.format("Insufficient stock for item '%s'. Current stock: %d, Requested: %d", 
-                    item.getName(), previousStock, request.getQuantity())
-            );
-        }
-        
         // Validate reason is provided for stock-out
         if (request.getReason() == null || request.getReason().isBlank()) {
             throw new IllegalArgumentException("Reason is required for stock-out operations");
@@ -277,11 +423,14 @@ public class StockService {
             }
         }
         
-        Long newStock = previousStock - request.getQuantity();
+        // Check availability and deduct stock in one conditional update
+        Long newStock = stockMutationService.tryDecreaseStock(itemId, request.getQuantity())
+            .orElseThrow(() -> insufficientStock(itemId, request.getQuantity()));
+        Long previousStock = newStock + request.getQuantity();
         
         // Create and save stock-out movement
         StockMovement movement = new StockMovement(
-            item,
+            itemRepository.getReferenceById(itemId),
             currentUser,
             MovementType.OUT,
             request.getQuantity(),
@@ -296,11 +445,21 @@ public class StockService {
         movement.setReasonType(reasonType);
         movement.setSourceMode(StockSourceMode.NON_SUPPLIER);
         
-        // Update item stock
-        item.setCurrentStock(newStock);
-        itemRepository.save(item);
-        
-        return stockMovementRepository.save(movement);
+        return stockMutationService.recordMovement(movement);
+    }
+    
+    /**
+     * Build the error for a rejected stock-out. Only runs on the failure path,
+     * so successful stock-outs never load the item.
+     */
+    private IllegalArgumentException insufficientStock(Long itemId, Long requested) {
+        Item item = itemRepository.findById(itemId)
+            .orElseThrow(() -> new IllegalArgumentException("Item with ID " + itemId + " not found"));
+        Long available = stockMutationService.currentStock(itemId);
+        return new IllegalArgumentException(
+            String.format("Insufficient stock for item '%s'. Current stock: %d, Requested: %d", 
+                item.getName(), available != null ? available : item.getCurrentStock(), requested)
+        );
     }
     
     /**
@@ -311,25 +470,24 @@ public class StockService {
     public List<ItemStockResponse> getStockSummaryForAllItems() {
         List<Item> items = itemRepository.findAllItemsOrderByCreatedAt();
         
-        // Get stock summaries for all items
-        List<StockMovementRepository.StockSummaryProjection> stockSummaries = 
-            stockMovementRepository.getStockSummaryForAllItems();
-        
-        // Create a map for quick lookup of stock data by item ID
-        Map<Long, StockMovementRepository.StockSummaryProjection> stockMap = stockSummaries.stream()
-            .collect(Collectors.toMap(
-                StockMovementRepository.StockSummaryProjection::getItemId,
-                summary -> summary
-            ));
+        // Get stock summaries for all items, unless the in-memory ledger can answer
+        Map<Long, StockMovementRepository.StockSummaryProjection> stockMap = stockLedgerService.isReady()
+            ? Map.of()
+            : itemStockTotalRepository.getStockSummaryForAllItems().stream()
+                .collect(Collectors.toMap(
+                    StockMovementRepository.StockSummaryProjection::getItemId,
+                    summary -> summary
+                ));
         
         // Convert items to response DTOs with stock information
         return items.stream()
             .map(item -> {
+                StockLedgerService.Balance balance = stockLedgerService.find(item.getItemId());
                 StockMovementRepository.StockSummaryProjection stockSummary = stockMap.get(item.getItemId());
                 
-                Integer totalStockIn = stockSummary != null ? stockSummary.getTotalIn() : 0;
-                Integer totalStockOut = stockSummary != null ? stockSummary.getTotalOut() : 0;
-                Integer currentStock = stockSummary != null ? stockSummary.getCurrentStock() : 0;
+                Long totalStockIn = balance != null ? balance.totalIn() : stockSummary != null ? stockSummary.getTotalIn() : 0L;
+                Long totalStockOut = balance != null ? balance.totalOut() : stockSummary != null ? stockSummary.getTotalOut() : 0L;
+                Long currentStock = balance != null ? balance.currentStock() : stockSummary != null ? stockSummary.getCurrentStock() : 0L;
                 Long categoryId = item.getCategory() != null ? item.getCategory().getCategoryId() : null;
                 String categoryName = item.getCategory() != null ? item.getCategory().getName() : null;
                 return new ItemStockResponse(
@@ -367,12 +525,14 @@ public class StockService {
         }
         
         Item item = itemOpt.get();
-        StockMovementRepository.StockSummaryProjection stockSummary = 
-            stockMovementRepository.getStockSummaryForItem(itemId);
+        StockLedgerService.Balance balance = stockLedgerService.find(itemId);
+        StockMovementRepository.StockSummaryProjection stockSummary = balance != null
+            ? null
+            : itemStockTotalRepository.getStockSummaryForItem(itemId);
         
-        Integer totalStockIn = stockSummary != null ? stockSummary.getTotalIn() : 0;
-        Integer totalStockOut = stockSummary != null ? stockSummary.getTotalOut() : 0;
-        Integer currentStock = stockSummary != null ? stockSummary.getCurrentStock() : 0;
+        Long totalStockIn = balance != null ? balance.totalIn() : stockSummary != null ? stockSummary.getTotalIn() : 0L;
+        Long totalStockOut = balance != null ? balance.totalOut() : stockSummary != null ? stockSummary.getTotalOut() : 0L;
+        Long currentStock = balance != null ? balance.currentStock() : stockSummary != null ? stockSummary.getCurrentStock() : 0L;
         
         Long categoryId = item.getCategory() != null ? item.getCategory().getCategoryId() : null;
         String categoryName = item.getCategory() != null ? item.getCategory().getName() : null;
@@ -396,14 +556,83 @@ public class StockService {
         return Optional.of(response);
     }
     
+    /**
+     * Get the stock held in a warehouse, per item.
+     * Reads the per-warehouse balances maintained with each movement.
+     */
+    @Transactional(readOnly = true)
+    public List<WarehouseStockResponse> getWarehouseStock(Long warehouseId) {
+        if (warehouseId == null) throw new IllegalArgumentException("Warehouse ID cannot be null");
+        if (!warehouseRepository.existsById(warehouseId)) throw new IllegalArgumentException("Warehouse not found");
+        return itemWarehouseStockRepository.findByWarehouse(warehouseId);
+    }
+    
+    /**
+     * Get one page of item and warehouse pairs whose stock is LOW or EXCESS, for replenishment.
+     * Reads the stock status kept on the per-warehouse balances, keyset-paginated on
+     * (warehouseId, itemId), so each page costs the same however many pairs are OK.
+     *
+     * @param warehouseId only this warehouse, or null for all
+     * @param status only this status, or null for both LOW and EXCESS
+     * @param cursor nextCursor from the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<StockStatusResponse> getStockStatusAlerts(Long warehouseId, StockStatus status, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_HISTORY_PAGE_SIZE) {
+            throw new ValidationException("Invalid limit", "limit", "Limit must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+        }
+        if (status == StockStatus.OK) {
+            throw new ValidationException("Invalid status", "status", "Status must be LOW or EXCESS");
+        }
+        CompositeKeyCursor after = CompositeKeyCursor.decode(cursor);
+        long afterWarehouseId = after != null ? after.getFirst() : 0L;
+        long afterItemId = after != null ? after.getSecond() : 0L;
+        // Fetch one extra row to learn whether another page exists
+        Limit fetch = Limit.of(limit + 1);
+        List<StockStatusResponse> rows;
+        if (warehouseId != null) {
+            // Pages of one warehouse only continue within it
+            if (after != null && afterWarehouseId != warehouseId) {
+                throw new ValidationException("Invalid cursor", "cursor", "Cursor is for another warehouse");
+            }
+            rows = status == null
+                ? itemWarehouseStockRepository.findWarehouseAlertsAfter(warehouseId, afterItemId, fetch)
+                : itemWarehouseStockRepository.findWarehouseAlertsAfterByStatus(warehouseId, afterItemId, status, fetch);
+        } else {
+            rows = status == null
+                ? itemWarehouseStockRepository.findAlertsAfter(afterWarehouseId, afterItemId, fetch)
+                : itemWarehouseStockRepository.findAlertsAfterByStatus(afterWarehouseId, afterItemId, status, fetch);
+        }
+        boolean hasMore = rows.size() > limit;
+        String nextCursor = null;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+            StockStatusResponse last = rows.get(rows.size() - 1);
+            nextCursor = new CompositeKeyCursor(last.getWarehouseId(), last.getItemId()).encode();
+        }
+        return new CursorPageResponse<>(rows, nextCursor, hasMore);
+    }
+    
+    /**
+     * Get an item's stock in each warehouse that holds it.
+     */
+    @Transactional(readOnly = true)
+    public List<WarehouseStockResponse> getItemWarehouseStock(Long itemId) {
+        if (itemId == null) throw new IllegalArgumentException("Item ID cannot be null");
+        if (!itemRepository.existsById(itemId)) throw new IllegalArgumentException("Item with ID " + itemId + " not found");
+        return itemWarehouseStockRepository.findByItem(itemId);
+    }
+    
     /**
      * Get current stock level for a specific item.
      * Requirements: 4.5 - Current stock calculation
      */
     @Transactional(readOnly = true)
-    public Integer getCurrentStock(Long itemId) {
-        Integer currentStock = stockMovementRepository.calculateCurrentStock(itemId);
-        return currentStock != null ? currentStock : 0;
+    public Long getCurrentStock(Long itemId) {
+        StockLedgerService.Balance balance = stockLedgerService.find(itemId);
+        if (balance != null) return balance.currentStock();
+        Long currentStock = stockMovementRepository.calculateCurrentStock(itemId);
+        return currentStock != null ? currentStock : 0L;
     }
     
     /**
@@ -411,9 +640,11 @@ public class StockService {
      * Requirements: 4.5 - Stock calculation methods
      */
     @Transactional(readOnly = true)
-    public Integer getTotalStockIn(Long itemId) {
-        Integer totalIn = stockMovementRepository.calculateTotalStockIn(itemId);
-        return totalIn != null ? totalIn : 0;
+    public Long getTotalStockIn(Long itemId) {
+        StockLedgerService.Balance balance = stockLedgerService.find(itemId);
+        if (balance != null) return balance.totalIn();
+        Long totalIn = stockMovementRepository.calculateTotalStockIn(itemId);
+        return totalIn != null ? totalIn : 0L;
     }
     
     /**
@@ -421,9 +652,11 @@ public class StockService {
      * Requirements: 4.5 - Stock calculation methods
      */
     @Transactional(readOnly = true)
-    public Integer getTotalStockOut(Long itemId) {
-        Integer totalOut = stockMovementRepository.calculateTotalStockOut(itemId);
-        return totalOut != null ? totalOut : 0;
+    public Long getTotalStockOut(Long itemId) {
+        StockLedgerService.Balance balance = stockLedgerService.find(itemId);
+        if (balance != null) return balance.totalOut();
+        Long totalOut = stockMovementRepository.calculateTotalStockOut(itemId);
+        return totalOut != null ? totalOut : 0L;
     }
     
     /**
@@ -444,56 +677,75 @@ public class StockService {
         return stockMovementRepository.findRecentMovements();
     }
     
+    /**
+     * Get one page of filtered stock movement history, newest first.
+     * Pages are keyset-paginated on (createdAt, stockMovementId), so fetching any page
+     * costs the same regardless of how much history precedes it.
+     *
+     * @param cursor nextCursor from the previous page, or null for the first page
+     */
     @Transactional(readOnly = true)
-    public List<java.util.Map<String, Object>> getStockInSummaries() {
-        List<StockMovement> ins = getStockInTransactions();
-        java.util.Map<String, java.util.List<StockMovement>> grouped = ins.stream()
-            .filter(m -> m.getReferenceNumber() != null && !m.getReferenceNumber().isBlank())
-            .collect(java.util.stream.Collectors.groupingBy(StockMovement::getReferenceNumber));
-        java.util.List<java.util.Map<String, Object>> summaries = new java.util.ArrayList<>();
-        for (var entry : grouped.entrySet()) {
-            String ref = entry.getKey();
-            java.util.List<StockMovement> rows = entry.getValue();
-            StockMovement first = rows.get(0);
-            String createdBy = first.getUser() != null ? first.getUser().getName() : null;
-            java.time.LocalDateTime createdAt = rows.stream().map(StockMovement::getCreatedAt).min(java.util.Comparator.naturalOrder()).orElse(first.getCreatedAt());
-            java.time.LocalDateTime updatedAt = rows.stream().map(StockMovement::getCreatedAt).max(java.util.Comparator.naturalOrder()).orElse(first.getCreatedAt());
-            String supplierName = first.getSupplier() != null ? first.getSupplier().getName() : null;
-            String sourceMode = first.getSourceMode() != null ? first.getSourceMode().name() : null;
-            java.util.Map<String, Object> row = new java.util.HashMap<>();
-            row.put("referenceNumber", ref);
-            row.put("count", rows.size());
-            row.put("createdBy", createdBy);
-            row.put("createdAt", createdAt);
-            row.put("updatedAt", updatedAt);
-            row.put("supplierName", supplierName);
-            row.put("sourceMode", sourceMode);
-            summaries.add(row);
-        }
-        summaries.sort((a,b) -> ((java.time.LocalDateTime)b.get("updatedAt")).compareTo((java.time.LocalDateTime)a.get("updatedAt")));
-        return summaries;
+    public CursorPageResponse<StockMovementHistoryResponse> getMovementHistory(StockMovementHistoryFilter filter, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_HISTORY_PAGE_SIZE) {
+            throw new ValidationException("Invalid limit", "limit", "Limit must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+        }
+        // Fetch one extra row to learn whether another page exists
+        List<StockMovementHistoryResponse> rows =
+            stockMovementHistoryRepository.findPage(filter, KeysetCursor.decode(cursor), limit + 1);
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            StockMovementHistoryResponse last = rows.get(rows.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getStockMovementId()).encode();
+        }
+        return new CursorPageResponse<>(rows, nextCursor, hasMore);
+    }
+    
+    /**
+     * Get one page of stock-in documents, most recently updated first.
+     * Reads document headers keyset-paginated on (updatedAt, stockInDocumentId).
+     *
+     * @param cursor nextCursor from the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<StockInDocumentResponse> getStockInSummaries(String cursor, int limit) {
+        if (limit < 1 || limit > MAX_HISTORY_PAGE_SIZE) {
+            throw new ValidationException("Invalid limit", "limit", "Limit must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        // Fetch one extra row to learn whether another page exists
+        List<StockInDocumentResponse> rows = after == null
+            ? stockInDocumentRepository.findFirstPage(Limit.of(limit + 1))
+            : stockInDocumentRepository.findPageAfter(after.getCreatedAt(), after.getId(), Limit.of(limit + 1));
+        boolean hasMore = rows.size() > limit;
+        String nextCursor = null;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+            StockInDocumentResponse last = rows.get(rows.size() - 1);
+            nextCursor = new KeysetCursor(last.getUpdatedAt(), last.getStockInDocumentId()).encode();
+        }
+        return new CursorPageResponse<>(rows, nextCursor, hasMore);
     }
 
     /**
-     * Get stock in transactions.
+     * Get one page of stock in transactions, newest first.
      * Requirements: 2.2, 2.4 - Stock in transactions
      */
     @Transactional(readOnly = true)
-    public List<StockMovement> getStockInTransactions() {
-        return getRecentStockMovements().stream()
-            .filter(m -> m.getMovementType() == MovementType.IN)
-            .collect(Collectors.toList());
+    public CursorPageResponse<StockMovementHistoryResponse> getStockInTransactions(String cursor, int limit) {
+        return getMovementHistory(new StockMovementHistoryFilter(null, null, MovementType.IN, null, null), cursor, limit);
     }
 
     /**
-     * Get stock out transactions.
+     * Get one page of stock out transactions, newest first.
      * Requirements: 2.2, 2.4 - Stock out transactions
      */
     @Transactional(readOnly = true)
-    public List<StockMovement> getStockOutTransactions() {
-        return getRecentStockMovements().stream()
-            .filter(m -> m.getMovementType() == MovementType.OUT)
-            .collect(Collectors.toList());
+    public CursorPageResponse<StockMovementHistoryResponse> getStockOutTransactions(String cursor, int limit) {
+        return getMovementHistory(new StockMovementHistoryFilter(null, null, MovementType.OUT, null, null), cursor, limit);
     }
     
     /**
@@ -502,7 +754,7 @@ public class StockService {
      */
     @Transactional(readOnly = true)
     public boolean hasSufficientStock(Long itemId, Integer requestedQuantity) {
-        Integer currentStock = getCurrentStock(itemId);
+        Long currentStock = getCurrentStock(itemId);
         return currentStock >= requestedQuantity;
     }
     
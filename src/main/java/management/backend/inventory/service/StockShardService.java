@@ -0,0 +1,177 @@
+package management.backend.inventory.service;
+
+import management.backend.inventory.config.AppProperties;
+import management.backend.inventory.repository.ItemStockShardRepository;
+import management.backend.inventory.repository.ItemStockShardRepository.LockedBalance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hot-item mode for stock balances (app.sharding.enabled).
+ * Stock writes are counted per item; at each evaluation, items written at least
+ * hotThreshold times get their balance spread over {@code shards} sub-counter rows, and
+ * sharded items written fewer than coolThreshold times are folded back into
+ * items.current_stock. Writers to a sharded item update one random shard, so concurrent
+ * stock-outs on the same item mostly lock different rows.
+ * <p>
+ * A stock-out larger than its shard holds rebalances the item under a lock on all of its
+ * rows. Reads add the shards to items.current_stock, so balances stay correct whichever
+ * instance sharded the item; the sharded-item set here is only a routing hint.
+ */
+@Service
+public class StockShardService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockShardService.class);
+
+    private final ItemStockShardRepository itemStockShardRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AppProperties.Sharding properties;
+
+    private final Map<Long, LongAdder> writes = new ConcurrentHashMap<>();
+    private volatile Set<Long> sharded = Set.of();
+
+    public StockShardService(ItemStockShardRepository itemStockShardRepository,
+                             PlatformTransactionManager transactionManager, AppProperties appProperties) {
+        this.itemStockShardRepository = itemStockShardRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = appProperties.getSharding();
+    }
+
+    /**
+     * Count a stock write towards the item's hot-item evaluation.
+     */
+    public void recordWrite(Long itemId) {
+        if (!properties.isEnabled()) return;
+        writes.computeIfAbsent(itemId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * Whether writes to this item should go to its shards, as of the last evaluation.
+     */
+    public boolean isSharded(Long itemId) {
+        return sharded.contains(itemId);
+    }
+
+    /**
+     * Whether the item has shards right now, read from the database.
+     */
+    public boolean hasShards(Long itemId) {
+        return !itemStockShardRepository.findShardedItemIds(List.of(itemId)).isEmpty();
+    }
+
+    /**
+     * Current balance of an item including its shards, or null when the item does not exist.
+     */
+    public Long balance(Long itemId) {
+        return itemStockShardRepository.findBalance(itemId);
+    }
+
+    /**
+     * Add stock to a random shard of the item.
+     *
+     * @return the new balance, or empty when the item has no shards any more
+     */
+    public Optional<Long> increase(Long itemId, Long quantity) {
+        if (!itemStockShardRepository.addToShard(itemId, randomShard(), quantity)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(itemStockShardRepository.findBalance(itemId));
+    }
+
+    /**
+     * Remove stock from a random shard, or rebalance the item when that shard holds too little.
+     *
+     * @return the new balance, or empty when the item does not exist or stock is insufficient
+     */
+    public Optional<Long> tryDecrease(Long itemId, Long quantity) {
+        if (itemStockShardRepository.addToShard(itemId, randomShard(), -quantity)) {
+            return Optional.ofNullable(itemStockShardRepository.findBalance(itemId));
+        }
+        LockedBalance balance = itemStockShardRepository.lockBalance(itemId);
+        if (balance == null || balance.total() < quantity) return Optional.empty();
+        long remaining = balance.total() - quantity;
+        itemStockShardRepository.distribute(itemId, remaining, balance.shardCount());
+        return Optional.of(remaining);
+    }
+
+    /**
+     * Fold the shards of the given items back into items.current_stock, in the caller's
+     * transaction, so a set-based update can check their full balance.
+     */
+    public void consolidate(Set<Long> itemIds) {
+        for (Long itemId : itemStockShardRepository.findShardedItemIds(itemIds)) {
+            itemStockShardRepository.consolidate(itemId);
+        }
+    }
+
+    /**
+     * Shard items that became hot and consolidate sharded items that cooled down.
+     * When sharding is disabled, any remaining shards are consolidated.
+     */
+    @Scheduled(fixedDelayString = "${app.sharding.evaluation-interval:PT1M}",
+               initialDelayString = "${app.sharding.evaluation-interval:PT1M}")
+    public void evaluate() {
+        Map<Long, Long> counts = new HashMap<>();
+        writes.forEach((itemId, adder) -> {
+            long count = adder.sumThenReset();
+            if (count == 0) {
+                writes.remove(itemId, adder);
+            } else {
+                counts.put(itemId, count);
+            }
+        });
+
+        Set<Long> current = new HashSet<>(itemStockShardRepository.findShardedItemIds());
+        int shardCount = Math.max(1, properties.getShards());
+        int started = 0;
+        int stopped = 0;
+        if (properties.isEnabled()) {
+            for (Map.Entry<Long, Long> e : counts.entrySet()) {
+                if (e.getValue() < properties.getHotThreshold() || current.contains(e.getKey())) continue;
+                if (shard(e.getKey(), shardCount)) {
+                    current.add(e.getKey());
+                    started++;
+                }
+            }
+        }
+        for (Long itemId : Set.copyOf(current)) {
+            long count = properties.isEnabled() ? counts.getOrDefault(itemId, 0L) : 0L;
+            if (count >= properties.getCoolThreshold()) continue;
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> itemStockShardRepository.consolidate(itemId)))) {
+                stopped++;
+            }
+            current.remove(itemId);
+        }
+        sharded = Set.copyOf(current);
+        if (started > 0 || stopped > 0) {
+            log.info("Stock sharding: {} items sharded, {} consolidated, {} sharded in total", started, stopped, current.size());
+        }
+    }
+
+    private boolean shard(Long itemId, int shardCount) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            LockedBalance balance = itemStockShardRepository.lockBalance(itemId);
+            if (balance == null) return false;
+            itemStockShardRepository.distribute(itemId, balance.total(), shardCount);
+            return true;
+        }));
+    }
+
+    private int randomShard() {
+        return ThreadLocalRandom.current().nextInt(Math.max(1, properties.getShards()));
+    }
+}
@@ -0,0 +1,144 @@
+package management.backend.inventory.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import management.backend.inventory.config.AppProperties;
+import management.backend.inventory.repository.StockSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalescing background refresher for the stock_summary materialized view.
+ * Ledger writers call {@link #markChanged()}; the first change after a refresh starts the
+ * coalescing window, and one REFRESH ... CONCURRENTLY covers every change made until the
+ * window closes. The view is therefore at most coalesceWindow + pollInterval plus one refresh
+ * behind the ledger, and inserts into inventory_transactions no longer wait on the view.
+ * <p>
+ * Writes from other instances or outside the application are picked up by polling the
+ * ledger's highest transaction ID. Lag and refresh time are exported as
+ * stock.summary.refresh.* metrics.
+ */
+@Service
+public class StockSummaryRefreshService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockSummaryRefreshService.class);
+
+    private final StockSummaryRepository stockSummaryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AppProperties.SummaryRefresh properties;
+    private final Clock clock;
+
+    private final Timer refreshTimer;
+    private final Counter refreshCounter;
+    // Time of the oldest change not yet covered by a refresh, 0 when the view is current
+    private final AtomicLong dirtySince = new AtomicLong();
+    private final AtomicLong lastRefreshedAt = new AtomicLong();
+    private volatile long lastSeenTransactionId = -1;
+
+    public StockSummaryRefreshService(StockSummaryRepository stockSummaryRepository,
+                                      PlatformTransactionManager transactionManager,
+                                      AppProperties appProperties, MeterRegistry meterRegistry) {
+        this(stockSummaryRepository, transactionManager, appProperties, meterRegistry, Clock.systemUTC());
+    }
+
+    StockSummaryRefreshService(StockSummaryRepository stockSummaryRepository,
+                               PlatformTransactionManager transactionManager,
+                               AppProperties appProperties, MeterRegistry meterRegistry, Clock clock) {
+        this.stockSummaryRepository = stockSummaryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = appProperties.getSummaryRefresh();
+        this.clock = clock;
+        this.refreshTimer = Timer.builder("stock.summary.refresh")
+            .description("Time to refresh the stock_summary view").register(meterRegistry);
+        this.refreshCounter = Counter.builder("stock.summary.refresh.count")
+            .description("stock_summary refreshes").register(meterRegistry);
+        Gauge.builder("stock.summary.refresh.lag", this, StockSummaryRefreshService::lagSeconds)
+            .description("Seconds since the oldest ledger change not yet in stock_summary").register(meterRegistry);
+        Gauge.builder("stock.summary.refresh.age", this, StockSummaryRefreshService::ageSeconds)
+            .description("Seconds since stock_summary was last refreshed by this instance").register(meterRegistry);
+    }
+
+    /**
+     * Record that inventory_transactions changed. Inside a transaction the change counts
+     * from its commit, so a refresh never runs before the rows are visible.
+     */
+    public void markChanged() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markDirty();
+                }
+            });
+        } else {
+            markDirty();
+        }
+    }
+
+    /**
+     * Refresh the view when the oldest pending change is older than the coalescing window.
+     */
+    @Scheduled(fixedDelayString = "${app.summary-refresh.poll-interval:PT1S}")
+    public void refreshIfDue() {
+        if (!properties.isEnabled()) return;
+        long maxId = stockSummaryRepository.findMaxTransactionId();
+        if (maxId != lastSeenTransactionId) {
+            if (lastSeenTransactionId >= 0) markDirty();
+            lastSeenTransactionId = maxId;
+        }
+        long since = dirtySince.get();
+        if (since == 0 || clock.millis() - since < properties.getCoalesceWindow().toMillis()) return;
+        // Cleared before refreshing: changes committed from here on mark the view dirty again
+        dirtySince.compareAndSet(since, 0);
+        if (!refresh()) {
+            dirtySince.accumulateAndGet(since, (current, previous) -> current == 0 ? previous : Math.min(current, previous));
+        }
+    }
+
+    /**
+     * Refresh the view now, unless another instance is already refreshing it.
+     *
+     * @return true when this call refreshed the view
+     */
+    public boolean refresh() {
+        long started = clock.millis();
+        Boolean refreshed = refreshTimer.record(() -> transactionTemplate.execute(status -> {
+            if (!stockSummaryRepository.tryLockRefresh()) return false;
+            stockSummaryRepository.refreshConcurrently();
+            return true;
+        }));
+        if (!Boolean.TRUE.equals(refreshed)) {
+            log.debug("stock_summary refresh skipped: another session is refreshing");
+            return false;
+        }
+        lastRefreshedAt.set(started);
+        refreshCounter.increment();
+        log.debug("stock_summary refreshed in {} ms", clock.millis() - started);
+        return true;
+    }
+
+    double lagSeconds() {
+        long since = dirtySince.get();
+        return since == 0 ? 0.0 : (clock.millis() - since) / 1000.0;
+    }
+
+    double ageSeconds() {
+        long refreshed = lastRefreshedAt.get();
+        return refreshed == 0 ? 0.0 : (clock.millis() - refreshed) / 1000.0;
+    }
+
+    private void markDirty() {
+        dirtySince.compareAndSet(0, clock.millis());
+    }
+}
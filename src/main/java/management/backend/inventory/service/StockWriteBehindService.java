@@ -0,0 +1,246 @@
+package management.backend.inventory.service;
+
+import management.backend.inventory.config.AppProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Optional write-behind mode for single-line stock writes (app.write-behind.enabled).
+ * Submitted operations are queued and run by one worker in group transactions of up to
+ * maxBatchSize operations, committed at most flushInterval after the first one arrived,
+ * so many writes share one commit. Each caller's future completes only after its group
+ * has committed; with synchronous-commit set to false that commit no longer waits for
+ * the WAL flush.
+ * <p>
+ * When an operation rejects its input (insufficient stock, an unknown item), the group is
+ * rolled back, that caller gets the error and the rest of the group runs again as one
+ * group, so a failure costs one extra transaction and the outcome is the same as running
+ * the operations in order. Database errors and failed commits roll the group back and run
+ * each operation in its own transaction. Operations must therefore have no effects outside
+ * the database. When disabled, not started, or the queue is full, operations run directly
+ * in the caller's thread.
+ * <p>
+ * Groups run one at a time on a single worker, so an operation that waits for a row lock,
+ * such as a stock-out on an item another transaction is editing, stalls every write queued
+ * behind it until that lock is released. Leave write-behind off where stock rows are held by
+ * long-running transactions.
+ */
+@Service
+public class StockWriteBehindService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockWriteBehindService.class);
+
+    private static final long IDLE_POLL_MS = 100;
+
+    /**
+     * A queued operation with the caller's security context and its completion future.
+     */
+    private static final class Pending<T> {
+        private final Supplier<T> operation;
+        private final SecurityContext securityContext;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        Pending(Supplier<T> operation, SecurityContext securityContext) {
+            this.operation = operation;
+            this.securityContext = securityContext;
+        }
+
+        T call() {
+            SecurityContext previous = SecurityContextHolder.getContext();
+            SecurityContextHolder.setContext(securityContext);
+            try {
+                return operation.get();
+            } finally {
+                SecurityContextHolder.setContext(previous);
+            }
+        }
+
+        void fail(RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+
+        void runAlone() {
+            try {
+                future.complete(call());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void complete(Object result) {
+            future.complete((T) result);
+        }
+    }
+
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final AppProperties.WriteBehind properties;
+    private final BlockingQueue<Pending<?>> queue;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public StockWriteBehindService(PlatformTransactionManager transactionManager, JdbcTemplate jdbcTemplate,
+                                   AppProperties appProperties) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = appProperties.getWriteBehind();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!properties.isEnabled()) return;
+        start();
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onContextClosed() {
+        stop();
+    }
+
+    synchronized void start() {
+        if (running) return;
+        running = true;
+        worker = new Thread(this::runWorker, "stock-write-behind");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Stock write-behind started: max batch {}, flush interval {}, synchronous commit {}",
+            properties.getMaxBatchSize(), properties.getFlushInterval(), properties.isSynchronousCommit());
+    }
+
+    /**
+     * Stop accepting operations and wait for the queued ones to commit.
+     */
+    synchronized void stop() {
+        if (!running) return;
+        running = false;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Anything the worker did not reach runs here
+        Pending<?> pending;
+        while ((pending = queue.poll()) != null) {
+            pending.runAlone();
+        }
+    }
+
+    /**
+     * Queue an operation for the next group commit.
+     * The operation runs on the worker thread with the caller's security context.
+     *
+     * @return a future completed with the result after the group commits, or with the operation's exception
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> operation) {
+        Pending<T> pending = new Pending<>(operation, SecurityContextHolder.getContext());
+        if (!running || !queue.offer(pending)) {
+            pending.runAlone();
+        } else if (!running && queue.remove(pending)) {
+            // Stopped while queuing; the worker may already be gone
+            pending.runAlone();
+        }
+        return pending.future;
+    }
+
+    /**
+     * Submit an operation and wait for it to commit.
+     *
+     * @return the operation's result
+     * @throws RuntimeException the exception thrown by the operation
+     */
+    public <T> T execute(Supplier<T> operation) {
+        try {
+            return submit(operation).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private void runWorker() {
+        int maxBatchSize = Math.max(1, properties.getMaxBatchSize());
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        List<Pending<?>> group = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending<?> first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                group.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (group.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        queue.drainTo(group, maxBatchSize - group.size());
+                        break;
+                    }
+                    group.add(next);
+                }
+                flush(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                group.forEach(Pending::runAlone);
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    void flush(List<Pending<?>> group) {
+        List<Pending<?>> pending = new ArrayList<>(group);
+        while (!pending.isEmpty()) {
+            List<Object> results = new ArrayList<>(pending.size());
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!properties.isSynchronousCommit()) {
+                        jdbcTemplate.execute("SET LOCAL synchronous_commit TO OFF");
+                    }
+                    for (Pending<?> operation : pending) {
+                        results.add(operation.call());
+                    }
+                });
+            } catch (RuntimeException e) {
+                if (results.size() < pending.size()
+                        && !(e instanceof DataAccessException) && !(e instanceof TransactionException)) {
+                    // Rejected given the operations before it, which run again without it
+                    pending.remove(results.size()).fail(e);
+                    log.debug("Stock write-behind operation rejected ({}); re-running the other {} as one group",
+                        e.getMessage(), pending.size());
+                    continue;
+                }
+                log.debug("Stock write-behind group of {} rolled back ({}); running operations one by one",
+                    pending.size(), e.getMessage());
+                pending.forEach(Pending::runAlone);
+                return;
+            }
+            for (int i = 0; i < pending.size(); i++) {
+                pending.get(i).complete(results.get(i));
+            }
+            return;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package management.backend.inventory.util;
+
+import management.backend.inventory.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset pagination on a two-column numeric key in ascending order.
+ * Encoded as URL-safe Base64 of "first|second".
+ */
+public final class CompositeKeyCursor {
+
+    private final long first;
+    private final long second;
+
+    public CompositeKeyCursor(long first, long second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    public long getFirst() {
+        return first;
+    }
+
+    public long getSecond() {
+        return second;
+    }
+
+    public String encode() {
+        String raw = first + "|" + second;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor produced by {@link #encode()}.
+     *
+     * @return the cursor, or null when the value is null or blank
+     * @throws ValidationException when the value is not a valid cursor
+     */
+    public static CompositeKeyCursor decode(String value) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            if (sep < 0) throw new IllegalArgumentException("Missing separator");
+            return new CompositeKeyCursor(Long.parseLong(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor", "cursor", "Cursor is malformed");
+        }
+    }
+}
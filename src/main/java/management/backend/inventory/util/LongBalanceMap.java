@@ -0,0 +1,144 @@
+package management.backend.inventory.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from a long key to a pair of long counters (total in, total out).
+ * Keys and values are held in primitive arrays, so a map of N items costs a few
+ * arrays of N longs instead of N boxed entries. Not thread-safe.
+ */
+public final class LongBalanceMap {
+
+    /**
+     * Receives one entry during {@link #forEach}.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, long totalIn, long totalOut);
+    }
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private long[] totalIn;
+    private long[] totalOut;
+    private boolean[] used;
+    private int size;
+    private int mask;
+
+    public LongBalanceMap() {
+        this(1024);
+    }
+
+    public LongBalanceMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Add the given deltas to the counters for a key, creating the entry when absent.
+     */
+    public void add(long key, long deltaIn, long deltaOut) {
+        int slot = slotOf(key);
+        if (!used[slot]) {
+            if (size + 1 > keys.length * LOAD_FACTOR) {
+                resize(keys.length << 1);
+                slot = slotOf(key);
+            }
+            used[slot] = true;
+            keys[slot] = key;
+            size++;
+        }
+        totalIn[slot] += deltaIn;
+        totalOut[slot] += deltaOut;
+    }
+
+    /**
+     * Set the counters for a key, creating the entry when absent.
+     */
+    public void put(long key, long in, long out) {
+        int slot = slotOf(key);
+        if (used[slot]) {
+            totalIn[slot] = in;
+            totalOut[slot] = out;
+        } else {
+            add(key, in, out);
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return used[slotOf(key)];
+    }
+
+    /**
+     * @return total in for the key, or 0 when absent
+     */
+    public long getIn(long key) {
+        int slot = slotOf(key);
+        return used[slot] ? totalIn[slot] : 0L;
+    }
+
+    /**
+     * @return total out for the key, or 0 when absent
+     */
+    public long getOut(long key) {
+        int slot = slotOf(key);
+        return used[slot] ? totalOut[slot] : 0L;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) consumer.accept(keys[i], totalIn[i], totalOut[i]);
+        }
+    }
+
+    // Linear probing; returns the key's slot or the empty slot where it would go
+    private int slotOf(long key) {
+        int slot = mix(key) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        totalIn = new long[capacity];
+        totalOut = new long[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldIn = totalIn;
+        long[] oldOut = totalOut;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = slotOf(oldKeys[i]);
+                used[slot] = true;
+                keys[slot] = oldKeys[i];
+                totalIn[slot] = oldIn[i];
+                totalOut[slot] = oldOut[i];
+                size++;
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+-- V19: Pooled ID Sequences
+-- Entities allocate IDs from the BIGSERIAL sequences in blocks of 50 so Hibernate
+-- can batch inserts. Rows inserted through the column default still draw single
+-- values from the same sequences and never collide with a Hibernate block.
+
+DO $$
+DECLARE
+  t RECORD;
+  seq TEXT;
+BEGIN
+  FOR t IN SELECT * FROM (VALUES
+    ('grades', 'grade_id'),
+    ('users', 'user_id'),
+    ('user_profiles', 'profile_id'),
+    ('categories', 'category_id'),
+    ('suppliers', 'supplier_id'),
+    ('warehouses', 'warehouse_id'),
+    ('items', 'item_id'),
+    ('stock_out_reasons', 'reason_id'),
+    ('stock_movements', 'stock_movement_id'),
+    ('batches', 'batch_id'),
+    ('item_prices', 'price_id'),
+    ('inventory_transactions', 'transaction_id'),
+    ('purchase_orders', 'purchase_order_id'),
+    ('purchase_order_items', 'purchase_order_item_id'),
+    ('sales_orders', 'sales_order_id'),
+    ('sales_order_items', 'sales_order_item_id'),
+    ('stock_transfers', 'transfer_id'),
+    ('employees', 'employee_id'),
+    ('demands', 'demand_id'),
+    ('demand_items', 'demand_item_id'),
+    ('stock_outs', 'id'),
+    ('audit_logs', 'audit_log_id')
+  ) AS v(table_name, column_name)
+  LOOP
+    seq := pg_get_serial_sequence(t.table_name, t.column_name);
+    EXECUTE format('ALTER SEQUENCE %s INCREMENT BY 50', seq);
+    -- Next nextval() returns MAX + 50, so the first pooled block starts above existing rows
+    EXECUTE format('SELECT setval(%L, GREATEST((SELECT COALESCE(MAX(%I), 0) FROM %I), 1))',
+                   seq, t.column_name, t.table_name);
+  END LOOP;
+END $$;
@@ -0,0 +1,24 @@
+-- V20: Item Stock Totals
+-- Per-item stock totals maintained in the same transaction as each stock movement,
+-- so stock summaries read one row per item instead of aggregating all movements
+
+CREATE TABLE item_stock_totals (
+    item_id BIGINT PRIMARY KEY REFERENCES items(item_id) ON DELETE CASCADE,
+    total_in BIGINT NOT NULL DEFAULT 0,
+    total_out BIGINT NOT NULL DEFAULT 0,
+    current_stock BIGINT NOT NULL DEFAULT 0,
+    last_movement_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Backfill from existing movement history
+INSERT INTO item_stock_totals (item_id, total_in, total_out, current_stock, last_movement_at)
+SELECT
+    item_id,
+    COALESCE(SUM(CASE WHEN movement_type = 'IN' THEN quantity ELSE 0 END), 0),
+    COALESCE(SUM(CASE WHEN movement_type = 'OUT' THEN quantity ELSE 0 END), 0),
+    COALESCE(SUM(CASE WHEN movement_type = 'IN' THEN quantity ELSE 0 END), 0) -
+    COALESCE(SUM(CASE WHEN movement_type = 'OUT' THEN quantity ELSE 0 END), 0),
+    MAX(created_at)
+FROM stock_movements
+GROUP BY item_id;
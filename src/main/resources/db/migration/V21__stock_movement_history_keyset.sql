@@ -0,0 +1,5 @@
+-- V21: Stock Movement History Keyset Indexes
+-- Support newest-first keyset pagination on (created_at, stock_movement_id)
+
+CREATE INDEX idx_stock_movements_created_id ON stock_movements(created_at DESC, stock_movement_id DESC);
+CREATE INDEX idx_stock_movements_item_created_id ON stock_movements(item_id, created_at DESC, stock_movement_id DESC);
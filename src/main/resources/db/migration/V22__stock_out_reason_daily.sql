@@ -0,0 +1,30 @@
+-- V22: Stock-Out Reason Daily Rollup
+-- Stock-out counts and quantities per (day, item, category, warehouse, reason type),
+-- maintained on write so reason analytics read rollup rows instead of raw movements
+
+CREATE TABLE stock_out_reason_daily (
+    id BIGSERIAL PRIMARY KEY,
+    movement_date DATE NOT NULL,
+    item_id BIGINT NOT NULL REFERENCES items(item_id) ON DELETE CASCADE,
+    category_id BIGINT NOT NULL,
+    warehouse_id BIGINT,
+    reason_type VARCHAR(50),
+    movement_count BIGINT NOT NULL DEFAULT 0,
+    total_quantity BIGINT NOT NULL DEFAULT 0
+);
+
+-- Conflict target for upserts; NULL warehouse and reason type each collapse into one row
+CREATE UNIQUE INDEX uq_stock_out_reason_daily_key ON stock_out_reason_daily (
+    movement_date, item_id, category_id, (COALESCE(warehouse_id, 0)), (COALESCE(reason_type, ''))
+);
+CREATE INDEX idx_stock_out_reason_daily_date ON stock_out_reason_daily(movement_date);
+CREATE INDEX idx_stock_out_reason_daily_item_date ON stock_out_reason_daily(item_id, movement_date);
+CREATE INDEX idx_stock_out_reason_daily_category_date ON stock_out_reason_daily(category_id, movement_date);
+
+-- Backfill from existing stock-out history
+INSERT INTO stock_out_reason_daily (movement_date, item_id, category_id, warehouse_id, reason_type, movement_count, total_quantity)
+SELECT CAST(sm.created_at AS DATE), sm.item_id, i.category_id, sm.warehouse_id, sm.reason_type, COUNT(*), SUM(sm.quantity)
+FROM stock_movements sm
+JOIN items i ON i.item_id = sm.item_id
+WHERE sm.movement_type = 'OUT'
+GROUP BY CAST(sm.created_at AS DATE), sm.item_id, i.category_id, sm.warehouse_id, sm.reason_type;
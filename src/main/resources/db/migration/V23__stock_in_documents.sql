@@ -0,0 +1,37 @@
+-- V23: Stock-In Document Headers
+-- One header row per stock-in reference number, written alongside the movement lines,
+-- so the grouped stock-in listing pages over headers instead of grouping all movements
+
+CREATE TABLE stock_in_documents (
+    stock_in_document_id BIGSERIAL PRIMARY KEY,
+    reference_number VARCHAR(100) NOT NULL UNIQUE,
+    supplier_id BIGINT REFERENCES suppliers(supplier_id),
+    warehouse_id BIGINT REFERENCES warehouses(warehouse_id),
+    created_by BIGINT NOT NULL REFERENCES users(user_id) ON DELETE RESTRICT,
+    source_mode VARCHAR(50),
+    line_count INTEGER NOT NULL DEFAULT 0,
+    notes TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Keyset pagination for the grouped listing, newest first
+CREATE INDEX idx_stock_in_documents_updated_id ON stock_in_documents(updated_at DESC, stock_in_document_id DESC);
+
+-- Backfill from existing stock-in history; header fields come from the earliest line
+INSERT INTO stock_in_documents (reference_number, supplier_id, warehouse_id, created_by, source_mode, line_count, notes, created_at, updated_at)
+SELECT
+    sm.reference_number,
+    (ARRAY_AGG(sm.supplier_id ORDER BY sm.created_at, sm.stock_movement_id))[1],
+    (ARRAY_AGG(sm.warehouse_id ORDER BY sm.created_at, sm.stock_movement_id))[1],
+    (ARRAY_AGG(sm.user_id ORDER BY sm.created_at, sm.stock_movement_id))[1],
+    (ARRAY_AGG(sm.source_mode ORDER BY sm.created_at, sm.stock_movement_id))[1],
+    COUNT(*),
+    (ARRAY_AGG(sm.notes ORDER BY sm.created_at, sm.stock_movement_id))[1],
+    MIN(sm.created_at),
+    MAX(sm.created_at)
+FROM stock_movements sm
+WHERE sm.movement_type = 'IN'
+  AND sm.reference_number IS NOT NULL
+  AND sm.reference_number <> ''
+GROUP BY sm.reference_number;
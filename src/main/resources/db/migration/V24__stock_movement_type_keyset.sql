@@ -0,0 +1,8 @@
+-- V24: Stock Movement Type Keyset Index
+-- Stock-in and stock-out listings page newest first within one movement type,
+-- so each page is a range scan of this index instead of a scan over both types
+
+CREATE INDEX idx_stock_movements_type_created_id ON stock_movements(movement_type, created_at DESC, stock_movement_id DESC);
+
+-- Superseded by the composite index above, which has movement_type as its leading column
+DROP INDEX IF EXISTS idx_stock_movements_movement_type;
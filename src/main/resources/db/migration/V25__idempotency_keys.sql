@@ -0,0 +1,18 @@
+-- V25: Idempotency Keys
+-- Responses of stock write requests sent with an Idempotency-Key header, so client
+-- retries replay the original response instead of applying the write again
+
+CREATE TABLE idempotency_keys (
+    scope VARCHAR(255) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    status_code INTEGER,
+    content_type VARCHAR(255),
+    response_body BYTEA,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (scope, idempotency_key)
+);
+
+-- TTL eviction
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
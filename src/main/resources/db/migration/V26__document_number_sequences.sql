@@ -0,0 +1,13 @@
+-- V26: Document Number Sequences
+-- One sequence per document prefix. DocumentNumberService draws a value and hands
+-- out the next 50 numbers from memory, so INCREMENT BY must match its block size.
+-- DM and PO sequences start after the highest existing ID, because earlier codes
+-- used the row ID as their number.
+
+CREATE SEQUENCE IF NOT EXISTS document_number_si_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS document_number_out_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS document_number_dm_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS document_number_po_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('document_number_dm_seq', COALESCE((SELECT MAX(demand_id) FROM demands), 0) + 1, false);
+SELECT setval('document_number_po_seq', COALESCE((SELECT MAX(purchase_order_id) FROM purchase_orders), 0) + 1, false);
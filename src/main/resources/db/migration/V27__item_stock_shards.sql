@@ -0,0 +1,12 @@
+-- V27: Item Stock Shards
+-- Sub-counters for hot items. While an item has shard rows its balance is
+-- items.current_stock plus the sum of its shards, so concurrent writers can
+-- update different rows instead of queuing on the items row.
+
+CREATE TABLE item_stock_shards (
+    item_id BIGINT NOT NULL REFERENCES items(item_id) ON DELETE CASCADE,
+    shard_no SMALLINT NOT NULL,
+    quantity BIGINT NOT NULL DEFAULT 0 CHECK (quantity >= 0),
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (item_id, shard_no)
+);
@@ -0,0 +1,25 @@
+-- V28: Item Warehouse Stock
+-- Per-(item, warehouse) balance of movements recorded against a warehouse,
+-- maintained with every stock movement. Movements without a warehouse count
+-- only towards the item's global stock.
+
+CREATE TABLE item_warehouse_stock (
+    item_id BIGINT NOT NULL REFERENCES items(item_id) ON DELETE CASCADE,
+    warehouse_id BIGINT NOT NULL REFERENCES warehouses(warehouse_id) ON DELETE CASCADE,
+    quantity BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (item_id, warehouse_id)
+);
+
+-- Per-warehouse listing
+CREATE INDEX idx_item_warehouse_stock_warehouse ON item_warehouse_stock(warehouse_id, item_id);
+
+INSERT INTO item_warehouse_stock (item_id, warehouse_id, quantity, updated_at)
+SELECT
+    item_id,
+    warehouse_id,
+    SUM(CASE WHEN movement_type = 'IN' THEN quantity WHEN movement_type = 'OUT' THEN -quantity ELSE 0 END),
+    CURRENT_TIMESTAMP
+FROM stock_movements
+WHERE warehouse_id IS NOT NULL
+GROUP BY item_id, warehouse_id;
@@ -0,0 +1,12 @@
+-- V29: Debounced stock_summary refresh
+-- refresh_stock_summary_trigger recomputed the whole view after every insert statement on
+-- inventory_transactions, serializing inserters behind a full aggregate. The view is now
+-- refreshed in the background by StockSummaryRefreshService, at most once per coalescing window.
+
+DROP TRIGGER IF EXISTS refresh_stock_summary_trigger ON inventory_transactions;
+DROP FUNCTION IF EXISTS refresh_stock_summary();
+
+-- REFRESH MATERIALIZED VIEW CONCURRENTLY requires a unique index on plain columns covering
+-- every row. batch_id is NULL for unbatched stock, so NULLs must compare equal (PostgreSQL 15+)
+-- for the index to key those rows; an expression such as COALESCE(batch_id, 0) is not accepted.
+CREATE UNIQUE INDEX idx_stock_summary_key ON stock_summary(item_id, warehouse_id, batch_id) NULLS NOT DISTINCT;
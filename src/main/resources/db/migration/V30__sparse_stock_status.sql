@@ -0,0 +1,43 @@
+-- V30: Sparse Stock Status
+-- The stock_status view crossed every active item with every warehouse. Classification now
+-- lives on item_warehouse_stock, which only has rows for (item, warehouse) pairs with
+-- movements, and is kept current by the statements that change quantities or item levels.
+-- The view's data source changes with it: available_stock was read from stock_summary (the
+-- inventory_transactions ledger) and is now the stock_movements balance in
+-- item_warehouse_stock. Pairs without a row are no longer listed, and stock recorded without
+-- a warehouse never appears, since item_warehouse_stock only holds warehouse-attributed stock.
+
+ALTER TABLE item_warehouse_stock
+    ADD COLUMN stock_status VARCHAR(10) NOT NULL DEFAULT 'OK' CHECK (stock_status IN ('OK', 'LOW', 'EXCESS'));
+
+UPDATE item_warehouse_stock s
+SET stock_status = CASE
+        WHEN s.quantity < i.minimum_stock THEN 'LOW'
+        WHEN s.quantity > i.maximum_stock THEN 'EXCESS'
+        ELSE 'OK'
+    END
+FROM items i
+WHERE i.item_id = s.item_id;
+
+-- Replenishment paging walks only the rows that need attention
+CREATE INDEX idx_item_warehouse_stock_alerts ON item_warehouse_stock(warehouse_id, item_id)
+    WHERE stock_status <> 'OK';
+
+DROP VIEW IF EXISTS stock_status;
+
+CREATE VIEW stock_status AS
+SELECT
+    i.item_id,
+    i.name,
+    i.sku,
+    w.warehouse_id,
+    w.name AS warehouse_name,
+    s.quantity AS available_stock,
+    i.minimum_stock,
+    i.maximum_stock,
+    s.stock_status,
+    s.updated_at AS last_updated
+FROM item_warehouse_stock s
+JOIN items i ON i.item_id = s.item_id
+JOIN warehouses w ON w.warehouse_id = s.warehouse_id
+WHERE i.is_active = TRUE AND w.is_active = TRUE;
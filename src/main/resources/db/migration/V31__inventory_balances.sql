@@ -0,0 +1,27 @@
+-- V31: Inventory Balances
+-- Running balance of the inventory_transactions ledger per (item, warehouse, batch),
+-- updated in the same transaction as each ledger insert so available stock is one row
+-- read instead of a sum over the item's history. STOCK_IN and TRANSFER_IN add, every
+-- other type subtracts, as in stock_summary.
+-- batch_id has no foreign key: ledger rows keep their quantities when a batch is deleted,
+-- and the balance verifier reports such rows.
+
+CREATE TABLE inventory_balances (
+    item_id BIGINT NOT NULL REFERENCES items(item_id) ON DELETE CASCADE,
+    warehouse_id BIGINT NOT NULL REFERENCES warehouses(warehouse_id) ON DELETE CASCADE,
+    batch_id BIGINT,
+    quantity BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE UNIQUE INDEX uk_inventory_balances_key ON inventory_balances(item_id, warehouse_id, (COALESCE(batch_id, 0)));
+
+INSERT INTO inventory_balances (item_id, warehouse_id, batch_id, quantity, updated_at)
+SELECT
+    item_id,
+    warehouse_id,
+    batch_id,
+    SUM(CASE WHEN transaction_type IN ('STOCK_IN', 'TRANSFER_IN') THEN quantity ELSE -quantity END),
+    CURRENT_TIMESTAMP
+FROM inventory_transactions
+GROUP BY item_id, warehouse_id, batch_id;
@@ -0,0 +1,20 @@
+-- V32: Drop Audit Triggers
+-- Row-level audit triggers serialized every changed row with to_jsonb and inserted its
+-- audit_logs row inside the writing transaction. Auditing now happens in the application:
+-- entity changes are captured after commit and batch-inserted by a background writer
+-- (AuditTrailService). Set-based stock balance updates are no longer audited here; the
+-- stock_movements ledger records them.
+
+DROP TRIGGER IF EXISTS audit_users_trigger ON users;
+DROP TRIGGER IF EXISTS audit_categories_trigger ON categories;
+DROP TRIGGER IF EXISTS audit_items_trigger ON items;
+DROP TRIGGER IF EXISTS audit_suppliers_trigger ON suppliers;
+DROP TRIGGER IF EXISTS audit_warehouses_trigger ON warehouses;
+DROP TRIGGER IF EXISTS audit_batches_trigger ON batches;
+DROP TRIGGER IF EXISTS audit_inventory_transactions_trigger ON inventory_transactions;
+DROP TRIGGER IF EXISTS audit_purchase_orders_trigger ON purchase_orders;
+DROP TRIGGER IF EXISTS audit_sales_orders_trigger ON sales_orders;
+DROP TRIGGER IF EXISTS audit_stock_transfers_trigger ON stock_transfers;
+
+DROP FUNCTION IF EXISTS audit_log_action();
+DROP FUNCTION IF EXISTS audit_stock_movement();
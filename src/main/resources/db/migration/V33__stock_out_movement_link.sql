@@ -0,0 +1,55 @@
+-- V33: Link stock-outs to their stock movement
+-- Editing or deleting a stock-out updates the OUT movement it was recorded with, so the
+-- ledger and the read models derived from it follow the edit. Each movement belongs to at
+-- most one stock-out.
+
+ALTER TABLE stock_outs ADD COLUMN stock_movement_id BIGINT REFERENCES stock_movements(stock_movement_id) ON DELETE SET NULL;
+
+-- Batch stock-outs share a reference number with their movements. A document can repeat an
+-- item with the same quantity, so lines are paired in ID order within each
+-- (reference, item, quantity); lines edited before this migration stay unlinked.
+WITH outs AS (
+    SELECT so.id, so.reference_number, so.item_id, so.quantity,
+        ROW_NUMBER() OVER (PARTITION BY so.reference_number, so.item_id, so.quantity ORDER BY so.id) AS rn
+    FROM stock_outs so
+    WHERE so.reference_number IS NOT NULL
+), movements AS (
+    SELECT m.stock_movement_id, m.reference_number, m.item_id, m.quantity,
+        ROW_NUMBER() OVER (PARTITION BY m.reference_number, m.item_id, m.quantity ORDER BY m.stock_movement_id) AS rn
+    FROM stock_movements m
+    WHERE m.movement_type = 'OUT' AND m.reference_number IS NOT NULL
+)
+UPDATE stock_outs so
+SET stock_movement_id = m.stock_movement_id
+FROM outs o
+JOIN movements m ON m.reference_number = o.reference_number
+    AND m.item_id = o.item_id
+    AND m.quantity = o.quantity
+    AND m.rn = o.rn
+WHERE so.id = o.id;
+
+-- Single stock-outs were recorded in the same transaction as an unreferenced movement.
+-- A pair is linked when each is the other's closest match in time, so two identical
+-- stock-outs made together never share a movement. Stock-outs edited before this
+-- migration no longer match theirs and stay unlinked.
+WITH candidates AS (
+    SELECT so.id, m.stock_movement_id,
+        ROW_NUMBER() OVER (PARTITION BY so.id
+            ORDER BY ABS(EXTRACT(EPOCH FROM (m.created_at - so.created_at))), m.stock_movement_id) AS out_rank,
+        ROW_NUMBER() OVER (PARTITION BY m.stock_movement_id
+            ORDER BY ABS(EXTRACT(EPOCH FROM (m.created_at - so.created_at))), so.id) AS movement_rank
+    FROM stock_outs so
+    JOIN stock_movements m ON m.item_id = so.item_id
+        AND m.movement_type = 'OUT'
+        AND m.reference_number IS NULL
+        AND m.quantity = so.quantity
+        AND m.warehouse_id IS NOT DISTINCT FROM so.source_warehouse_id
+        AND m.created_at BETWEEN so.created_at - INTERVAL '5 seconds' AND so.created_at + INTERVAL '5 seconds'
+    WHERE so.reference_number IS NULL
+)
+UPDATE stock_outs so
+SET stock_movement_id = c.stock_movement_id
+FROM candidates c
+WHERE so.id = c.id AND c.out_rank = 1 AND c.movement_rank = 1;
+
+CREATE UNIQUE INDEX idx_stock_outs_stock_movement ON stock_outs(stock_movement_id);
@@ -0,0 +1,6 @@
+-- V34: Warehouse index for stock movement history
+-- History filtered by warehouse pages newest first on (created_at, stock_movement_id);
+-- with the warehouse as prefix each page is a range scan instead of a filter over the
+-- whole-ledger index.
+
+CREATE INDEX idx_stock_movements_warehouse_created_id ON stock_movements(warehouse_id, created_at DESC, stock_movement_id DESC);
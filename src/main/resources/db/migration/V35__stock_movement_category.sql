@@ -0,0 +1,21 @@
+-- V35: Category on stock movements
+-- stock_out_reason_daily is keyed by category, but a removed or edited stock-out was
+-- subtracted under the item's category at that time, so after an item changed category the
+-- subtraction missed the row the stock-out was counted in. Each movement now records the
+-- item's category when it was written, and the rollup uses that category in both directions.
+
+ALTER TABLE stock_movements ADD COLUMN category_id BIGINT;
+
+UPDATE stock_movements sm
+SET category_id = i.category_id
+FROM items i
+WHERE i.item_id = sm.item_id;
+
+-- Rebuild the rollup from the stamped movements so both agree from here on
+DELETE FROM stock_out_reason_daily;
+
+INSERT INTO stock_out_reason_daily (movement_date, item_id, category_id, warehouse_id, reason_type, movement_count, total_quantity)
+SELECT CAST(sm.created_at AS DATE), sm.item_id, sm.category_id, sm.warehouse_id, sm.reason_type, COUNT(*), SUM(sm.quantity)
+FROM stock_movements sm
+WHERE sm.movement_type = 'OUT'
+GROUP BY CAST(sm.created_at AS DATE), sm.item_id, sm.category_id, sm.warehouse_id, sm.reason_type;
@@ -0,0 +1,12 @@
+-- V36: Clamp negative warehouse balances
+-- Stock-outs that drew on an item's unattributed stock (received without a warehouse)
+-- were subtracted in full from the warehouse they left, leaving negative balances that
+-- listed as LOW. Balances now stop at zero; existing negative rows are set to zero and
+-- reclassified.
+
+UPDATE item_warehouse_stock s
+SET quantity = 0,
+    stock_status = CASE WHEN 0 < i.minimum_stock THEN 'LOW' WHEN 0 > i.maximum_stock THEN 'EXCESS' ELSE 'OK' END,
+    updated_at = CURRENT_TIMESTAMP
+FROM items i
+WHERE i.item_id = s.item_id AND s.quantity < 0;
@@ -0,0 +1,13 @@
+-- V37: Indexes for the low-stock listing
+-- An item is low when its balance is at or below its reorder level, else its minimum stock
+-- when above zero, else a default passed with the query. Shards never hold negative stock,
+-- so items.current_stock alone must already be at or below that level; the query tests
+-- that first. Items with a level of their own are found through the expression index,
+-- items without one through the partial index on current_stock; only those candidates
+-- have their shards summed.
+
+CREATE INDEX idx_items_own_stock_level ON items ((current_stock - COALESCE(reorder_level, NULLIF(minimum_stock, 0))))
+    WHERE COALESCE(reorder_level, NULLIF(minimum_stock, 0)) IS NOT NULL;
+
+CREATE INDEX idx_items_default_stock_level ON items(current_stock)
+    WHERE COALESCE(reorder_level, NULLIF(minimum_stock, 0)) IS NULL;
@@ -0,0 +1,102 @@
+package management.backend.inventory.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Insert throughput benchmark for IDENTITY versus pooled-sequence ID generation.
+ *
+ * Runs only against a real PostgreSQL instance:
+ * mvn test -Dtest=IdGenerationBenchmarkTest -Dbenchmark.jdbc.url=jdbc:postgresql://localhost:5432/inventory
+ *   -Dbenchmark.jdbc.user=postgres -Dbenchmark.jdbc.password=secret
+ *
+ * The IDENTITY run mirrors what Hibernate does for GenerationType.IDENTITY: one
+ * INSERT ... RETURNING round trip per row. The pooled run mirrors the SEQUENCE
+ * generator with allocationSize 50: one nextval per block and JDBC batches of 50.
+ */
+@EnabledIfSystemProperty(named = "benchmark.jdbc.url", matches = ".+")
+@DisplayName("ID Generation Benchmark")
+class IdGenerationBenchmarkTest {
+
+    private static final int ROWS = 20_000;
+    private static final int BLOCK = 50;
+
+    @Test
+    @DisplayName("Pooled sequence inserts outperform identity inserts")
+    void compareInsertThroughput() throws Exception {
+        String url = System.getProperty("benchmark.jdbc.url");
+        String user = System.getProperty("benchmark.jdbc.user", "postgres");
+        String password = System.getProperty("benchmark.jdbc.password", "");
+        String rewriteUrl = url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true";
+
+        try (Connection con = DriverManager.getConnection(rewriteUrl, user, password)) {
+            try (Statement st = con.createStatement()) {
+                st.execute("DROP TABLE IF EXISTS bench_movements");
+                st.execute("CREATE TABLE bench_movements (id BIGSERIAL PRIMARY KEY, item_id BIGINT NOT NULL, quantity BIGINT NOT NULL)");
+                st.execute("ALTER SEQUENCE bench_movements_id_seq INCREMENT BY " + BLOCK);
+            }
+            con.setAutoCommit(false);
+
+            double identityRate = insertWithIdentity(con);
+            double pooledRate = insertWithPooledSequence(con);
+
+            System.out.printf("IDENTITY: %.0f inserts/s, pooled SEQUENCE: %.0f inserts/s (%.1fx)%n",
+                identityRate, pooledRate, pooledRate / identityRate);
+
+            try (Statement st = con.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM bench_movements")) {
+                rs.next();
+                assertEquals(2L * ROWS, rs.getLong(1));
+            }
+            con.rollback();
+        }
+    }
+
+    private double insertWithIdentity(Connection con) throws Exception {
+        long start = System.nanoTime();
+        try (PreparedStatement ps = con.prepareStatement(
+                "INSERT INTO bench_movements (item_id, quantity) VALUES (?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ROWS; i++) {
+                ps.setLong(1, i % 100);
+                ps.setLong(2, 1);
+                ps.executeUpdate();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    keys.next();
+                }
+            }
+        }
+        return ROWS / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private double insertWithPooledSequence(Connection con) throws Exception {
+        long start = System.nanoTime();
+        try (PreparedStatement next = con.prepareStatement("SELECT nextval('bench_movements_id_seq')");
+             PreparedStatement ps = con.prepareStatement(
+                "INSERT INTO bench_movements (id, item_id, quantity) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i += BLOCK) {
+                long hi;
+                try (ResultSet rs = next.executeQuery()) {
+                    rs.next();
+                    hi = rs.getLong(1);
+                }
+                for (int j = 0; j < BLOCK && i + j < ROWS; j++) {
+                    ps.setLong(1, hi - BLOCK + 1 + j);
+                    ps.setLong(2, (i + j) % 100);
+                    ps.setLong(3, 1);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        }
+        return ROWS / ((System.nanoTime() - start) / 1e9);
+    }
+}
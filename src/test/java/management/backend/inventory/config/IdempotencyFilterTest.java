@@ -0,0 +1,149 @@
+package management.backend.inventory.config;
+
+import management.backend.inventory.repository.IdempotencyKeyRepository.StoredKey;
+import management.backend.inventory.service.IdempotencyKeyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+
+    @Mock
+    private IdempotencyKeyService idempotencyKeyService;
+
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new IdempotencyFilter(idempotencyKeyService, new AppProperties());
+    }
+
+    private MockHttpServletRequest stockOutRequest(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/stock/out");
+        request.setContextPath("/api");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        if (key != null) request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        return request;
+    }
+
+    @Test
+    void requestWithoutKey_PassesThrough() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(stockOutRequest(null, "{}"), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        verifyNoInteractions(idempotencyKeyService);
+    }
+
+    @Test
+    void firstRequest_RunsAndStoresResponse() throws Exception {
+        when(idempotencyKeyService.reserve(anyString(), eq("key-1"), anyString())).thenReturn(true);
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                assertEquals("{\"quantity\":5}", new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+                resp.setStatus(201);
+                resp.setContentType("application/json");
+                resp.getWriter().write("{\"id\":1}");
+            }
+        });
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(stockOutRequest("key-1", "{\"quantity\":5}"), response, chain);
+
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"id\":1}", response.getContentAsString());
+        verify(idempotencyKeyService).complete(eq("anonymous POST /stock/out"), eq("key-1"), eq(201),
+            eq("application/json"), any(byte[].class));
+    }
+
+    @Test
+    void serverError_ReleasesKey() throws Exception {
+        when(idempotencyKeyService.reserve(anyString(), eq("key-1"), anyString())).thenReturn(true);
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                resp.setStatus(500);
+            }
+        });
+
+        filter.doFilter(stockOutRequest("key-1", "{}"), new MockHttpServletResponse(), chain);
+
+        verify(idempotencyKeyService).release("anonymous POST /stock/out", "key-1");
+        verify(idempotencyKeyService, never()).complete(anyString(), anyString(), any(int.class), any(), any());
+    }
+
+    @Test
+    void retry_ReplaysStoredResponse() throws Exception {
+        MockHttpServletRequest first = stockOutRequest("key-1", "{}");
+        when(idempotencyKeyService.reserve(anyString(), eq("key-1"), anyString())).thenReturn(true);
+        filter.doFilter(first, new MockHttpServletResponse(), new MockFilterChain());
+        ArgumentCaptor<String> scope = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyKeyService).reserve(scope.capture(), eq("key-1"), hash.capture());
+
+        when(idempotencyKeyService.reserve(anyString(), eq("key-1"), anyString())).thenReturn(false);
+        when(idempotencyKeyService.find(scope.getValue(), "key-1")).thenReturn(Optional.of(
+            new StoredKey(hash.getValue(), 201, "application/json", "{\"id\":1}".getBytes(StandardCharsets.UTF_8))));
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(stockOutRequest("key-1", "{}"), response, chain);
+
+        assertNull(chain.getRequest());
+        assertEquals(201, response.getStatus());
+        assertEquals("true", response.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals("{\"id\":1}", response.getContentAsString());
+    }
+
+    @Test
+    void retryWithDifferentBody_Returns422() throws Exception {
+        when(idempotencyKeyService.reserve(anyString(), eq("key-1"), anyString())).thenReturn(false);
+        when(idempotencyKeyService.find("anonymous POST /stock/out", "key-1")).thenReturn(Optional.of(
+            new StoredKey("other-hash", 201, "application/json", new byte[0])));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(stockOutRequest("key-1", "{}"), response, new MockFilterChain());
+
+        assertEquals(422, response.getStatus());
+    }
+
+    @Test
+    void retryWhileInProgress_Returns409() throws Exception {
+        when(idempotencyKeyService.reserve(anyString(), eq("key-1"), anyString())).thenReturn(false);
+        when(idempotencyKeyService.find("anonymous POST /stock/out", "key-1")).thenReturn(Optional.of(
+            new StoredKey("hash", null, null, null)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(stockOutRequest("key-1", "{}"), response, new MockFilterChain());
+
+        assertEquals(409, response.getStatus());
+    }
+}
@@ -50,7 +50,7 @@ class ItemControllerTest {
         testItemResponse.setName("Test Item");
         testItemResponse.setSku("SKU001");
         testItemResponse.setUnitPrice(BigDecimal.valueOf(10.00));
-        testItemResponse.setCurrentStock(100);
+        testItemResponse.setCurrentStock(100L);
         testItemResponse.setCreatedAt(LocalDateTime.now());
 
         testCreateRequest = new CreateItemRequest();
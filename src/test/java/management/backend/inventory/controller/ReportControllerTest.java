@@ -0,0 +1,126 @@
+package management.backend.inventory.controller;
+
+import management.backend.inventory.dto.CursorPageResponse;
+import management.backend.inventory.dto.StockMovementHistoryFilter;
+import management.backend.inventory.dto.StockMovementHistoryResponse;
+import management.backend.inventory.entity.MovementType;
+import management.backend.inventory.exception.ValidationException;
+import management.backend.inventory.repository.AuditLogRepository;
+import management.backend.inventory.service.StockMovementExportService;
+import management.backend.inventory.service.StockOutReasonService;
+import management.backend.inventory.service.StockService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReportController
+ * Tests filter binding for the stock movement report and export
+ */
+@ExtendWith(MockitoExtension.class)
+class ReportControllerTest {
+
+    @Mock
+    private StockOutReasonService stockOutReasonService;
+
+    @Mock
+    private StockService stockService;
+
+    @Mock
+    private StockMovementExportService stockMovementExportService;
+
+    @Mock
+    private AuditLogRepository auditLogRepository;
+
+    @InjectMocks
+    private ReportController reportController;
+
+    @Test
+    @DisplayName("Stock movement report binds the filter and passes the page request through")
+    void getStockMovementsReport_BindsFilter() {
+        // Arrange
+        CursorPageResponse<StockMovementHistoryResponse> page = new CursorPageResponse<>(List.of(), "next", true);
+        when(stockService.getMovementHistory(any(StockMovementHistoryFilter.class), eq("abc"), eq(25))).thenReturn(page);
+
+        // Act
+        ResponseEntity<CursorPageResponse<StockMovementHistoryResponse>> response =
+            reportController.getStockMovementsReport("2024-01-01", "2024-01-31", "in", 5L, "abc", 25);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(page, response.getBody());
+        verify(stockService).getMovementHistory(argThat(f ->
+            f.getMovementType() == MovementType.IN
+                && f.getItemId().equals(5L)
+                && f.getWarehouseId() == null
+                && f.getStartDate().equals(LocalDate.of(2024, 1, 1).atStartOfDay())
+                && f.getEndDate().equals(LocalDate.of(2024, 1, 31).atTime(LocalTime.MAX))
+        ), eq("abc"), eq(25));
+    }
+
+    @Test
+    @DisplayName("Stock movement report defaults to the last month")
+    void getStockMovementsReport_NoDates_DefaultsToLastMonth() {
+        // Arrange
+        when(stockService.getMovementHistory(any(StockMovementHistoryFilter.class), isNull(), eq(100)))
+            .thenReturn(new CursorPageResponse<>(List.of(), null, false));
+
+        // Act
+        reportController.getStockMovementsReport(null, null, null, null, null, 100);
+
+        // Assert
+        verify(stockService).getMovementHistory(argThat(f ->
+            f.getMovementType() == null
+                && f.getItemId() == null
+                && f.getStartDate().equals(LocalDate.now().minusMonths(1).atStartOfDay())
+                && f.getEndDate().equals(LocalDate.now().atTime(LocalTime.MAX))
+        ), isNull(), eq(100));
+    }
+
+    @Test
+    @DisplayName("Stock movement report rejects an unknown movement type")
+    void getStockMovementsReport_UnknownMovementType_ThrowsValidation() {
+        // Act
+        ValidationException e = assertThrows(ValidationException.class,
+            () -> reportController.getStockMovementsReport(null, null, "sideways", null, null, 100));
+
+        // Assert
+        assertTrue(e.getFieldErrors().containsKey("movementType"));
+        verifyNoInteractions(stockService);
+    }
+
+    @Test
+    @DisplayName("Export binds the filter and streams with the format's content type")
+    void exportStockMovements_BindsFilter() throws Exception {
+        // Act
+        ResponseEntity<StreamingResponseBody> response =
+            reportController.exportStockMovements("2024-02-01", null, "out", null, 3L, "ndjson", false);
+        response.getBody().writeTo(new ByteArrayOutputStream());
+
+        // Assert
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        assertTrue(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION).endsWith(".ndjson\""));
+        verify(stockMovementExportService).export(argThat(f ->
+            f.getMovementType() == MovementType.OUT
+                && f.getWarehouseId().equals(3L)
+                && f.getStartDate().equals(LocalDate.of(2024, 2, 1).atStartOfDay())
+                && f.getEndDate() == null
+        ), eq(StockMovementExportService.Format.NDJSON), eq(false), any());
+    }
+}
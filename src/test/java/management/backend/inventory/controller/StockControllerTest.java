@@ -3,8 +3,12 @@ package management.backend.inventory.controller;
 import management.backend.inventory.dto.*;
 import management.backend.inventory.entity.MovementType;
 import management.backend.inventory.entity.StockMovement;
+import management.backend.inventory.entity.StockSourceMode;
+import management.backend.inventory.entity.StockStatus;
+import management.backend.inventory.exception.ValidationException;
 import management.backend.inventory.service.StockOutReasonService;
 import management.backend.inventory.service.StockService;
+import management.backend.inventory.service.StockWriteBehindService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -20,6 +24,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -38,6 +43,9 @@ class StockControllerTest {
     @Mock
     private StockOutReasonService stockOutReasonService;
 
+    @Mock
+    private StockWriteBehindService stockWriteBehindService;
+
     @Mock
     private Authentication authentication;
 
@@ -50,6 +58,9 @@ class StockControllerTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(stockWriteBehindService.execute(any()))
+            .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+
         testMovement = new StockMovement();
         testMovement.setStockMovementId(1L);
         testMovement.setReferenceNumber("REF001");
@@ -64,7 +75,7 @@ class StockControllerTest {
         testItemStock = new ItemStockResponse();
         testItemStock.setItemId(1L);
         testItemStock.setName("Test Item");
-        testItemStock.setCurrentStock(100);
+        testItemStock.setCurrentStock(100L);
     }
 
     @Test
@@ -150,22 +161,48 @@ class StockControllerTest {
     }
 
     @Test
-    @DisplayName("Get stock in groups returns grouped summaries")
+    @DisplayName("Get stock in groups returns a page of documents")
     void getStockInGroups_ReturnsGroupedSummaries() {
         // Arrange
-        List<Map<String, Object>> summaries = Arrays.asList(
-            Map.of("referenceNumber", "REF001", "count", 5),
-            Map.of("referenceNumber", "REF002", "count", 3)
+        LocalDateTime now = LocalDateTime.now();
+        List<StockInDocumentResponse> documents = Arrays.asList(
+            new StockInDocumentResponse(2L, "REF002", 3, "Test User", now, now, null, "Main", StockSourceMode.NON_SUPPLIER),
+            new StockInDocumentResponse(1L, "REF001", 5, "Test User", now, now, "Acme", "Main", StockSourceMode.SUPPLIER)
         );
-        when(stockService.getStockInSummaries()).thenReturn(summaries);
+        when(stockService.getStockInSummaries("abc", 2))
+            .thenReturn(new CursorPageResponse<>(documents, "next", true));
 
         // Act
-        ResponseEntity<List<Map<String, Object>>> response = stockController.getStockInGroups();
+        ResponseEntity<CursorPageResponse<StockInDocumentResponse>> response = stockController.getStockInGroups("abc", 2);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(2, response.getBody().size());
+        assertEquals(2, response.getBody().getItems().size());
+        assertEquals("REF002", response.getBody().getItems().get(0).getReferenceNumber());
+        assertEquals("SUPPLIER", response.getBody().getItems().get(1).getSourceMode());
+        assertTrue(response.getBody().isHasMore());
+    }
+
+    @Test
+    @DisplayName("Get stock out transactions returns a page of movements")
+    void getStockOutTransactions_ReturnsPage() {
+        // Arrange
+        StockMovementHistoryResponse row = new StockMovementHistoryResponse(
+            2L, 1L, "Test Item", "TEST-001", "OUT", 5L, 10L, 5L,
+            "USED", null, null, null, "Test User", "test@example.com", LocalDateTime.now(), BigDecimal.TEN);
+        when(stockService.getStockOutTransactions(null, 50))
+            .thenReturn(new CursorPageResponse<>(List.of(row), "next", true));
+
+        // Act
+        ResponseEntity<CursorPageResponse<StockMovementHistoryResponse>> response =
+            stockController.getStockOutTransactions(null, 50);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("OUT", response.getBody().getItems().get(0).getMovementType());
+        assertEquals("next", response.getBody().getNextCursor());
     }
 
     @Test
@@ -262,6 +299,58 @@ class StockControllerTest {
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
+    @Test
+    @DisplayName("Get warehouse stock returns per-item balances")
+    void getWarehouseStock_ReturnsBalances() {
+        // Arrange
+        WarehouseStockResponse row = new WarehouseStockResponse(1L, "Test Item", "SKU-001", 3L, "Main", 40L, LocalDateTime.now());
+        when(stockService.getWarehouseStock(3L)).thenReturn(List.of(row));
+
+        // Act
+        ResponseEntity<List<WarehouseStockResponse>> response = stockController.getWarehouseStock(3L);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().size());
+        assertEquals(40L, response.getBody().get(0).getQuantity());
+    }
+
+    @Test
+    @DisplayName("Get stock status alerts returns a page of non-OK rows")
+    void getStockStatusAlerts_ReturnsPage() {
+        // Arrange
+        StockStatusResponse row = new StockStatusResponse(1L, "Test Item", "SKU-001", 3L, "Main", 2L, 10L, 100L,
+            StockStatus.LOW, LocalDateTime.now());
+        when(stockService.getStockStatusAlerts(3L, StockStatus.LOW, null, 50))
+            .thenReturn(new CursorPageResponse<>(List.of(row), "next", true));
+
+        // Act
+        ResponseEntity<CursorPageResponse<StockStatusResponse>> response =
+            stockController.getStockStatusAlerts(3L, StockStatus.LOW, null, 50);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(StockStatus.LOW, response.getBody().getItems().get(0).getStockStatus());
+        assertTrue(response.getBody().isHasMore());
+    }
+
+    @Test
+    @DisplayName("Get item warehouse stock returns per-warehouse balances")
+    void getItemWarehouseStock_ReturnsBalances() {
+        // Arrange
+        when(stockService.getItemWarehouseStock(1L)).thenReturn(List.of(
+            new WarehouseStockResponse(1L, "Test Item", "SKU-001", 3L, "Main", 40L, LocalDateTime.now()),
+            new WarehouseStockResponse(1L, "Test Item", "SKU-001", 4L, "Overflow", 10L, LocalDateTime.now())));
+
+        // Act
+        ResponseEntity<List<WarehouseStockResponse>> response = stockController.getItemWarehouseStock(1L);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().size());
+        verify(stockService).getItemWarehouseStock(1L);
+    }
+
     @Test
     @DisplayName("Get predefined reasons returns reasons list")
     void getPredefinedReasons_ReturnsReasonsList() {
@@ -304,15 +393,51 @@ class StockControllerTest {
     @DisplayName("Get movement history returns movements")
     void getMovementHistory_ReturnsMovements() {
         // Arrange
-        List<StockMovement> movements = Arrays.asList(testMovement);
-        when(stockService.getRecentStockMovements()).thenReturn(movements);
+        StockMovementHistoryResponse row = new StockMovementHistoryResponse(
+            1L, 1L, "Test Item", "TEST-001", "IN", 10L, 0L, 10L,
+            null, null, null, "REF-001", "Test User", "test@example.com", LocalDateTime.now(), BigDecimal.TEN);
+        CursorPageResponse<StockMovementHistoryResponse> page = new CursorPageResponse<>(List.of(row), null, false);
+        when(stockService.getMovementHistory(any(StockMovementHistoryFilter.class), isNull(), eq(50))).thenReturn(page);
 
         // Act
-        ResponseEntity<List<StockMovement>> response = stockController.getMovementHistory(null, null);
+        ResponseEntity<CursorPageResponse<StockMovementHistoryResponse>> response =
+            stockController.getMovementHistory(null, null, null, null, null, null, 50);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(1, response.getBody().size());
+        assertEquals(1, response.getBody().getItems().size());
+        assertFalse(response.getBody().isHasMore());
+    }
+
+    @Test
+    @DisplayName("Get movement history passes filters to service")
+    void getMovementHistory_PassesFilters() {
+        // Arrange
+        when(stockService.getMovementHistory(any(StockMovementHistoryFilter.class), eq("abc"), eq(20)))
+            .thenReturn(new CursorPageResponse<>(List.of(), null, false));
+
+        // Act
+        stockController.getMovementHistory("2024-01-01", "2024-01-31", "out", 5L, 7L, "abc", 20);
+
+        // Assert
+        verify(stockService).getMovementHistory(argThat(f ->
+            f.getMovementType() == MovementType.OUT
+                && f.getItemId().equals(5L)
+                && f.getWarehouseId().equals(7L)
+                && f.getStartDate().equals(LocalDate.of(2024, 1, 1).atStartOfDay())
+        ), eq("abc"), eq(20));
+    }
+
+    @Test
+    @DisplayName("Get movement history rejects a malformed date")
+    void getMovementHistory_MalformedDate_ThrowsValidation() {
+        // Act
+        ValidationException e = assertThrows(ValidationException.class,
+            () -> stockController.getMovementHistory("2024-13-01", null, null, null, null, null, 50));
+
+        // Assert
+        assertTrue(e.getFieldErrors().containsKey("startDate"));
+        verifyNoInteractions(stockService);
     }
 }
@@ -0,0 +1,168 @@
+package management.backend.inventory.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import management.backend.inventory.config.AppProperties;
+import management.backend.inventory.entity.AuditAction;
+import management.backend.inventory.repository.AuditLogJdbcRepository;
+import management.backend.inventory.repository.AuditLogJdbcRepository.AuditRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AuditTrailService
+ * Tests batched inserts, row-by-row fallback and backpressure
+ */
+@ExtendWith(MockitoExtension.class)
+class AuditTrailServiceTest {
+
+    @Mock
+    private AuditLogJdbcRepository auditLogJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AppProperties appProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private AuditTrailService auditTrailService;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        appProperties.getAudit().setMaxBatchSize(10);
+        appProperties.getAudit().setFlushInterval(Duration.ofMillis(50));
+        appProperties.getAudit().setOfferTimeout(Duration.ZERO);
+        createService();
+    }
+
+    private void createService() {
+        meterRegistry = new SimpleMeterRegistry();
+        auditTrailService = new AuditTrailService(auditLogJdbcRepository, transactionManager, new ObjectMapper(),
+            appProperties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        auditTrailService.stop();
+    }
+
+    private static AuditTrailService.Change change(long entityId) {
+        Map<String, Object> oldValues = new LinkedHashMap<>();
+        oldValues.put("name", "Old");
+        Map<String, Object> newValues = new LinkedHashMap<>();
+        newValues.put("name", "New");
+        return new AuditTrailService.Change(7L, AuditAction.UPDATE, "items", entityId, oldValues, newValues,
+            LocalDateTime.of(2024, 1, 1, 12, 0));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<AuditRow> insertedRows() {
+        ArgumentCaptor<List<AuditRow>> captor = ArgumentCaptor.forClass(List.class);
+        verify(auditLogJdbcRepository, atLeastOnce()).insertAll(captor.capture());
+        List<AuditRow> rows = new ArrayList<>();
+        captor.getAllValues().forEach(rows::addAll);
+        return rows;
+    }
+
+    @Test
+    @DisplayName("Queued changes are inserted in one batch")
+    void submit_InsertsChangesInOneBatch() {
+        // Arrange
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        for (long id = 1; id <= 3; id++) {
+            auditTrailService.submit(change(id));
+        }
+
+        // Act
+        auditTrailService.start();
+        auditTrailService.stop();
+
+        // Assert
+        verify(auditLogJdbcRepository, times(1)).insertAll(anyList());
+        List<AuditRow> rows = insertedRows();
+        assertEquals(3, rows.size());
+        AuditRow first = rows.get(0);
+        assertEquals(7L, first.userId());
+        assertEquals("UPDATE", first.action());
+        assertEquals("items", first.entityType());
+        assertEquals(1L, first.entityId());
+        assertEquals("{\"name\":\"Old\"}", first.oldValues());
+        assertEquals("{\"name\":\"New\"}", first.newValues());
+        assertEquals(3.0, meterRegistry.get("audit.entries.written").counter().count());
+    }
+
+    @Test
+    @DisplayName("A failing batch is retried row by row")
+    @SuppressWarnings("unchecked")
+    void flush_FailingBatch_RetriesRowByRow() {
+        // Arrange
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        doThrow(new DataIntegrityViolationException("fk"))
+            .doNothing()
+            .doThrow(new DataIntegrityViolationException("fk"))
+            .when(auditLogJdbcRepository).insertAll(anyList());
+
+        // Act
+        auditTrailService.flush(List.of(change(1), change(2)));
+
+        // Assert
+        verify(auditLogJdbcRepository, times(3)).insertAll(anyList());
+        assertEquals(1.0, meterRegistry.get("audit.entries.written").counter().count());
+        assertEquals(1.0, meterRegistry.get("audit.entries.failed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Changes are dropped and counted when the queue stays full")
+    void submit_QueueFull_DropsChange() {
+        // Arrange
+        appProperties.getAudit().setQueueCapacity(2);
+        createService();
+
+        // Act
+        for (long id = 1; id <= 5; id++) {
+            auditTrailService.submit(change(id));
+        }
+
+        // Assert
+        assertEquals(3.0, meterRegistry.get("audit.entries.dropped").counter().count());
+        assertEquals(2.0, meterRegistry.get("audit.queue.size").gauge().value());
+        verifyNoInteractions(auditLogJdbcRepository);
+    }
+
+    @Test
+    @DisplayName("Disabled audit ignores changes")
+    void submit_Disabled_IgnoresChange() {
+        // Arrange
+        appProperties.getAudit().setEnabled(false);
+        createService();
+
+        // Act
+        auditTrailService.submit(change(1));
+        auditTrailService.onApplicationReady();
+        auditTrailService.stop();
+
+        // Assert
+        assertEquals(0.0, meterRegistry.get("audit.queue.size").gauge().value());
+        verifyNoInteractions(auditLogJdbcRepository, transactionManager);
+    }
+}
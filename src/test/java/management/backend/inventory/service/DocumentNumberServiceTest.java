@@ -0,0 +1,79 @@
+package management.backend.inventory.service;
+
+import management.backend.inventory.repository.DocumentNumberRepository;
+import management.backend.inventory.service.DocumentNumberService.DocumentType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentNumberServiceTest {
+
+    @Mock
+    private DocumentNumberRepository documentNumberRepository;
+
+    private DocumentNumberService documentNumberService;
+
+    @BeforeEach
+    void setUp() {
+        documentNumberService = new DocumentNumberService(documentNumberRepository);
+    }
+
+    @Test
+    void next_FormatsPrefixDateAndNumber() {
+        when(documentNumberRepository.nextValue("document_number_si_seq")).thenReturn(51L);
+
+        assertEquals("SI-20240131-000051", documentNumberService.next(DocumentType.STOCK_IN, LocalDate.of(2024, 1, 31)));
+        assertEquals("SI-20240131-000052", documentNumberService.next(DocumentType.STOCK_IN, LocalDate.of(2024, 1, 31)));
+    }
+
+    @Test
+    void nextNumber_DrawsSequenceOncePerBlock() {
+        when(documentNumberRepository.nextValue("document_number_out_seq")).thenReturn(1L, 51L);
+
+        for (int i = 0; i < DocumentNumberService.BLOCK_SIZE; i++) {
+            assertEquals(i + 1, documentNumberService.nextNumber(DocumentType.STOCK_OUT));
+        }
+        assertEquals(51, documentNumberService.nextNumber(DocumentType.STOCK_OUT));
+        verify(documentNumberRepository, times(2)).nextValue("document_number_out_seq");
+    }
+
+    @Test
+    void nextNumber_ConcurrentCallersGetDistinctNumbers() throws Exception {
+        AtomicLong sequence = new AtomicLong(1);
+        when(documentNumberRepository.nextValue("document_number_dm_seq"))
+            .thenAnswer(inv -> sequence.getAndAdd(DocumentNumberService.BLOCK_SIZE));
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                futures.add(pool.submit(() -> documentNumberService.nextNumber(DocumentType.DEMAND)));
+            }
+            Set<Long> numbers = new HashSet<>();
+            for (Future<Long> future : futures) {
+                numbers.add(future.get());
+            }
+            assertEquals(1000, numbers.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
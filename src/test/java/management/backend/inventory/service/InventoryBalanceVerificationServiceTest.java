@@ -0,0 +1,83 @@
+package management.backend.inventory.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import management.backend.inventory.config.AppProperties;
+import management.backend.inventory.repository.InventoryBalanceRepository;
+import management.backend.inventory.repository.InventoryBalanceRepository.LedgerBalance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for InventoryBalanceVerificationService
+ * Tests chunked verification against the ledger and repair
+ */
+@ExtendWith(MockitoExtension.class)
+class InventoryBalanceVerificationServiceTest {
+
+    @Mock
+    private InventoryBalanceRepository inventoryBalanceRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private InventoryBalanceVerificationService verificationService;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getBalanceVerification().setChunkSize(10);
+        meterRegistry = new SimpleMeterRegistry();
+        verificationService = new InventoryBalanceVerificationService(inventoryBalanceRepository, appProperties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Verify checks every item ID range and repairs mismatches")
+    void verify_RepairsDiscrepancies() {
+        // Arrange
+        when(inventoryBalanceRepository.findItemIdBounds()).thenReturn(new long[] {1L, 15L});
+        when(inventoryBalanceRepository.verifyRange(1L, 10L)).thenReturn(List.of(
+            new LedgerBalance(1L, 3L, null, 5L, 5L, 2L),
+            new LedgerBalance(2L, 3L, 7L, 4L, 6L, 3L)
+        ));
+        when(inventoryBalanceRepository.verifyRange(11L, 15L)).thenReturn(List.of(
+            new LedgerBalance(12L, 3L, null, null, 8L, 1L)
+        ));
+        when(inventoryBalanceRepository.repair(anyLong(), anyLong(), any(), any(), anyLong())).thenReturn(true);
+
+        // Act
+        InventoryBalanceVerificationService.Report report = verificationService.verify(true);
+
+        // Assert
+        assertEquals(3, report.balancesChecked());
+        assertEquals(2, report.discrepancyCount());
+        assertEquals(2, report.repaired());
+        verify(inventoryBalanceRepository).repair(2L, 3L, 7L, 4L, 6L);
+        verify(inventoryBalanceRepository).repair(12L, 3L, null, null, 8L);
+        assertEquals(2.0, meterRegistry.counter("inventory.balance.verification.discrepancies").count());
+    }
+
+    @Test
+    @DisplayName("Verify without repair only reports")
+    void verify_ReportOnly_DoesNotRepair() {
+        // Arrange
+        when(inventoryBalanceRepository.findItemIdBounds()).thenReturn(new long[] {1L, 1L});
+        when(inventoryBalanceRepository.verifyRange(1L, 1L)).thenReturn(List.of(
+            new LedgerBalance(1L, 3L, null, 5L, 4L, 2L)
+        ));
+
+        // Act
+        InventoryBalanceVerificationService.Report report = verificationService.verify(false);
+
+        // Assert
+        assertEquals(1, report.discrepancyCount());
+        verify(inventoryBalanceRepository, never()).repair(anyLong(), anyLong(), any(), any(), anyLong());
+    }
+}
@@ -0,0 +1,117 @@
+package management.backend.inventory.service;
+
+import jakarta.persistence.EntityManager;
+import management.backend.inventory.dto.BatchStockResponse;
+import management.backend.inventory.entity.Batch;
+import management.backend.inventory.entity.InventoryTransaction;
+import management.backend.inventory.entity.Item;
+import management.backend.inventory.entity.Warehouse;
+import management.backend.inventory.repository.BatchRepository;
+import management.backend.inventory.repository.InventoryBalanceRepository;
+import management.backend.inventory.repository.InventoryBalanceRepository.BatchBalance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for InventoryLedgerService
+ * Tests balance updates on ledger inserts and per-batch stock reads
+ */
+@ExtendWith(MockitoExtension.class)
+class InventoryLedgerServiceTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private InventoryBalanceRepository inventoryBalanceRepository;
+
+    @Mock
+    private BatchRepository batchRepository;
+
+    @Mock
+    private StockSummaryRefreshService stockSummaryRefreshService;
+
+    @InjectMocks
+    private InventoryLedgerService inventoryLedgerService;
+
+    private Item item;
+    private Warehouse warehouse;
+
+    @BeforeEach
+    void setUp() {
+        item = new Item();
+        item.setItemId(1L);
+        warehouse = new Warehouse();
+        warehouse.setWarehouseId(3L);
+    }
+
+    @Test
+    @DisplayName("Stock-in adds to the balance and persists the transaction")
+    void record_StockIn_AddsToBalance() {
+        // Arrange
+        InventoryTransaction transaction = new InventoryTransaction(item, warehouse, 10, "STOCK_IN", null);
+
+        // Act
+        inventoryLedgerService.record(transaction);
+
+        // Assert
+        verify(inventoryBalanceRepository).add(1L, 3L, null, 10L);
+        verify(entityManager).persist(transaction);
+        verify(stockSummaryRefreshService).markChanged();
+    }
+
+    @Test
+    @DisplayName("Stock-out beyond the batch balance is rejected before the ledger insert")
+    void record_InsufficientBatchStock_Throws() {
+        // Arrange
+        Batch batch = new Batch();
+        batch.setBatchId(7L);
+        InventoryTransaction transaction = new InventoryTransaction(item, warehouse, 5, "STOCK_OUT", null);
+        transaction.setBatch(batch);
+        when(inventoryBalanceRepository.subtractIfAvailable(1L, 3L, 7L, 5L)).thenReturn(null);
+        when(inventoryBalanceRepository.findByItemAndWarehouse(1L, 3L))
+            .thenReturn(List.of(new BatchBalance(null, 20L), new BatchBalance(7L, 2L)));
+
+        // Act & Assert
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> inventoryLedgerService.record(transaction));
+        assertTrue(e.getMessage().contains("Available: 2"));
+        verify(entityManager, never()).persist(any());
+        verifyNoInteractions(stockSummaryRefreshService);
+    }
+
+    @Test
+    @DisplayName("Per-batch stock carries batch details")
+    void getAvailableStockByBatch_ReturnsBatchDetails() {
+        // Arrange
+        Batch batch = new Batch();
+        batch.setBatchId(7L);
+        batch.setBatchNumber("B-7");
+        batch.setExpiryDate(LocalDate.of(2025, 6, 30));
+        when(inventoryBalanceRepository.findByItemAndWarehouse(1L, 3L))
+            .thenReturn(List.of(new BatchBalance(null, 20L), new BatchBalance(7L, 2L)));
+        when(batchRepository.findAllById(List.of(7L))).thenReturn(List.of(batch));
+
+        // Act
+        List<BatchStockResponse> result = inventoryLedgerService.getAvailableStockByBatch(1L, 3L);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertNull(result.get(0).getBatchId());
+        assertEquals(20L, result.get(0).getQuantity());
+        assertEquals("B-7", result.get(1).getBatchNumber());
+        assertEquals(2L, result.get(1).getQuantity());
+    }
+}
@@ -0,0 +1,157 @@
+package management.backend.inventory.service;
+
+import management.backend.inventory.dto.StatisticsResponse;
+import management.backend.inventory.entity.Item;
+import management.backend.inventory.entity.MovementType;
+import management.backend.inventory.entity.StockMovement;
+import management.backend.inventory.event.ItemChangedEvent;
+import management.backend.inventory.event.StockMovementsChangedEvent;
+import management.backend.inventory.repository.ItemRepository;
+import management.backend.inventory.repository.ItemRepository.ItemStatisticsProjection;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for InventoryStatisticsService
+ * Tests running dashboard aggregates and drift recompute
+ */
+@ExtendWith(MockitoExtension.class)
+class InventoryStatisticsServiceTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private InventoryStatisticsService inventoryStatisticsService;
+
+    @Test
+    @DisplayName("Get statistics loads once and then answers from memory")
+    void getStatistics_LoadsOnce() {
+        // Arrange
+        when(itemRepository.findStatisticsRows()).thenReturn(List.of(
+            row(1L, "2.50", 4L, 0L),
+            row(2L, "10.00", 0L, 5L),
+            row(3L, "1.00", 50L, 20L)
+        ));
+
+        // Act
+        inventoryStatisticsService.getStatistics();
+        StatisticsResponse result = inventoryStatisticsService.getStatistics();
+
+        // Assert
+        assertEquals(3, result.getTotalItems());
+        assertEquals(0, new BigDecimal("60.00").compareTo(result.getTotalValue()));
+        assertEquals(2, result.getLowStockItems());
+        assertEquals(1, result.getOutOfStockItems());
+        verify(itemRepository, times(1)).findStatisticsRows();
+    }
+
+    @Test
+    @DisplayName("Stock movements swap only the affected item's contribution")
+    void onStockMovementsChanged_UpdatesAffectedItem() {
+        // Arrange
+        when(itemRepository.findStatisticsRows()).thenReturn(List.of(
+            row(1L, "2.00", 0L, 0L),
+            row(2L, "1.00", 30L, 0L)
+        ));
+        when(itemRepository.findStatisticsRowsByIds(Set.of(1L))).thenReturn(List.of(row(1L, "2.00", 25L, 0L)));
+        inventoryStatisticsService.getStatistics();
+
+        Item item = new Item();
+        item.setItemId(1L);
+        StockMovement movement = new StockMovement();
+        movement.setItem(item);
+        movement.setMovementType(MovementType.IN);
+
+        // Act
+        inventoryStatisticsService.onStockMovementsChanged(new StockMovementsChangedEvent(List.of(movement), false));
+        StatisticsResponse result = inventoryStatisticsService.getStatistics();
+
+        // Assert
+        assertEquals(2, result.getTotalItems());
+        assertEquals(0, new BigDecimal("80.00").compareTo(result.getTotalValue()));
+        assertEquals(0, result.getLowStockItems());
+        assertEquals(0, result.getOutOfStockItems());
+    }
+
+    @Test
+    @DisplayName("New items are added to the running totals")
+    void onItemChanged_AddsNewItem() {
+        // Arrange
+        when(itemRepository.findStatisticsRows()).thenReturn(List.of(row(1L, "2.00", 30L, 0L)));
+        when(itemRepository.findStatisticsRowsByIds(Set.of(2L))).thenReturn(List.of(row(2L, "5.00", 0L, 0L)));
+        inventoryStatisticsService.getStatistics();
+
+        // Act
+        inventoryStatisticsService.onItemChanged(new ItemChangedEvent(2L));
+        StatisticsResponse result = inventoryStatisticsService.getStatistics();
+
+        // Assert
+        assertEquals(2, result.getTotalItems());
+        assertEquals(1, result.getOutOfStockItems());
+    }
+
+    @Test
+    @DisplayName("Changes before the first load are ignored")
+    void onItemChanged_BeforeLoad_DoesNothing() {
+        // Act
+        inventoryStatisticsService.onItemChanged(new ItemChangedEvent(1L));
+
+        // Assert
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    @DisplayName("Recompute replaces drifted aggregates")
+    void recompute_CorrectsDrift() {
+        // Arrange
+        when(itemRepository.findStatisticsRows())
+            .thenReturn(List.of(row(1L, "2.00", 30L, 0L)))
+            .thenReturn(List.of(row(1L, "2.00", 30L, 0L), row(2L, "1.00", 0L, 0L)));
+        inventoryStatisticsService.getStatistics();
+
+        // Act
+        inventoryStatisticsService.recompute();
+        StatisticsResponse result = inventoryStatisticsService.getStatistics();
+
+        // Assert
+        assertEquals(2, result.getTotalItems());
+        assertEquals(1, result.getOutOfStockItems());
+    }
+
+    private ItemStatisticsProjection row(Long itemId, String unitPrice, Long currentStock, Long minimumStock) {
+        return new ItemStatisticsProjection() {
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public BigDecimal getUnitPrice() {
+                return new BigDecimal(unitPrice);
+            }
+
+            @Override
+            public Long getCurrentStock() {
+                return currentStock;
+            }
+
+            @Override
+            public Long getMinimumStock() {
+                return minimumStock;
+            }
+        };
+    }
+}
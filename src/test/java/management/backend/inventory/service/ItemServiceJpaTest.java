@@ -0,0 +1,110 @@
+package management.backend.inventory.service;
+
+import management.backend.inventory.dto.CreateItemRequest;
+import management.backend.inventory.dto.ItemStockResponse;
+import management.backend.inventory.entity.Category;
+import management.backend.inventory.entity.Item;
+import management.backend.inventory.repository.CategoryRepository;
+import management.backend.inventory.repository.ItemRepository;
+import management.backend.inventory.repository.ItemStockTotalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * JPA tests for ItemService
+ * Tests that item edits leave the stock balance to the stock mutation queries,
+ * and the low-stock query against per-item levels and shards
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class ItemServiceJpaTest {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ItemService itemService;
+    private Category category;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        itemService = new ItemService(itemRepository, mock(ItemStockTotalRepository.class), categoryRepository,
+            mock(InventoryStatisticsService.class), mock(ApplicationEventPublisher.class));
+
+        category = new Category("Tools", null);
+        category.setCategoryCode("TOOLS");
+        entityManager.persist(category);
+        item = persistItem("Hammer", 10L, 0L, null);
+    }
+
+    private Item persistItem(String name, long currentStock, long minimumStock, Long reorderLevel) {
+        Item persisted = new Item(name, name.toUpperCase() + "-001", new BigDecimal("9.99"));
+        persisted.setCategory(category);
+        persisted.setCurrentStock(currentStock);
+        persisted.setMinimumStock(minimumStock);
+        persisted.setReorderLevel(reorderLevel);
+        return entityManager.persistAndFlush(persisted);
+    }
+
+    @Test
+    @DisplayName("Editing an item keeps a stock-out made after the item was loaded")
+    void updateItem_ConcurrentStockOut_KeepsBalance() {
+        // Arrange
+        Item loaded = itemRepository.findById(item.getItemId()).orElseThrow();
+        assertEquals(10L, loaded.getCurrentStock());
+        jdbcTemplate.update("UPDATE items SET current_stock = current_stock - 4 WHERE item_id = ?", item.getItemId());
+        CreateItemRequest request = new CreateItemRequest();
+        request.setName("Claw Hammer");
+
+        // Act
+        itemService.updateItem(item.getItemId(), request);
+        entityManager.flush();
+
+        // Assert
+        assertEquals("Claw Hammer", jdbcTemplate.queryForObject(
+            "SELECT name FROM items WHERE item_id = ?", String.class, item.getItemId()));
+        assertEquals(6L, jdbcTemplate.queryForObject(
+            "SELECT current_stock FROM items WHERE item_id = ?", Long.class, item.getItemId()));
+    }
+
+    @Test
+    @DisplayName("Low-stock items are compared with their own level or the default, shards included")
+    void getItemsWithLowStock_UsesLevelsAndShards() {
+        // Arrange
+        persistItem("Anvil", 3L, 0L, 4L);
+        persistItem("Bolt", 2L, 0L, null);
+        Item chisel = persistItem("Chisel", 1L, 0L, 4L);
+        persistItem("Drill", 6L, 8L, null);
+        persistItem("Eyelet", 4L, 0L, 3L);
+        jdbcTemplate.update("INSERT INTO item_stock_shards (item_id, shard_no, quantity, updated_at) VALUES (?, 0, 6, CURRENT_TIMESTAMP)",
+            chisel.getItemId());
+
+        // Act
+        List<ItemStockResponse> low = itemService.getItemsWithLowStock(5);
+
+        // Assert
+        assertEquals(List.of("Bolt", "Drill", "Anvil"), low.stream().map(ItemStockResponse::getName).toList());
+    }
+}
@@ -5,16 +5,19 @@ import management.backend.inventory.dto.ItemStockResponse;
 import management.backend.inventory.dto.StatisticsResponse;
 import management.backend.inventory.entity.Category;
 import management.backend.inventory.entity.Item;
+import management.backend.inventory.event.ItemChangedEvent;
 import management.backend.inventory.repository.CategoryRepository;
 import management.backend.inventory.repository.ItemRepository;
-import management.backend.inventory.repository.StockMovementRepository;
+import management.backend.inventory.repository.ItemStockTotalRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -37,11 +40,17 @@ class ItemServiceTest {
     private ItemRepository itemRepository;
 
     @Mock
-    private StockMovementRepository stockMovementRepository;
+    private ItemStockTotalRepository itemStockTotalRepository;
 
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private InventoryStatisticsService inventoryStatisticsService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ItemService itemService;
 
@@ -144,6 +153,10 @@ class ItemServiceTest {
         // Assert
         assertNotNull(result);
         verify(itemRepository).save(any(Item.class));
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        ItemChangedEvent changed = assertInstanceOf(ItemChangedEvent.class, event.getValue());
+        assertEquals(1L, changed.getItemId());
     }
 
     @Test
@@ -176,7 +189,7 @@ class ItemServiceTest {
     void getAllItemsWithStock_ReturnsList() {
         // Arrange
         when(itemRepository.findAllItemsOrderByCreatedAt()).thenReturn(Arrays.asList(testItem));
-        when(stockMovementRepository.getStockSummaryForAllItems()).thenReturn(Arrays.asList());
+        when(itemStockTotalRepository.getStockSummaryForAllItems()).thenReturn(Arrays.asList());
 
         // Act
         List<ItemStockResponse> result = itemService.getAllItemsWithStock();
@@ -229,7 +242,7 @@ class ItemServiceTest {
     void getItemWithStock_ReturnsResponse_WhenFound() {
         // Arrange
         when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
-        when(stockMovementRepository.getStockSummaryForItem(1L)).thenReturn(null);
+        when(itemStockTotalRepository.getStockSummaryForItem(1L)).thenReturn(null);
 
         // Act
         Optional<ItemStockResponse> result = itemService.getItemWithStock(1L);
@@ -292,8 +305,8 @@ class ItemServiceTest {
     @DisplayName("Get statistics returns correct values")
     void getStatistics_ReturnsCorrectValues() {
         // Arrange
-        when(itemRepository.findAllItemsOrderByCreatedAt()).thenReturn(Arrays.asList(testItem));
-        when(stockMovementRepository.getStockSummaryForAllItems()).thenReturn(Arrays.asList());
+        when(inventoryStatisticsService.getStatistics())
+            .thenReturn(new StatisticsResponse(1, BigDecimal.ZERO, 1, 1));
 
         // Act
         StatisticsResponse result = itemService.getStatistics();
@@ -301,6 +314,7 @@ class ItemServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getTotalItems());
+        verifyNoInteractions(itemStockTotalRepository);
     }
 
     @Test
@@ -317,4 +331,22 @@ class ItemServiceTest {
         assertEquals(1, result.size());
         assertEquals("Test Item", result.get(0).getName());
     }
+
+    @Test
+    @DisplayName("Get items with low stock answers from a single repository query")
+    void getItemsWithLowStock_UsesSingleQuery() {
+        // Arrange
+        ItemStockResponse lowItem = new ItemStockResponse(1L, "Test Item", "TEST-001", null, BigDecimal.TEN,
+            LocalDateTime.now(), 2L, 12L, 10L, 1L, "Electronics", 0L, null, 5L);
+        when(itemRepository.findLowStockItems(10L)).thenReturn(List.of(lowItem));
+
+        // Act
+        List<ItemStockResponse> result = itemService.getItemsWithLowStock(10);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(2L, result.get(0).getCurrentStock());
+        assertEquals(5L, result.get(0).getReorderLevel());
+        verifyNoInteractions(itemStockTotalRepository);
+    }
 }
@@ -0,0 +1,221 @@
+package management.backend.inventory.service;
+
+import management.backend.inventory.config.AppProperties;
+import management.backend.inventory.entity.Item;
+import management.backend.inventory.entity.MovementType;
+import management.backend.inventory.entity.StockMovement;
+import management.backend.inventory.event.StockMovementsChangedEvent;
+import management.backend.inventory.repository.StockJdbcRepository;
+import management.backend.inventory.repository.StockJdbcRepository.ItemTotalHandler;
+import management.backend.inventory.repository.StockJdbcRepository.MovementReplayHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StockLedgerService
+ * Tests replay, live updates, checkpoints and reconciliation
+ */
+@ExtendWith(MockitoExtension.class)
+class StockLedgerServiceTest {
+
+    @Mock
+    private StockJdbcRepository stockJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path tempDir;
+
+    private AppProperties appProperties;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        appProperties.getLedger().setEnabled(true);
+        appProperties.getLedger().setCheckpointPath(tempDir.resolve("ledger.ckpt").toString());
+    }
+
+    @Test
+    @DisplayName("Find returns null until the ledger is loaded")
+    void find_ReturnsNullBeforeLoad() {
+        StockLedgerService ledger = new StockLedgerService(stockJdbcRepository, transactionManager, appProperties);
+
+        assertNull(ledger.find(1L));
+    }
+
+    @Test
+    @DisplayName("Load replays movements and applies committed changes")
+    void load_ReplaysAndAppliesEvents() {
+        // Arrange
+        replay(0L, new long[][] {{1, 1, 10}, {2, 1, -3}, {3, 2, 5}});
+        totals(new long[][] {{1, 10, 3}, {2, 5, 0}});
+        StockLedgerService ledger = new StockLedgerService(stockJdbcRepository, transactionManager, appProperties);
+
+        // Act
+        ledger.load();
+        ledger.onStockMovementsChanged(new StockMovementsChangedEvent(List.of(movement(4L, 1L, MovementType.OUT, 2L)), false));
+        ledger.onStockMovementsChanged(new StockMovementsChangedEvent(List.of(movement(3L, 2L, MovementType.IN, 5L)), true));
+
+        // Assert
+        assertEquals(5L, ledger.find(1L).currentStock());
+        assertEquals(5L, ledger.find(1L).totalOut());
+        assertEquals(0L, ledger.find(2L).currentStock());
+        assertEquals(0L, ledger.find(99L).currentStock());
+    }
+
+    @Test
+    @DisplayName("Restart from a checkpoint replays only the tail")
+    void load_FromCheckpointReplaysTail() {
+        // Arrange
+        replay(0L, new long[][] {{1, 1, 10}, {2, 1, -3}});
+        totals(new long[][] {{1, 10, 3}});
+        StockLedgerService first = new StockLedgerService(stockJdbcRepository, transactionManager, appProperties);
+        first.load();
+        first.checkpoint();
+        assertTrue(Files.exists(tempDir.resolve("ledger.ckpt")));
+
+        clearInvocations(stockJdbcRepository);
+        replay(2L, new long[][] {{3, 1, 4}});
+        totals(new long[][] {{1, 14, 3}});
+        StockLedgerService second = new StockLedgerService(stockJdbcRepository, transactionManager, appProperties);
+
+        // Act
+        second.load();
+
+        // Assert
+        assertEquals(11L, second.find(1L).currentStock());
+        verify(stockJdbcRepository, never()).replayMovements(eq(0L), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Checkpoint that disagrees with stock totals falls back to a full replay")
+    void load_MismatchedCheckpointReplaysAll() {
+        // Arrange
+        replay(0L, new long[][] {{1, 1, 10}});
+        totals(new long[][] {{1, 10, 0}});
+        StockLedgerService first = new StockLedgerService(stockJdbcRepository, transactionManager, appProperties);
+        first.load();
+        first.checkpoint();
+
+        // Movement 1 was deleted after the checkpoint
+        replay(0L, new long[][] {});
+        replay(1L, new long[][] {});
+        totals(new long[][] {{1, 0, 0}});
+        StockLedgerService second = new StockLedgerService(stockJdbcRepository, transactionManager, appProperties);
+
+        // Act
+        second.load();
+
+        // Assert
+        assertEquals(0L, second.find(1L).currentStock());
+    }
+
+    @Test
+    @DisplayName("Reconcile corrects drift from the stock totals snapshot")
+    void reconcile_CorrectsDrift() {
+        // Arrange
+        replay(0L, new long[][] {{1, 1, 10}});
+        totals(new long[][] {{1, 10, 0}});
+        StockLedgerService ledger = new StockLedgerService(stockJdbcRepository, transactionManager, appProperties);
+        ledger.load();
+        totals(new long[][] {{1, 12, 0}});
+
+        // Act & Assert
+        assertEquals(1, ledger.reconcile());
+        assertEquals(12L, ledger.find(1L).currentStock());
+        assertEquals(0, ledger.reconcile());
+    }
+
+    @Test
+    @DisplayName("Reconcile ignores movements committed after its snapshot")
+    void reconcile_BusyItem_ComparesAtSnapshot() {
+        // Arrange
+        replay(0L, new long[][] {{1, 1, 10}});
+        totals(new long[][] {{1, 10, 0}});
+        StockLedgerService ledger = new StockLedgerService(stockJdbcRepository, transactionManager, appProperties);
+        ledger.load();
+        // Drifted by 2, and a stock-out commits while the totals are read
+        doAnswer(invocation -> {
+            ledger.onStockMovementsChanged(new StockMovementsChangedEvent(List.of(movement(2L, 1L, MovementType.OUT, 3L)), false));
+            ItemTotalHandler handler = invocation.getArgument(0);
+            handler.accept(1L, 12L, 0L);
+            return null;
+        }).when(stockJdbcRepository).forEachItemStockTotal(any());
+
+        // Act
+        int corrected = ledger.reconcile();
+
+        // Assert
+        assertEquals(1, corrected);
+        assertEquals(9L, ledger.find(1L).currentStock());
+    }
+
+    @Test
+    @DisplayName("Movements committed during the replay are applied after it")
+    void load_BuffersEventsDuringReplay() {
+        // Arrange
+        StockLedgerService ledger = new StockLedgerService(stockJdbcRepository, transactionManager, appProperties);
+        doAnswer(invocation -> {
+            MovementReplayHandler handler = invocation.getArgument(2);
+            handler.accept(1L, 1L, MovementType.IN, 10L);
+            ledger.onStockMovementsChanged(new StockMovementsChangedEvent(List.of(movement(5L, 1L, MovementType.OUT, 4L)), false));
+            return null;
+        }).when(stockJdbcRepository).replayMovements(eq(0L), anyInt(), any());
+        totals(new long[][] {{1, 10, 4}});
+
+        // Act
+        ledger.load();
+
+        // Assert
+        assertEquals(6L, ledger.find(1L).currentStock());
+        assertEquals(4L, ledger.find(1L).totalOut());
+    }
+
+    // Each row is {movementId, itemId, signed quantity}; negative quantities are stock-outs
+    private void replay(long afterId, long[][] rows) {
+        doAnswer(invocation -> {
+            MovementReplayHandler handler = invocation.getArgument(2);
+            for (long[] row : rows) {
+                handler.accept(row[0], row[1], row[2] >= 0 ? MovementType.IN : MovementType.OUT, Math.abs(row[2]));
+            }
+            return null;
+        }).when(stockJdbcRepository).replayMovements(eq(afterId), anyInt(), any());
+    }
+
+    // Each row is {itemId, totalIn, totalOut}
+    private void totals(long[][] rows) {
+        doAnswer(invocation -> {
+            ItemTotalHandler handler = invocation.getArgument(0);
+            for (long[] row : rows) {
+                handler.accept(row[0], row[1], row[2]);
+            }
+            return null;
+        }).when(stockJdbcRepository).forEachItemStockTotal(any());
+    }
+
+    private StockMovement movement(Long id, Long itemId, MovementType type, Long quantity) {
+        Item item = new Item();
+        item.setItemId(itemId);
+        StockMovement movement = new StockMovement();
+        movement.setStockMovementId(id);
+        movement.setItem(item);
+        movement.setMovementType(type);
+        movement.setQuantity(quantity);
+        return movement;
+    }
+}
@@ -0,0 +1,140 @@
+package management.backend.inventory.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import management.backend.inventory.dto.StockMovementHistoryFilter;
+import management.backend.inventory.dto.StockMovementHistoryResponse;
+import management.backend.inventory.exception.ValidationException;
+import management.backend.inventory.repository.StockMovementHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StockMovementExportService
+ * Tests CSV escaping, NDJSON line framing and gzip output
+ */
+@ExtendWith(MockitoExtension.class)
+class StockMovementExportServiceTest {
+
+    @Mock
+    private StockMovementHistoryRepository stockMovementHistoryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ObjectMapper objectMapper;
+    private StockMovementExportService exportService;
+    private StockMovementHistoryFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        exportService = new StockMovementExportService(stockMovementHistoryRepository, transactionManager, objectMapper);
+        filter = StockMovementHistoryFilter.of(null, null, null, null, null);
+    }
+
+    private static StockMovementHistoryResponse row(Long id, String notes) {
+        return new StockMovementHistoryResponse(
+            id, 1L, "Widget", "W-1", "OUT", 5L, 10L, 5L,
+            "USED", null, notes, "SO-1", "Test User", "test@example.com",
+            LocalDateTime.of(2024, 1, 2, 3, 4, 5), new BigDecimal("1.50"));
+    }
+
+    private String export(StockMovementExportService.Format format, StockMovementHistoryResponse... rows) {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(stockMovementHistoryRepository.stream(eq(filter), anyInt())).thenReturn(Stream.of(rows));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(filter, format, false, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("CSV export writes the header and one line per movement")
+    void export_Csv_WritesHeaderAndRows() {
+        // Act
+        String csv = export(StockMovementExportService.Format.CSV, row(1L, "plain"), row(2L, null));
+
+        // Assert
+        String[] lines = csv.split("\n", -1);
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("stockMovementId,itemId,itemName,"));
+        assertEquals("1,1,Widget,W-1,OUT,5,10,5,USED,,plain,SO-1,Test User,test@example.com,2024-01-02T03:04:05,1.50", lines[1]);
+        assertEquals("2,1,Widget,W-1,OUT,5,10,5,USED,,,SO-1,Test User,test@example.com,2024-01-02T03:04:05,1.50", lines[2]);
+        assertEquals("", lines[3]);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("CSV export quotes values with commas, quotes or line breaks")
+    void export_Csv_EscapesNotes() {
+        // Act
+        String csv = export(StockMovementExportService.Format.CSV,
+            row(1L, "damaged, returned"), row(2L, "the \"blue\" box"), row(3L, "line one\nline two"));
+
+        // Assert
+        assertTrue(csv.contains(",USED,,\"damaged, returned\",SO-1,"));
+        assertTrue(csv.contains(",USED,,\"the \"\"blue\"\" box\",SO-1,"));
+        assertTrue(csv.contains(",USED,,\"line one\nline two\",SO-1,"));
+    }
+
+    @Test
+    @DisplayName("NDJSON export writes one JSON object per line with no header")
+    void export_Ndjson_OneObjectPerLine() throws Exception {
+        // Act
+        String ndjson = export(StockMovementExportService.Format.NDJSON, row(1L, "first\nsecond"), row(2L, "a, \"b\""));
+
+        // Assert
+        assertTrue(ndjson.endsWith("\n"));
+        String[] lines = ndjson.substring(0, ndjson.length() - 1).split("\n", -1);
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1L, first.get("stockMovementId").asLong());
+        assertEquals("first\nsecond", first.get("notes").asText());
+        assertEquals("a, \"b\"", objectMapper.readTree(lines[1]).get("notes").asText());
+    }
+
+    @Test
+    @DisplayName("Gzipped export decompresses to the plain export")
+    void export_Gzip_Decompresses() throws Exception {
+        // Arrange
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(stockMovementHistoryRepository.stream(eq(filter), anyInt())).thenReturn(Stream.of(row(1L, "x")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        exportService.export(filter, StockMovementExportService.Format.NDJSON, true, out);
+
+        // Assert
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            String ndjson = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertEquals(1L, objectMapper.readTree(ndjson.trim()).get("stockMovementId").asLong());
+        }
+    }
+
+    @Test
+    @DisplayName("Unknown export format is rejected")
+    void format_Unknown_ThrowsValidation() {
+        // Act & Assert
+        assertEquals(StockMovementExportService.Format.NDJSON, StockMovementExportService.Format.parse(" NDJson "));
+        assertThrows(ValidationException.class, () -> StockMovementExportService.Format.parse("xml"));
+        assertThrows(ValidationException.class, () -> StockMovementExportService.Format.parse(null));
+    }
+}
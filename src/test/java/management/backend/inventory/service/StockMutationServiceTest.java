@@ -0,0 +1,262 @@
+package management.backend.inventory.service;
+
+import management.backend.inventory.entity.Item;
+import management.backend.inventory.entity.MovementType;
+import management.backend.inventory.entity.StockMovement;
+import management.backend.inventory.entity.Warehouse;
+import management.backend.inventory.event.ItemChangedEvent;
+import management.backend.inventory.event.StockMovementsChangedEvent;
+import management.backend.inventory.repository.ItemRepository;
+import management.backend.inventory.repository.StockJdbcRepository;
+import management.backend.inventory.repository.StockMovementRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StockMutationService
+ * Tests signed bulk adjustments, warehouse stock checks and in-place movement edits
+ */
+@ExtendWith(MockitoExtension.class)
+class StockMutationServiceTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private StockJdbcRepository stockJdbcRepository;
+
+    @Mock
+    private StockMovementRepository stockMovementRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private StockShardService stockShardService;
+
+    @InjectMocks
+    private StockMutationService stockMutationService;
+
+    private StockMovement movement(Long id, Long itemId, Long quantity) {
+        Item item = new Item();
+        item.setItemId(itemId);
+        StockMovement m = new StockMovement(item, null, MovementType.IN, quantity, 0L, quantity);
+        m.setStockMovementId(id);
+        return m;
+    }
+
+    @Test
+    void adjustStockBulk_SkipsZeroDeltasAndAppliesTheRest() {
+        when(stockJdbcRepository.adjustStockBulk(Map.of(1L, -3L, 3L, 5L))).thenReturn(Map.of(1L, 7L, 3L, 5L));
+
+        Map<Long, Long> balances = stockMutationService.adjustStockBulk(Map.of(1L, -3L, 2L, 0L, 3L, 5L));
+
+        assertEquals(Map.of(1L, 7L, 3L, 5L), balances);
+        verify(stockShardService).consolidate(Set.of(1L));
+    }
+
+    @Test
+    void adjustStockBulk_InsufficientStock_Throws() {
+        Item item = new Item();
+        item.setName("Widget");
+        item.setCurrentStock(2L);
+        when(stockJdbcRepository.adjustStockBulk(anyMap())).thenReturn(Map.of());
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> stockMutationService.adjustStockBulk(Map.of(1L, -5L)));
+        assertTrue(e.getMessage().contains("Insufficient stock for item Widget"));
+    }
+
+    @Test
+    void tryDecreaseStock_Available_ReturnsNewBalance() {
+        when(itemRepository.decrementStockIfAvailable(1L, 4L)).thenReturn(Optional.of(6L));
+
+        assertEquals(Optional.of(6L), stockMutationService.tryDecreaseStock(1L, 4L));
+        verify(stockShardService, never()).tryDecrease(anyLong(), anyLong());
+    }
+
+    @Test
+    void tryDecreaseStock_InsufficientStock_ReturnsEmpty() {
+        when(itemRepository.decrementStockIfAvailable(1L, 40L)).thenReturn(Optional.empty());
+        when(stockShardService.hasShards(1L)).thenReturn(false);
+
+        assertTrue(stockMutationService.tryDecreaseStock(1L, 40L).isEmpty());
+        verify(stockShardService, never()).tryDecrease(anyLong(), anyLong());
+    }
+
+    @Test
+    void tryDecreaseStock_NonPositiveQuantity_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> stockMutationService.tryDecreaseStock(1L, 0L));
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void tryDecreaseStock_ShardedItem_UsesShards() {
+        when(stockShardService.isSharded(1L)).thenReturn(true);
+        when(stockShardService.tryDecrease(1L, 4L)).thenReturn(Optional.of(96L));
+
+        assertEquals(Optional.of(96L), stockMutationService.tryDecreaseStock(1L, 4L));
+        verify(stockShardService).recordWrite(1L);
+        verify(itemRepository, never()).decrementStockIfAvailable(anyLong(), anyLong());
+    }
+
+    @Test
+    void tryDecreaseStock_ShardedElsewhere_FallsBackToShards() {
+        when(itemRepository.decrementStockIfAvailable(1L, 4L)).thenReturn(Optional.empty());
+        when(stockShardService.hasShards(1L)).thenReturn(true);
+        when(stockShardService.tryDecrease(1L, 4L)).thenReturn(Optional.of(96L));
+
+        assertEquals(Optional.of(96L), stockMutationService.tryDecreaseStock(1L, 4L));
+    }
+
+    @Test
+    void requireWarehouseStock_Enough_Passes() {
+        when(stockJdbcRepository.lockWarehouseStock(1L, 3L)).thenReturn(10L);
+
+        assertDoesNotThrow(() -> stockMutationService.requireWarehouseStock(1L, 3L, 10L, 0L));
+        verify(stockJdbcRepository, never()).sumWarehouseStock(anyLong());
+    }
+
+    @Test
+    void requireWarehouseStock_NotStockedThere_Throws() {
+        when(stockJdbcRepository.lockWarehouseStock(1L, 3L)).thenReturn(null);
+        when(stockJdbcRepository.sumWarehouseStock(1L)).thenReturn(9L);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> stockMutationService.requireWarehouseStock(1L, 3L, 1L, 8L));
+        assertTrue(e.getMessage().contains("Insufficient stock in warehouse"));
+    }
+
+    @Test
+    void requireWarehouseStock_UnattributedStock_CountsAsAvailable() {
+        // 12 on hand before the stock-out, 5 of it attributed to warehouses (2 here)
+        when(stockJdbcRepository.lockWarehouseStock(1L, 3L)).thenReturn(2L);
+        when(stockJdbcRepository.sumWarehouseStock(1L)).thenReturn(5L);
+
+        assertDoesNotThrow(() -> stockMutationService.requireWarehouseStock(1L, 3L, 9L, 3L));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> stockMutationService.requireWarehouseStock(1L, 3L, 10L, 2L));
+        assertTrue(e.getMessage().contains("Available: 9"));
+    }
+
+    @Test
+    void requireWarehouseStock_NoStockInHistory_DrawsOnUnattributedStock() {
+        // 10 on hand, none of it received into a warehouse; the warehouse row is clamped at zero
+        when(stockJdbcRepository.lockWarehouseStock(1L, 3L)).thenReturn(null);
+        when(stockJdbcRepository.sumWarehouseStock(1L)).thenReturn(0L);
+
+        assertDoesNotThrow(() -> stockMutationService.requireWarehouseStock(1L, 3L, 10L, 0L));
+    }
+
+    @Test
+    void updateMovements_FoldsOnlyChangedMovements() {
+        StockMovement changed = movement(10L, 1L, 8L);
+        StockMovement unchanged = movement(11L, 2L, 4L);
+        StockMovement original = StockMutationService.snapshot(changed);
+        original.setQuantity(5L);
+
+        stockMutationService.updateMovements(List.of(changed, unchanged),
+            Map.of(10L, original, 11L, StockMutationService.snapshot(unchanged)));
+
+        verify(stockMovementRepository).saveAll(List.of(changed, unchanged));
+        verify(stockJdbcRepository).applyMovementTotals(List.of(original), true);
+        verify(stockJdbcRepository).applyWarehouseStock(List.of(original), true);
+        verify(stockJdbcRepository).applyMovementTotals(List.of(changed), false);
+        verify(stockJdbcRepository).applyWarehouseStock(List.of(changed), false);
+        verify(eventPublisher, times(2)).publishEvent(any(StockMovementsChangedEvent.class));
+    }
+
+    @Test
+    void updateMovements_WarehouseChange_MovesWarehouseStock() {
+        Warehouse from = new Warehouse();
+        from.setWarehouseId(3L);
+        Warehouse to = new Warehouse();
+        to.setWarehouseId(4L);
+        StockMovement m = movement(10L, 1L, 8L);
+        m.setWarehouse(from);
+        StockMovement original = StockMutationService.snapshot(m);
+        m.setWarehouse(to);
+
+        stockMutationService.updateMovements(List.of(m), Map.of(10L, original));
+
+        ArgumentCaptor<List<StockMovement>> removed = ArgumentCaptor.forClass(List.class);
+        verify(stockJdbcRepository).applyWarehouseStock(removed.capture(), eq(true));
+        assertEquals(3L, removed.getValue().get(0).getWarehouse().getWarehouseId());
+        verify(stockJdbcRepository).applyWarehouseStock(List.of(m), false);
+    }
+
+    @Test
+    void updateMovements_ItemChange_MovesStockBetweenItems() {
+        StockMovement m = movement(10L, 1L, 8L);
+        m.setCategoryId(5L);
+        StockMovement original = StockMutationService.snapshot(m);
+        Item other = new Item();
+        other.setItemId(2L);
+        m.setItem(other);
+        when(stockJdbcRepository.findCategoryIds(aryEq(new Long[] {2L}))).thenReturn(Map.of(2L, 6L));
+
+        stockMutationService.updateMovements(List.of(m), Map.of(10L, original));
+
+        ArgumentCaptor<List<StockMovement>> removed = ArgumentCaptor.forClass(List.class);
+        verify(stockJdbcRepository).applyMovementTotals(removed.capture(), eq(true));
+        assertEquals(1L, removed.getValue().get(0).getItem().getItemId());
+        verify(stockJdbcRepository).applyMovementTotals(List.of(m), false);
+        // The rollup subtracts under the old category and adds under the new item's
+        verify(stockJdbcRepository).applyStockOutReasonRollup(argThat(l -> l.get(0).getCategoryId().equals(5L)), eq(true));
+        assertEquals(6L, m.getCategoryId());
+    }
+
+    @Test
+    void recordMovements_StampsItemCategories() {
+        StockMovement first = movement(null, 1L, 2L);
+        StockMovement second = movement(null, 2L, 3L);
+        StockMovement stamped = movement(null, 1L, 4L);
+        stamped.setCategoryId(9L);
+        when(stockJdbcRepository.findCategoryIds(aryEq(new Long[] {1L, 2L}))).thenReturn(Map.of(1L, 5L, 2L, 6L));
+
+        stockMutationService.recordMovements(List.of(first, second, stamped));
+
+        assertEquals(5L, first.getCategoryId());
+        assertEquals(6L, second.getCategoryId());
+        assertEquals(9L, stamped.getCategoryId());
+        InOrder order = inOrder(stockJdbcRepository);
+        order.verify(stockJdbcRepository).findCategoryIds(any());
+        order.verify(stockJdbcRepository).batchInsertMovements(anyList());
+    }
+
+    @Test
+    void updateMovements_NoChange_SkipsReadModels() {
+        StockMovement m = movement(10L, 1L, 8L);
+
+        stockMutationService.updateMovements(List.of(m), Map.of());
+
+        verify(stockMovementRepository).saveAll(List.of(m));
+        verifyNoInteractions(stockJdbcRepository, eventPublisher);
+    }
+
+    @Test
+    void onItemChanged_FlushesAndReclassifiesWarehouseStock() {
+        stockMutationService.onItemChanged(new ItemChangedEvent(1L));
+
+        InOrder order = inOrder(itemRepository, stockJdbcRepository);
+        order.verify(itemRepository).flush();
+        order.verify(stockJdbcRepository).classifyWarehouseStock(1L);
+    }
+}
@@ -1,19 +1,24 @@
 package management.backend.inventory.service;
 
+import management.backend.inventory.config.AppProperties;
 import management.backend.inventory.dto.StockOutReasonResponse;
+import management.backend.inventory.entity.MovementType;
+import management.backend.inventory.entity.StockMovement;
 import management.backend.inventory.entity.StockOutReasonEnum;
+import management.backend.inventory.event.StockMovementsChangedEvent;
 import management.backend.inventory.repository.StockMovementRepository;
+import management.backend.inventory.repository.StockOutReasonDailyRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,22 +34,23 @@ import static org.mockito.Mockito.*;
 class StockOutReasonServiceTest {
     
     @Mock
-    private StockMovementRepository stockMovementRepository;
+    private StockOutReasonDailyRepository stockOutReasonDailyRepository;
+    
+    private final AppProperties appProperties = new AppProperties();
+    
+    @Spy
+    private StockOutReasonCountsCache reasonCountsCache = new StockOutReasonCountsCache(appProperties);
     
     @InjectMocks
     private StockOutReasonService stockOutReasonService;
     
     private LocalDate testStartDate;
     private LocalDate testEndDate;
-    private LocalDateTime testStartDateTime;
-    private LocalDateTime testEndDateTime;
     
     @BeforeEach
     void setUp() {
         testStartDate = LocalDate.of(2024, 1, 1);
         testEndDate = LocalDate.of(2024, 12, 31);
-        testStartDateTime = testStartDate.atStartOfDay();
-        testEndDateTime = testEndDate.atTime(LocalTime.MAX);
     }
     
     // ==================== Predefined Reasons Tests ====================
@@ -88,7 +94,7 @@ class StockOutReasonServiceTest {
         // Arrange
         List<StockMovementRepository.ReasonBreakdownProjection> mockProjections = 
             createMockReasonBreakdownProjections();
-        when(stockMovementRepository.getReasonBreakdown(testStartDateTime, testEndDateTime))
+        when(stockOutReasonDailyRepository.getReasonBreakdown(testStartDate, testEndDate))
             .thenReturn(mockProjections);
         
         // Act
@@ -118,7 +124,7 @@ class StockOutReasonServiceTest {
     @DisplayName("Should handle empty reason breakdown")
     void testGetReasonBreakdownEmpty() {
         // Arrange
-        when(stockMovementRepository.getReasonBreakdown(testStartDateTime, testEndDateTime))
+        when(stockOutReasonDailyRepository.getReasonBreakdown(testStartDate, testEndDate))
             .thenReturn(Collections.emptyList());
         
         // Act
@@ -136,7 +142,7 @@ class StockOutReasonServiceTest {
         Long itemId = 1L;
         List<StockMovementRepository.ReasonBreakdownProjection> mockProjections = 
             createMockReasonBreakdownProjections();
-        when(stockMovementRepository.getReasonBreakdownByItem(itemId, testStartDateTime, testEndDateTime))
+        when(stockOutReasonDailyRepository.getReasonBreakdownByItem(itemId, testStartDate, testEndDate))
             .thenReturn(mockProjections);
         
         // Act
@@ -145,7 +151,7 @@ class StockOutReasonServiceTest {
         // Assert
         assertNotNull(breakdown);
         assertEquals(3, breakdown.size());
-        verify(stockMovementRepository).getReasonBreakdownByItem(itemId, testStartDateTime, testEndDateTime);
+        verify(stockOutReasonDailyRepository).getReasonBreakdownByItem(itemId, testStartDate, testEndDate);
     }
     
     @Test
@@ -155,7 +161,7 @@ class StockOutReasonServiceTest {
         Long categoryId = 1L;
         List<StockMovementRepository.ReasonBreakdownProjection> mockProjections = 
             createMockReasonBreakdownProjections();
-        when(stockMovementRepository.getReasonBreakdownByCategory(categoryId, testStartDateTime, testEndDateTime))
+        when(stockOutReasonDailyRepository.getReasonBreakdownByCategory(categoryId, testStartDate, testEndDate))
             .thenReturn(mockProjections);
         
         // Act
@@ -164,7 +170,7 @@ class StockOutReasonServiceTest {
         // Assert
         assertNotNull(breakdown);
         assertEquals(3, breakdown.size());
-        verify(stockMovementRepository).getReasonBreakdownByCategory(categoryId, testStartDateTime, testEndDateTime);
+        verify(stockOutReasonDailyRepository).getReasonBreakdownByCategory(categoryId, testStartDate, testEndDate);
     }
     
     // ==================== Reason Counts Tests ====================
@@ -173,13 +179,7 @@ class StockOutReasonServiceTest {
     @DisplayName("Should get reason counts for all reasons")
     void testGetReasonCounts() {
         // Arrange
-        when(stockMovementRepository.countByReasonType("TRANSFERRED")).thenReturn(50);
-        when(stockMovementRepository.countByReasonType("GIVEN")).thenReturn(30);
-        when(stockMovementRepository.countByReasonType("EXPIRED")).thenReturn(20);
-        when(stockMovementRepository.countByReasonType("LOST")).thenReturn(0);
-        when(stockMovementRepository.countByReasonType("USED")).thenReturn(0);
-        when(stockMovementRepository.countByReasonType("DAMAGED")).thenReturn(0);
-        when(stockMovementRepository.countByReasonType("OTHER")).thenReturn(0);
+        when(stockOutReasonDailyRepository.getReasonCounts()).thenReturn(createMockReasonBreakdownProjections());
         
         // Act
         Map<String, Integer> counts = stockOutReasonService.getReasonCounts();
@@ -196,16 +196,68 @@ class StockOutReasonServiceTest {
     @DisplayName("Should handle null counts from repository")
     void testGetReasonCountsWithNullValues() {
         // Arrange
-        when(stockMovementRepository.countByReasonType(anyString())).thenReturn(null);
+        when(stockOutReasonDailyRepository.getReasonCounts()).thenReturn(new ArrayList<>());
         
         // Act
         Map<String, Integer> counts = stockOutReasonService.getReasonCounts();
         
         // Assert
         assertNotNull(counts);
+        assertEquals(7, counts.size());
         counts.values().forEach(count -> assertEquals(0, count));
     }
     
+    @Test
+    @DisplayName("Should serve repeated reason count requests from cache")
+    void testGetReasonCountsCached() {
+        // Arrange
+        when(stockOutReasonDailyRepository.getReasonCounts()).thenReturn(createMockReasonBreakdownProjections());
+        
+        // Act
+        stockOutReasonService.getReasonCounts();
+        Map<String, Integer> counts = stockOutReasonService.getReasonCounts();
+        
+        // Assert
+        assertEquals(50, counts.get("TRANSFERRED"));
+        verify(stockOutReasonDailyRepository, times(1)).getReasonCounts();
+    }
+    
+    @Test
+    @DisplayName("Should reload reason counts after stock-out movements change")
+    void testGetReasonCountsInvalidatedByStockOut() {
+        // Arrange
+        when(stockOutReasonDailyRepository.getReasonCounts()).thenReturn(createMockReasonBreakdownProjections());
+        StockMovement in = new StockMovement();
+        in.setMovementType(MovementType.IN);
+        StockMovement out = new StockMovement();
+        out.setMovementType(MovementType.OUT);
+        
+        // Act
+        stockOutReasonService.getReasonCounts();
+        reasonCountsCache.onStockMovementsChanged(new StockMovementsChangedEvent(List.of(in), false));
+        stockOutReasonService.getReasonCounts();
+        reasonCountsCache.onStockMovementsChanged(new StockMovementsChangedEvent(List.of(out), true));
+        stockOutReasonService.getReasonCounts();
+        
+        // Assert
+        verify(stockOutReasonDailyRepository, times(2)).getReasonCounts();
+    }
+    
+    @Test
+    @DisplayName("Should reload reason counts once the cached entry expires")
+    void testGetReasonCountsExpired() {
+        // Arrange
+        appProperties.getReasonCounts().setTtl(Duration.ZERO);
+        when(stockOutReasonDailyRepository.getReasonCounts()).thenReturn(createMockReasonBreakdownProjections());
+        
+        // Act
+        stockOutReasonService.getReasonCounts();
+        stockOutReasonService.getReasonCounts();
+        
+        // Assert
+        verify(stockOutReasonDailyRepository, times(2)).getReasonCounts();
+    }
+    
     // ==================== Reason Validation Tests ====================
     
     @Test
@@ -328,7 +380,7 @@ class StockOutReasonServiceTest {
         // Arrange
         List<StockMovementRepository.ReasonBreakdownProjection> mockProjections = 
             createMockReasonBreakdownProjections();
-        when(stockMovementRepository.getTopReasons(5))
+        when(stockOutReasonDailyRepository.getTopReasons(5))
             .thenReturn(mockProjections);
         
         // Act
@@ -337,14 +389,14 @@ class StockOutReasonServiceTest {
         // Assert
         assertNotNull(topReasons);
         assertEquals(3, topReasons.size());
-        verify(stockMovementRepository).getTopReasons(5);
+        verify(stockOutReasonDailyRepository).getTopReasons(5);
     }
     
     @Test
     @DisplayName("Should handle empty top reasons")
     void testGetTopReasonsEmpty() {
         // Arrange
-        when(stockMovementRepository.getTopReasons(5))
+        when(stockOutReasonDailyRepository.getTopReasons(5))
             .thenReturn(Collections.emptyList());
         
         // Act
@@ -364,7 +416,7 @@ class StockOutReasonServiceTest {
         LocalDate specificDate = LocalDate.of(2024, 6, 15);
         List<StockMovementRepository.ReasonBreakdownProjection> mockProjections = 
             createMockReasonBreakdownProjections();
-        when(stockMovementRepository.getReasonBreakdown(any(LocalDateTime.class), any(LocalDateTime.class)))
+        when(stockOutReasonDailyRepository.getReasonBreakdown(any(LocalDate.class), any(LocalDate.class)))
             .thenReturn(mockProjections);
         
         // Act
@@ -0,0 +1,122 @@
+package management.backend.inventory.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import management.backend.inventory.config.AppProperties;
+import management.backend.inventory.repository.StockJdbcRepository;
+import management.backend.inventory.repository.StockJdbcRepository.ItemLedgerBalance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StockReconciliationService
+ * Tests chunked reconciliation, repair and metrics
+ */
+@ExtendWith(MockitoExtension.class)
+class StockReconciliationServiceTest {
+
+    @Mock
+    private StockJdbcRepository stockJdbcRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StockReconciliationService stockReconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getReconciliation().setChunkSize(10);
+        appProperties.getReconciliation().setParallelism(2);
+        meterRegistry = new SimpleMeterRegistry();
+        stockReconciliationService = new StockReconciliationService(stockJdbcRepository, appProperties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Reconcile checks every item ID range and reports discrepancies")
+    void reconcile_ReportsDiscrepancies() {
+        // Arrange
+        when(stockJdbcRepository.findItemIdBounds()).thenReturn(new long[] {1L, 25L});
+        when(stockJdbcRepository.reconcileRange(1L, 10L)).thenReturn(List.of(
+            new ItemLedgerBalance(1L, 5L, 5L, 3L, false),
+            new ItemLedgerBalance(2L, 7L, 4L, 2L, false)
+        ));
+        when(stockJdbcRepository.reconcileRange(11L, 20L)).thenReturn(List.of(
+            new ItemLedgerBalance(11L, 0L, 0L, 0L, false)
+        ));
+        when(stockJdbcRepository.reconcileRange(21L, 25L)).thenReturn(List.of(
+            new ItemLedgerBalance(25L, 1L, 1L, 1L, false)
+        ));
+
+        // Act
+        StockReconciliationService.Report report = stockReconciliationService.reconcile(false);
+
+        // Assert
+        assertEquals(4, report.itemsChecked());
+        assertEquals(6, report.movementsScanned());
+        assertEquals(1, report.discrepancyCount());
+        assertEquals(2L, report.discrepancies().get(0).itemId());
+        assertEquals(0, report.repaired());
+        assertEquals(1.0, meterRegistry.get("stock.reconciliation.progress").gauge().value());
+        assertEquals(6.0, meterRegistry.get("stock.reconciliation.movements").counter().count());
+        verify(stockJdbcRepository, never()).repairCurrentStock(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Reconcile with repair rewrites mismatched balances")
+    void reconcile_RepairsDiscrepancies() {
+        // Arrange
+        when(stockJdbcRepository.findItemIdBounds()).thenReturn(new long[] {1L, 5L});
+        when(stockJdbcRepository.reconcileRange(1L, 5L)).thenReturn(List.of(
+            new ItemLedgerBalance(3L, 9L, 6L, 4L, false)
+        ));
+        when(stockJdbcRepository.repairCurrentStock(3L, 9L, 6L)).thenReturn(true);
+
+        // Act
+        StockReconciliationService.Report report = stockReconciliationService.reconcile(true);
+
+        // Assert
+        assertEquals(1, report.repaired());
+        assertEquals(1.0, meterRegistry.get("stock.reconciliation.repairs").counter().count());
+    }
+
+    @Test
+    @DisplayName("Reconcile with repair leaves items with stock-outs edited outside the ledger alone")
+    void reconcile_UnledgeredItem_NotRepaired() {
+        // Arrange
+        when(stockJdbcRepository.findItemIdBounds()).thenReturn(new long[] {1L, 5L});
+        when(stockJdbcRepository.reconcileRange(1L, 5L)).thenReturn(List.of(
+            new ItemLedgerBalance(3L, 9L, 6L, 4L, true)
+        ));
+
+        // Act
+        StockReconciliationService.Report report = stockReconciliationService.reconcile(true);
+
+        // Assert
+        assertEquals(1, report.discrepancyCount());
+        assertEquals(0, report.repaired());
+        assertEquals(1, report.unrepairable());
+        verify(stockJdbcRepository, never()).repairCurrentStock(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Reconcile with no items does nothing")
+    void reconcile_NoItems() {
+        // Arrange
+        when(stockJdbcRepository.findItemIdBounds()).thenReturn(null);
+
+        // Act
+        StockReconciliationService.Report report = stockReconciliationService.reconcile(false);
+
+        // Assert
+        assertEquals(0, report.itemsChecked());
+        verify(stockJdbcRepository, never()).reconcileRange(anyLong(), anyLong());
+    }
+}
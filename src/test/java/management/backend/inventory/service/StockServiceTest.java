@@ -0,0 +1,380 @@
+package management.backend.inventory.service;
+
+import management.backend.inventory.dto.CursorPageResponse;
+import management.backend.inventory.dto.StockInBatchRequest;
+import management.backend.inventory.dto.StockInBatchRequest.StockInLine;
+import management.backend.inventory.dto.StockMovementHistoryFilter;
+import management.backend.inventory.dto.StockMovementHistoryResponse;
+import management.backend.inventory.dto.StockStatusResponse;
+import management.backend.inventory.entity.Item;
+import management.backend.inventory.entity.MovementType;
+import management.backend.inventory.entity.StockMovement;
+import management.backend.inventory.entity.StockSourceMode;
+import management.backend.inventory.entity.StockStatus;
+import management.backend.inventory.entity.User;
+import management.backend.inventory.entity.Warehouse;
+import management.backend.inventory.exception.ValidationException;
+import management.backend.inventory.repository.ItemRepository;
+import management.backend.inventory.repository.ItemStockTotalRepository;
+import management.backend.inventory.repository.ItemWarehouseStockRepository;
+import management.backend.inventory.repository.StockInDocumentRepository;
+import management.backend.inventory.repository.StockJdbcRepository;
+import management.backend.inventory.repository.StockMovementHistoryRepository;
+import management.backend.inventory.repository.StockMovementRepository;
+import management.backend.inventory.repository.SupplierRepository;
+import management.backend.inventory.repository.UserRepository;
+import management.backend.inventory.repository.WarehouseRepository;
+import management.backend.inventory.util.CompositeKeyCursor;
+import management.backend.inventory.util.KeysetCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StockService
+ * Tests the set-based stock-in batch path, stock-in edits, movement history paging and
+ * stock status alert queries
+ */
+@ExtendWith(MockitoExtension.class)
+class StockServiceTest {
+
+    @Mock
+    private StockMovementRepository stockMovementRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SupplierRepository supplierRepository;
+
+    @Mock
+    private WarehouseRepository warehouseRepository;
+
+    @Mock
+    private StockMutationService stockMutationService;
+
+    @Mock
+    private ItemStockTotalRepository itemStockTotalRepository;
+
+    @Mock
+    private StockMovementHistoryRepository stockMovementHistoryRepository;
+
+    @Mock
+    private StockInDocumentRepository stockInDocumentRepository;
+
+    @Mock
+    private StockJdbcRepository stockJdbcRepository;
+
+    @Mock
+    private StockLedgerService stockLedgerService;
+
+    @Mock
+    private DocumentNumberService documentNumberService;
+
+    @Mock
+    private ItemWarehouseStockRepository itemWarehouseStockRepository;
+
+    @InjectMocks
+    private StockService stockService;
+
+    private Authentication authentication;
+    private User user;
+    private Warehouse warehouse;
+
+    @BeforeEach
+    void setUp() {
+        authentication = new UsernamePasswordAuthenticationToken("7", null);
+        user = new User();
+        user.setId(7L);
+        warehouse = new Warehouse();
+        warehouse.setWarehouseId(3L);
+        warehouse.setIsActive(true);
+    }
+
+    private static StockInLine line(Long itemId, Long quantity) {
+        StockInLine line = new StockInLine();
+        line.setItemId(itemId);
+        line.setQuantity(quantity);
+        return line;
+    }
+
+    private static StockInBatchRequest request(StockInLine... lines) {
+        StockInBatchRequest request = new StockInBatchRequest();
+        request.setWarehouseId(3L);
+        request.setReferenceNumber("SI-1");
+        request.setItems(new ArrayList<>(List.of(lines)));
+        return request;
+    }
+
+    private static Item item(Long itemId) {
+        Item item = new Item();
+        item.setItemId(itemId);
+        return item;
+    }
+
+    @Test
+    @DisplayName("Batch stock-in updates each item once and chains balances across its lines")
+    void recordStockInBatch_DuplicateItem_OneUpdatePerItem() {
+        // Arrange
+        when(warehouseRepository.findById(3L)).thenReturn(Optional.of(warehouse));
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        when(stockMutationService.increaseStockBulk(Map.of(1L, 5L, 2L, 4L))).thenReturn(Map.of(1L, 15L, 2L, 4L));
+        when(itemRepository.getReferenceById(anyLong())).thenAnswer(invocation -> item(invocation.getArgument(0)));
+        when(stockMutationService.recordMovements(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        List<StockMovement> movements = stockService.recordStockInBatch(
+            request(line(1L, 2L), line(2L, 4L), line(1L, 3L)), authentication);
+
+        // Assert
+        verify(stockMutationService, times(1)).increaseStockBulk(anyMap());
+        assertEquals(3, movements.size());
+        StockMovement first = movements.get(0);
+        assertEquals(MovementType.IN, first.getMovementType());
+        assertEquals(10L, first.getPreviousStock());
+        assertEquals(12L, first.getNewStock());
+        assertEquals(12L, movements.get(2).getPreviousStock());
+        assertEquals(15L, movements.get(2).getNewStock());
+        assertEquals(0L, movements.get(1).getPreviousStock());
+        assertEquals(4L, movements.get(1).getNewStock());
+        assertTrue(movements.stream().allMatch(m -> "SI-1".equals(m.getReferenceNumber())
+            && m.getWarehouse() == warehouse && m.getSourceMode() == StockSourceMode.NON_SUPPLIER));
+        verify(stockJdbcRepository).upsertStockInDocument(eq("SI-1"), isNull(), eq(3L), eq(7L),
+            eq(StockSourceMode.NON_SUPPLIER), eq(3), isNull(), any());
+    }
+
+    @Test
+    @DisplayName("Batch stock-in with a line missing its item ID changes nothing")
+    void recordStockInBatch_MissingItemId_Throws() {
+        // Arrange
+        when(warehouseRepository.findById(3L)).thenReturn(Optional.of(warehouse));
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+
+        // Act
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> stockService.recordStockInBatch(request(line(1L, 2L), line(null, 4L)), authentication));
+
+        // Assert
+        assertEquals("Item ID cannot be null", e.getMessage());
+        verifyNoInteractions(stockMutationService, stockJdbcRepository);
+    }
+
+    @Test
+    @DisplayName("Batch stock-in for an unknown item fails before any movement is recorded")
+    void recordStockInBatch_UnknownItem_Throws() {
+        // Arrange
+        when(warehouseRepository.findById(3L)).thenReturn(Optional.of(warehouse));
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        when(stockMutationService.increaseStockBulk(anyMap()))
+            .thenThrow(new IllegalArgumentException("Item not found: 99"));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+            () -> stockService.recordStockInBatch(request(line(99L, 1L)), authentication));
+        verify(stockMutationService, never()).recordMovements(anyList());
+        verifyNoInteractions(stockJdbcRepository);
+    }
+
+    private StockMovement existingLine(Long id, Long itemId, Long quantity) {
+        StockMovement m = new StockMovement(item(itemId), user, MovementType.IN, quantity, 0L, quantity);
+        m.setStockMovementId(id);
+        m.setWarehouse(warehouse);
+        m.setReferenceNumber("SI-1");
+        m.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        return m;
+    }
+
+    @Test
+    @DisplayName("Editing a stock-in updates its document header in place")
+    void updateStockIn_UpdatesHeaderInPlace() {
+        // Arrange
+        StockInBatchRequest request = request(line(1L, 5L));
+        request.setNotes("recounted");
+        when(warehouseRepository.findById(3L)).thenReturn(Optional.of(warehouse));
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        when(stockMovementRepository.findByReferenceNumber("SI-1")).thenReturn(List.of(existingLine(10L, 1L, 5L)));
+        when(stockMutationService.adjustStockBulk(Map.of(1L, 0L))).thenReturn(Map.of(1L, 5L));
+        when(stockJdbcRepository.updateStockInDocument("SI-1", "SI-1", null, 3L, StockSourceMode.NON_SUPPLIER, 1, "recounted"))
+            .thenReturn(1);
+
+        // Act
+        stockService.updateStockIn("SI-1", request, authentication);
+
+        // Assert
+        verify(stockJdbcRepository, never()).deleteStockInDocument(anyString());
+        verify(stockJdbcRepository, never()).upsertStockInDocument(anyString(), any(), any(), any(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Editing a stock-in restates lines of an unchanged item from its balance including shards")
+    void updateStockIn_NetZeroItem_RestatesFromShardedBalance() {
+        // Arrange
+        StockMovement first = existingLine(10L, 1L, 5L);
+        StockMovement second = existingLine(11L, 1L, 5L);
+        when(warehouseRepository.findById(3L)).thenReturn(Optional.of(warehouse));
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        when(stockMovementRepository.findByReferenceNumber("SI-1")).thenReturn(List.of(first, second));
+        when(stockMutationService.adjustStockBulk(Map.of(1L, 0L))).thenReturn(Map.of());
+        when(stockMutationService.currentStock(1L)).thenReturn(12L);
+
+        // Act
+        stockService.updateStockIn("SI-1", request(line(1L, 3L), line(1L, 7L)), authentication);
+
+        // Assert
+        assertEquals(2L, first.getPreviousStock());
+        assertEquals(5L, first.getNewStock());
+        assertEquals(5L, second.getPreviousStock());
+        assertEquals(12L, second.getNewStock());
+        verify(itemRepository, never()).getReferenceById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Editing a stock-in without a document header creates one")
+    void updateStockIn_NoHeader_CreatesOne() {
+        // Arrange
+        when(warehouseRepository.findById(3L)).thenReturn(Optional.of(warehouse));
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        when(stockMovementRepository.findByReferenceNumber("SI-1")).thenReturn(List.of(existingLine(10L, 1L, 5L)));
+        when(stockMutationService.adjustStockBulk(Map.of(1L, 0L))).thenReturn(Map.of(1L, 5L));
+
+        // Act
+        stockService.updateStockIn("SI-1", request(line(1L, 5L)), authentication);
+
+        // Assert
+        verify(stockJdbcRepository).upsertStockInDocument(eq("SI-1"), isNull(), eq(3L), eq(7L),
+            eq(StockSourceMode.NON_SUPPLIER), eq(1), isNull(), any());
+    }
+
+    @Test
+    @DisplayName("Renaming a stock-in to a reference already in use changes nothing")
+    void updateStockIn_RenameToExistingReference_Throws() {
+        // Arrange
+        StockInBatchRequest request = request(line(1L, 5L));
+        request.setReferenceNumber("SI-2");
+        when(warehouseRepository.findById(3L)).thenReturn(Optional.of(warehouse));
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        when(stockInDocumentRepository.existsByReferenceNumber("SI-2")).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> stockService.updateStockIn("SI-1", request, authentication));
+        verifyNoInteractions(stockMutationService, stockJdbcRepository);
+    }
+
+    @Test
+    @DisplayName("Stock status alerts for one warehouse page by item within it")
+    void getStockStatusAlerts_Warehouse_UsesWarehouseQuery() {
+        // Arrange
+        String cursor = new CompositeKeyCursor(3L, 40L).encode();
+        when(itemWarehouseStockRepository.findWarehouseAlertsAfterByStatus(3L, 40L, StockStatus.LOW, Limit.of(11)))
+            .thenReturn(List.of());
+
+        // Act
+        CursorPageResponse<StockStatusResponse> page = stockService.getStockStatusAlerts(3L, StockStatus.LOW, cursor, 10);
+
+        // Assert
+        assertFalse(page.isHasMore());
+        verify(itemWarehouseStockRepository, never()).findAlertsAfter(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Stock status alerts across warehouses page by warehouse and item")
+    void getStockStatusAlerts_AllWarehouses_UsesKeysetQuery() {
+        // Arrange
+        when(itemWarehouseStockRepository.findAlertsAfter(0L, 0L, Limit.of(11))).thenReturn(List.of());
+
+        // Act
+        stockService.getStockStatusAlerts(null, null, null, 10);
+
+        // Assert
+        verify(itemWarehouseStockRepository).findAlertsAfter(0L, 0L, Limit.of(11));
+    }
+
+    @Test
+    @DisplayName("Stock status alerts reject a cursor from another warehouse")
+    void getStockStatusAlerts_CursorForOtherWarehouse_Throws() {
+        // Arrange
+        String cursor = new CompositeKeyCursor(4L, 40L).encode();
+
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> stockService.getStockStatusAlerts(3L, null, cursor, 10));
+        verifyNoInteractions(itemWarehouseStockRepository);
+    }
+
+    private static StockMovementHistoryResponse historyRow(Long id, LocalDateTime createdAt) {
+        StockMovementHistoryResponse row = new StockMovementHistoryResponse();
+        row.setStockMovementId(id);
+        row.setCreatedAt(createdAt);
+        return row;
+    }
+
+    @Test
+    @DisplayName("Movement history fetches one extra row and returns a cursor at the last row shown")
+    void getMovementHistory_MoreRows_ReturnsCursor() {
+        // Arrange
+        StockMovementHistoryFilter filter = StockMovementHistoryFilter.of(null, null, null, null, null);
+        LocalDateTime time = LocalDateTime.of(2024, 1, 1, 12, 0);
+        when(stockMovementHistoryRepository.findPage(filter, null, 3)).thenReturn(new ArrayList<>(List.of(
+            historyRow(9L, time), historyRow(8L, time), historyRow(7L, time.minusMinutes(1)))));
+
+        // Act
+        CursorPageResponse<StockMovementHistoryResponse> page = stockService.getMovementHistory(filter, null, 2);
+
+        // Assert
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasMore());
+        KeysetCursor next = KeysetCursor.decode(page.getNextCursor());
+        assertEquals(time, next.getCreatedAt());
+        assertEquals(8L, next.getId());
+    }
+
+    @Test
+    @DisplayName("Movement history passes the decoded cursor and ends on a short page")
+    void getMovementHistory_LastPage_NoCursor() {
+        // Arrange
+        StockMovementHistoryFilter filter = StockMovementHistoryFilter.of(null, null, "out", 5L, null);
+        LocalDateTime time = LocalDateTime.of(2024, 1, 1, 12, 0);
+        String cursor = new KeysetCursor(time, 8L).encode();
+        when(stockMovementHistoryRepository.findPage(eq(filter), argThat(c -> c.getId().equals(8L) && c.getCreatedAt().equals(time)), eq(3)))
+            .thenReturn(List.of(historyRow(7L, time.minusMinutes(1))));
+
+        // Act
+        CursorPageResponse<StockMovementHistoryResponse> page = stockService.getMovementHistory(filter, cursor, 2);
+
+        // Assert
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Movement history rejects a page size out of range")
+    void getMovementHistory_InvalidLimit_Throws() {
+        // Arrange
+        StockMovementHistoryFilter filter = StockMovementHistoryFilter.of(null, null, null, null, null);
+
+        // Act & Assert
+        assertThrows(ValidationException.class, () -> stockService.getMovementHistory(filter, null, 0));
+        assertThrows(ValidationException.class, () -> stockService.getMovementHistory(filter, null, 501));
+        verifyNoInteractions(stockMovementHistoryRepository);
+    }
+}
@@ -0,0 +1,94 @@
+package management.backend.inventory.service;
+
+import management.backend.inventory.config.AppProperties;
+import management.backend.inventory.repository.ItemStockShardRepository;
+import management.backend.inventory.repository.ItemStockShardRepository.LockedBalance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StockShardService
+ * Tests shard writes, rebalancing and hot-item evaluation
+ */
+@ExtendWith(MockitoExtension.class)
+class StockShardServiceTest {
+
+    @Mock
+    private ItemStockShardRepository itemStockShardRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AppProperties appProperties;
+    private StockShardService stockShardService;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        appProperties.getSharding().setEnabled(true);
+        appProperties.getSharding().setShards(4);
+        appProperties.getSharding().setHotThreshold(3);
+        appProperties.getSharding().setCoolThreshold(1);
+        stockShardService = new StockShardService(itemStockShardRepository, transactionManager, appProperties);
+    }
+
+    @Test
+    @DisplayName("Stock-out taken from one shard when it holds enough")
+    void tryDecrease_ShardHasEnough_UpdatesOneShard() {
+        when(itemStockShardRepository.addToShard(eq(1L), anyInt(), eq(-5L))).thenReturn(true);
+        when(itemStockShardRepository.findBalance(1L)).thenReturn(95L);
+
+        assertEquals(Optional.of(95L), stockShardService.tryDecrease(1L, 5L));
+        verify(itemStockShardRepository, never()).lockBalance(anyLong());
+    }
+
+    @Test
+    @DisplayName("Stock-out larger than its shard rebalances the item")
+    void tryDecrease_ShardTooSmall_Rebalances() {
+        when(itemStockShardRepository.addToShard(eq(1L), anyInt(), eq(-30L))).thenReturn(false);
+        when(itemStockShardRepository.lockBalance(1L)).thenReturn(new LockedBalance(0, 40, 4));
+
+        assertEquals(Optional.of(10L), stockShardService.tryDecrease(1L, 30L));
+        verify(itemStockShardRepository).distribute(1L, 10L, 4);
+    }
+
+    @Test
+    @DisplayName("Stock-out beyond the full balance is rejected")
+    void tryDecrease_Insufficient_ReturnsEmpty() {
+        when(itemStockShardRepository.addToShard(eq(1L), anyInt(), eq(-50L))).thenReturn(false);
+        when(itemStockShardRepository.lockBalance(1L)).thenReturn(new LockedBalance(0, 40, 4));
+
+        assertTrue(stockShardService.tryDecrease(1L, 50L).isEmpty());
+        verify(itemStockShardRepository, never()).distribute(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Hot items are sharded and cooled items consolidated")
+    void evaluate_ShardsHotAndConsolidatesCoolItems() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(itemStockShardRepository.findShardedItemIds()).thenReturn(List.of(2L));
+        when(itemStockShardRepository.lockBalance(1L)).thenReturn(new LockedBalance(100, 0, 0));
+        when(itemStockShardRepository.consolidate(2L)).thenReturn(true);
+        for (int i = 0; i < 3; i++) stockShardService.recordWrite(1L);
+
+        stockShardService.evaluate();
+
+        verify(itemStockShardRepository).distribute(1L, 100L, 4);
+        verify(itemStockShardRepository).consolidate(2L);
+        assertTrue(stockShardService.isSharded(1L));
+        assertFalse(stockShardService.isSharded(2L));
+    }
+}
@@ -0,0 +1,140 @@
+package management.backend.inventory.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import management.backend.inventory.config.AppProperties;
+import management.backend.inventory.repository.StockSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StockSummaryRefreshService
+ * Tests change coalescing, ledger polling and lag metrics
+ */
+@ExtendWith(MockitoExtension.class)
+class StockSummaryRefreshServiceTest {
+
+    @Mock
+    private StockSummaryRepository stockSummaryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final MutableClock clock = new MutableClock();
+    private SimpleMeterRegistry meterRegistry;
+    private StockSummaryRefreshService stockSummaryRefreshService;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getSummaryRefresh().setCoalesceWindow(Duration.ofSeconds(5));
+        meterRegistry = new SimpleMeterRegistry();
+        stockSummaryRefreshService = new StockSummaryRefreshService(stockSummaryRepository, transactionManager,
+            appProperties, meterRegistry, clock);
+        lenient().when(stockSummaryRepository.findMaxTransactionId()).thenReturn(100L);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(stockSummaryRepository.tryLockRefresh()).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Changes within the coalescing window share one refresh")
+    void refreshIfDue_CoalescesChanges() {
+        // Arrange
+        stockSummaryRefreshService.markChanged();
+        clock.advance(Duration.ofSeconds(2));
+        stockSummaryRefreshService.markChanged();
+
+        // Act
+        stockSummaryRefreshService.refreshIfDue();
+        clock.advance(Duration.ofSeconds(3));
+        stockSummaryRefreshService.refreshIfDue();
+        stockSummaryRefreshService.refreshIfDue();
+
+        // Assert
+        verify(stockSummaryRepository, times(1)).refreshConcurrently();
+        assertEquals(0.0, stockSummaryRefreshService.lagSeconds());
+        assertEquals(1.0, meterRegistry.counter("stock.summary.refresh.count").count());
+    }
+
+    @Test
+    @DisplayName("No refresh while the ledger is unchanged")
+    void refreshIfDue_NoChanges_DoesNothing() {
+        // Act
+        stockSummaryRefreshService.refreshIfDue();
+        clock.advance(Duration.ofMinutes(1));
+        stockSummaryRefreshService.refreshIfDue();
+
+        // Assert
+        verify(stockSummaryRepository, never()).refreshConcurrently();
+    }
+
+    @Test
+    @DisplayName("A new transaction ID from another writer marks the view stale")
+    void refreshIfDue_LedgerGrew_Refreshes() {
+        // Arrange
+        stockSummaryRefreshService.refreshIfDue();
+        when(stockSummaryRepository.findMaxTransactionId()).thenReturn(150L);
+        stockSummaryRefreshService.refreshIfDue();
+
+        // Act
+        clock.advance(Duration.ofSeconds(5));
+        stockSummaryRefreshService.refreshIfDue();
+
+        // Assert
+        verify(stockSummaryRepository).refreshConcurrently();
+    }
+
+    @Test
+    @DisplayName("When another session holds the refresh lock the change stays pending")
+    void refreshIfDue_Locked_KeepsLag() {
+        // Arrange
+        when(stockSummaryRepository.tryLockRefresh()).thenReturn(false);
+        stockSummaryRefreshService.markChanged();
+        clock.advance(Duration.ofSeconds(6));
+
+        // Act
+        stockSummaryRefreshService.refreshIfDue();
+
+        // Assert
+        verify(stockSummaryRepository, never()).refreshConcurrently();
+        assertEquals(6.0, stockSummaryRefreshService.lagSeconds());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package management.backend.inventory.service;
+
+import management.backend.inventory.config.AppProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StockWriteBehindService
+ * Tests group commits, per-operation fallback and inline execution
+ */
+@ExtendWith(MockitoExtension.class)
+class StockWriteBehindServiceTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private AppProperties appProperties;
+    private StockWriteBehindService stockWriteBehindService;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        appProperties.getWriteBehind().setEnabled(true);
+        appProperties.getWriteBehind().setMaxBatchSize(10);
+        appProperties.getWriteBehind().setFlushInterval(Duration.ofMillis(50));
+        stockWriteBehindService = new StockWriteBehindService(transactionManager, jdbcTemplate, appProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockWriteBehindService.stop();
+    }
+
+    @Test
+    @DisplayName("Not started runs operations inline without a group transaction")
+    void execute_NotStarted_RunsInline() {
+        assertEquals("done", stockWriteBehindService.execute(() -> "done"));
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    @DisplayName("Queued operations share one transaction")
+    void submit_GroupsOperationsIntoOneCommit() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        stockWriteBehindService.start();
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int value = i;
+            futures.add(stockWriteBehindService.submit(() -> value));
+        }
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, futures.get(i).join());
+        }
+        verify(transactionManager, atMost(5)).commit(any());
+        verify(transactionManager, atLeastOnce()).commit(any());
+    }
+
+    @Test
+    @DisplayName("A failing operation only fails its own caller")
+    void flush_FailingOperation_RetriesOneByOne() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        stockWriteBehindService.start();
+
+        CompletableFuture<String> ok = stockWriteBehindService.submit(() -> "ok");
+        CompletableFuture<String> failing = stockWriteBehindService.submit(() -> {
+            throw new IllegalArgumentException("Insufficient stock");
+        });
+
+        assertEquals("ok", ok.join());
+        CompletionException e = assertThrows(CompletionException.class, failing::join);
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("A rejected operation is dropped and the rest of its group commits together")
+    void flush_RejectedOperation_RegroupsTheRest() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        AtomicInteger calls = new AtomicInteger();
+        stockWriteBehindService.start();
+
+        CompletableFuture<Integer> first = stockWriteBehindService.submit(calls::incrementAndGet);
+        CompletableFuture<Integer> failing = stockWriteBehindService.submit(() -> {
+            throw new IllegalArgumentException("Insufficient stock");
+        });
+        CompletableFuture<Integer> last = stockWriteBehindService.submit(calls::incrementAndGet);
+
+        assertNotNull(first.join());
+        assertNotNull(last.join());
+        CompletionException e = assertThrows(CompletionException.class, failing::join);
+        assertEquals("Insufficient stock", e.getCause().getMessage());
+        // First group stopped at the failure, the regrouped two ran once more
+        assertEquals(3, calls.get());
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test
+    @DisplayName("A database error runs each operation alone")
+    void flush_DatabaseError_RunsOperationsAlone() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        stockWriteBehindService.start();
+
+        CompletableFuture<String> failing = stockWriteBehindService.submit(() -> {
+            throw new QueryTimeoutException("lock timeout");
+        });
+
+        CompletionException e = assertThrows(CompletionException.class, failing::join);
+        assertInstanceOf(QueryTimeoutException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("Asynchronous commit is requested when synchronous commit is off")
+    void flush_SynchronousCommitOff_SetsLocalSetting() {
+        appProperties.getWriteBehind().setSynchronousCommit(false);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        stockWriteBehindService.start();
+
+        assertEquals(1, stockWriteBehindService.execute(() -> 1));
+
+        verify(jdbcTemplate, atLeastOnce()).execute("SET LOCAL synchronous_commit TO OFF");
+    }
+}